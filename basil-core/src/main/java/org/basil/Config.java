@@ -10,8 +10,11 @@ import java.util.List;
 import org.basil.selenium.base.BrowserType;
 import org.basil.selenium.base.DriverType;
 import org.basil.selenium.base.DriverUtil;
+import org.basil.selenium.page.CachedLookup.Validation;
 import org.basil.selenium.page.PageObject.TimerStyle;
 import org.basil.selenium.ui.ExtendedConditions.Precondition;
+import org.basil.selenium.ui.PollingStrategies;
+import org.basil.selenium.ui.PollingStrategy;
 import org.basil.selenium.ui.SearchContextWait.NotFound;
 import org.openqa.selenium.Dimension;
 import org.spearmint.base.Booleans;
@@ -46,6 +49,42 @@ public interface Config {
 
     String WEB_DRIVER_EXECUTABLE_IE = "web.driver.executable.ie";
 
+    // WebDriver > Pool
+
+    String WEB_DRIVER_POOL_SIZE = "web.driver.pool.size";
+
+    String WEB_DRIVER_POOL_RECYCLE = "web.driver.pool.recycle";
+
+    String WEB_DRIVER_POOL_TIMEOUT = "web.driver.pool.timeout";
+
+    String WEB_DRIVER_POOL_WARMUP = "web.driver.pool.warmup";
+
+    String WEB_DRIVER_POOL_STANDBY = "web.driver.pool.standby";
+
+    // WebDriver > Session
+
+    String WEB_DRIVER_SESSION_STORE = "web.driver.session.store";
+
+    String WEB_DRIVER_SESSION_DIRECTORY = "web.driver.session.directory";
+
+    String WEB_DRIVER_SESSION_CACHE_TTL = "web.driver.session.cache.ttl";
+
+    // WebDriver > HTTP
+
+    String WEB_DRIVER_HTTP_CONNECTIONS_TOTAL = "web.driver.http.connections.total";
+
+    String WEB_DRIVER_HTTP_CONNECTIONS_HOST = "web.driver.http.connections.host";
+
+    String WEB_DRIVER_HTTP_TIMEOUT_CONNECT = "web.driver.http.timeout.connect";
+
+    String WEB_DRIVER_HTTP_TIMEOUT_READ = "web.driver.http.timeout.read";
+
+    String WEB_DRIVER_HTTP_KEEPALIVE = "web.driver.http.keepalive";
+
+    // WebDriver > Metrics
+
+    String WEB_DRIVER_METRICS_DUMP = "web.driver.metrics.dump";
+
     // WebDriver > Wait
 
     String WEB_DRIVER_WAIT_TIMEOUT = "web.driver.wait.timeout";
@@ -78,14 +117,48 @@ public interface Config {
 
     String PAGE_OBJECT_TIMER_31S = "page.object.timer.31s";
 
+    // Lookup
+
+    String LOOKUP_CACHE_SNAPSHOT = "lookup.cache.snapshot";
+
+    String LOOKUP_CACHE_SIZE = "lookup.cache.size";
+
+    String LOOKUP_CACHE_TTL = "lookup.cache.ttl";
+
+    String LOOKUP_CACHE_VALIDATE = "lookup.cache.validate";
+
+    // Table
+
+    String TABLE_SNAPSHOT_BULK = "table.snapshot.bulk";
+
     // SearchContextWait
 
     String WAIT_INTERVAL = "wait.interval";
 
+    String WAIT_POLLING = "wait.polling";
+
     String WAIT_TIMEOUT = "wait.timeout";
 
     String WAIT_NOT_FOUND = "wait.not.found";
 
+    // MutationWait
+
+    String WAIT_MUTATION_OBSERVER = "wait.mutation.observer";
+
+    String WAIT_MUTATION_SLICE = "wait.mutation.slice";
+
+    String WAIT_MUTATION_SCRIPT = "wait.mutation.script";
+
+    // NetworkIdle
+
+    String WAIT_NETWORK_IDLE = "wait.network.idle";
+
+    String WAIT_NETWORK_QUIET = "wait.network.quiet";
+
+    String WAIT_NETWORK_TIMERS = "wait.network.timers";
+
+    String WAIT_NETWORK_BOUND = "wait.network.bound";
+
   }
 
   // Browser
@@ -106,6 +179,42 @@ public interface Config {
 
   String WEB_DRIVER_EXECUTABLE_IE = PropertyUtil.getString(Key.WEB_DRIVER_EXECUTABLE_IE);
 
+  // WebDriver > Pool
+
+  long WEB_DRIVER_POOL_SIZE = PropertyUtil.getLong(Key.WEB_DRIVER_POOL_SIZE);
+
+  long WEB_DRIVER_POOL_RECYCLE = PropertyUtil.getLong(Key.WEB_DRIVER_POOL_RECYCLE);
+
+  long WEB_DRIVER_POOL_TIMEOUT = PropertyUtil.getLong(Key.WEB_DRIVER_POOL_TIMEOUT);
+
+  long WEB_DRIVER_POOL_WARMUP = PropertyUtil.getLong(Key.WEB_DRIVER_POOL_WARMUP);
+
+  long WEB_DRIVER_POOL_STANDBY = PropertyUtil.getLong(Key.WEB_DRIVER_POOL_STANDBY);
+
+  // WebDriver > Session
+
+  String WEB_DRIVER_SESSION_STORE = PropertyUtil.getString(Key.WEB_DRIVER_SESSION_STORE);
+
+  String WEB_DRIVER_SESSION_DIRECTORY = PropertyUtil.getString(Key.WEB_DRIVER_SESSION_DIRECTORY);
+
+  long WEB_DRIVER_SESSION_CACHE_TTL = PropertyUtil.getLong(Key.WEB_DRIVER_SESSION_CACHE_TTL);
+
+  // WebDriver > HTTP
+
+  long WEB_DRIVER_HTTP_CONNECTIONS_TOTAL = PropertyUtil.getLong(Key.WEB_DRIVER_HTTP_CONNECTIONS_TOTAL);
+
+  long WEB_DRIVER_HTTP_CONNECTIONS_HOST = PropertyUtil.getLong(Key.WEB_DRIVER_HTTP_CONNECTIONS_HOST);
+
+  long WEB_DRIVER_HTTP_TIMEOUT_CONNECT = PropertyUtil.getLong(Key.WEB_DRIVER_HTTP_TIMEOUT_CONNECT);
+
+  long WEB_DRIVER_HTTP_TIMEOUT_READ = PropertyUtil.getLong(Key.WEB_DRIVER_HTTP_TIMEOUT_READ);
+
+  long WEB_DRIVER_HTTP_KEEPALIVE = PropertyUtil.getLong(Key.WEB_DRIVER_HTTP_KEEPALIVE);
+
+  // WebDriver > Metrics
+
+  boolean WEB_DRIVER_METRICS_DUMP = PropertyUtil.getBoolean(Key.WEB_DRIVER_METRICS_DUMP);
+
   // WebDriver > Wait
 
   long WEB_DRIVER_WAIT_TIMEOUT = PropertyUtil.getLong(Key.WEB_DRIVER_WAIT_TIMEOUT);
@@ -138,12 +247,48 @@ public interface Config {
 
   boolean PAGE_OBJECT_TIMER_31S = Booleans.fromString(PropertyUtil.getString(Key.PAGE_OBJECT_TIMER_31S));
 
+  // Lookup
+
+  boolean LOOKUP_CACHE_SNAPSHOT = Booleans.fromString(PropertyUtil.getString(Key.LOOKUP_CACHE_SNAPSHOT));
+
+  long LOOKUP_CACHE_SIZE = PropertyUtil.getLong(Key.LOOKUP_CACHE_SIZE);
+
+  long LOOKUP_CACHE_TTL = PropertyUtil.getLong(Key.LOOKUP_CACHE_TTL);
+
+  Validation LOOKUP_CACHE_VALIDATE =
+      Validation.fromString(PropertyUtil.getString(Key.LOOKUP_CACHE_VALIDATE));
+
+  // Table
+
+  boolean TABLE_SNAPSHOT_BULK = Booleans.fromString(PropertyUtil.getString(Key.TABLE_SNAPSHOT_BULK));
+
   // SearchContextWait
 
   long WAIT_INTERVAL = PropertyUtil.getLong(Key.WAIT_INTERVAL);
 
+  PollingStrategy WAIT_POLLING =
+      PollingStrategies.fromString(PropertyUtil.getString(Key.WAIT_POLLING));
+
   long WAIT_TIMEOUT = PropertyUtil.getLong(Key.WAIT_TIMEOUT);
 
   NotFound WAIT_NOT_FOUND = NotFound.fromString(PropertyUtil.getString(Key.WAIT_NOT_FOUND));
 
+  // MutationWait
+
+  boolean WAIT_MUTATION_OBSERVER = Booleans.fromString(PropertyUtil.getString(Key.WAIT_MUTATION_OBSERVER));
+
+  long WAIT_MUTATION_SLICE = PropertyUtil.getLong(Key.WAIT_MUTATION_SLICE);
+
+  long WAIT_MUTATION_SCRIPT = PropertyUtil.getLong(Key.WAIT_MUTATION_SCRIPT);
+
+  // NetworkIdle
+
+  boolean WAIT_NETWORK_IDLE = Booleans.fromString(PropertyUtil.getString(Key.WAIT_NETWORK_IDLE));
+
+  long WAIT_NETWORK_QUIET = PropertyUtil.getLong(Key.WAIT_NETWORK_QUIET);
+
+  long WAIT_NETWORK_TIMERS = PropertyUtil.getLong(Key.WAIT_NETWORK_TIMERS);
+
+  long WAIT_NETWORK_BOUND = PropertyUtil.getLong(Key.WAIT_NETWORK_BOUND);
+
 }
@@ -6,12 +6,15 @@ package org.basil.selenium;
 
 import java.util.List;
 
+import org.basil.selenium.service.LocationPath;
 import org.basil.selenium.service.XPathUtil;
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 /**
  * Basil - Stuffs that are missing in By, like:
@@ -25,34 +28,46 @@ import com.google.common.base.Preconditions;
  * <li><b>Shorthand method for is/to(convert)/has(inspect)/get(extract) operations.</b>
  * </li>
  * </ol>
+ * Identical locators are interned, their XPath is parsed once to a LocationPath which answers the
+ * questions above.
  *
  * @author ryan131
  * @since Feb 22, 2014, 3:57:09 PM
  */
 public class Basil extends By {
 
+  private static final Interner<Basil> interner = Interners.newWeakInterner();
+
   public static Basil from(By locator) {
-    return new Basil(locator);
+    if (locator instanceof Basil) {
+      return (Basil) locator;
+    }
+    return interner.intern(new Basil(locator));
   }
 
   public static Basil id(String id) {
-    return new Basil(By.id(id));
+    return from(By.id(id));
   }
 
   public static Basil name(String name) {
-    return new Basil(By.name(name));
+    return from(By.name(name));
   }
 
   public static Basil tagName(String tagName) {
-    return new Basil(By.tagName(tagName));
+    return from(By.tagName(tagName));
   }
 
   public static Basil xpath(String xpathExpression) {
-    return new Basil(By.xpath(xpathExpression));
+    return from(By.xpath(xpathExpression));
   }
 
   private By by;
 
+  // Parsed once, null if the XPath isn't a location path
+  private volatile LocationPath locationPath;
+  private volatile boolean parsed;
+  private volatile Boolean confident;
+
   // Constructor
 
   private Basil(By by) {
@@ -63,16 +78,34 @@ public class Basil extends By {
     }
   }
 
+  /**
+   * Returns the parsed XPath of the locator, or null if it has no XPath or the XPath isn't a
+   * location path.
+   */
+  public LocationPath getLocationPath() {
+    if (!parsed) {
+      locationPath = hasXPath() ? LocationPath.of(getXPath()) : null;
+      parsed = true;
+    }
+    return locationPath;
+  }
+
   public boolean isDriver() {
-    try {
-      return getXPath().equals("/html") || getXPath().equals(".//html");
-    } catch (IllegalArgumentException iae) {
+    if (!hasXPath()) {
       return false;
     }
+    LocationPath path = getLocationPath();
+    if (path != null) {
+      return path.isDocumentElement();
+    }
+    return getXPath().equals("/html") || getXPath().equals(".//html");
   }
 
   public boolean isConfident() {
-    return hasId() || hasName() || isDriver();
+    if (confident == null) {
+      confident = hasId() || hasName() || isDriver();
+    }
+    return confident;
   }
 
   // ById
@@ -97,7 +130,8 @@ public class Basil extends By {
       return false;
     }
     if (isByXPath()) {
-      return getXPath().contains("@id=");
+      LocationPath path = getLocationPath();
+      return path != null ? path.hasAttribute("id") : getXPath().contains("@id=");
     }
     return false;
   }
@@ -128,7 +162,8 @@ public class Basil extends By {
       return true;
     }
     if (isByXPath()) {
-      return getXPath().contains("@name");
+      LocationPath path = getLocationPath();
+      return path != null ? path.hasAttribute("name") : getXPath().contains("@name");
     }
     return false;
   }
@@ -196,12 +231,21 @@ public class Basil extends By {
 
   public Basil concat(By by) {
     Basil byToBasil = Basil.from(by);
-    if (byToBasil.isConfident() || byToBasil.getXPath().startsWith(getXPath())) {
-      return byToBasil; // startsWith the same need to be dealt with
+    if (byToBasil.isConfident() || byToBasil.startsWith(this)) {
+      return byToBasil;
     }
     return Basil.xpath(XPathUtil.append(this.getXPath(), byToBasil.getXPath()));
   }
 
+  private boolean startsWith(Basil prefix) {
+    LocationPath path = getLocationPath();
+    LocationPath prefixPath = prefix.getLocationPath();
+    if (path != null && prefixPath != null) {
+      return path.startsWith(prefixPath); // By steps, "//div[1]" doesn't start "//div[10]"
+    }
+    return getXPath().startsWith(prefix.getXPath());
+  }
+
   // ByClassName
 
   public boolean isByClassName() {
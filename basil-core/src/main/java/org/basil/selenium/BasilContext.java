@@ -5,6 +5,7 @@
 package org.basil.selenium;
 
 import java.util.List;
+import java.util.Objects;
 
 import org.basil.selenium.base.DriverFactory;
 import org.basil.selenium.page.PageObject;
@@ -34,6 +35,8 @@ import com.google.common.base.Preconditions;
  *   </ul>
  * </li>
  * </ol>
+ * The locators concatenated with resolution avoidance are memoized as ResolutionPlans, which are
+ * reused until a context of the parent chain changes.
  *
  * @author ryan131
  * @since Sep 29, 2014, 11:21:10 PM
@@ -54,6 +57,8 @@ public class BasilContext extends AbstractContext implements SearchContext {
   protected Context context;
   protected Resolve resolve;
 
+  private int modCount; // Changes to the locators, context and parent, for the ResolutionPlans
+
   // Constructor
 
   protected BasilContext() {
@@ -62,6 +67,16 @@ public class BasilContext extends AbstractContext implements SearchContext {
     resolve = new Resolve();
   }
 
+  // Modification
+
+  int modCount() {
+    return modCount;
+  }
+
+  void modified() {
+    modCount++;
+  }
+
   // Copy
 
   protected void copy(BasilContext source) {
@@ -117,10 +132,14 @@ public class BasilContext extends AbstractContext implements SearchContext {
     protected Basil confident;
     protected Basil generated;
 
+    // The plan of the generated locator concatenated with the parent chain
+    private ResolutionPlan generatedPlan;
+
     protected void copy(Locator source) {
       this.locator = source.locator;
       this.confident = source.confident;
       this.generated = source.generated;
+      modified();
     }
 
     @Override
@@ -129,6 +148,7 @@ public class BasilContext extends AbstractContext implements SearchContext {
       if (locator.isConfident()) {
         confident = locator;
       }
+      modified();
     }
 
     @Override
@@ -142,7 +162,9 @@ public class BasilContext extends AbstractContext implements SearchContext {
         return locator;
       }
       logger.warn("[" + getClassName() + "] has no locator. Fallback to confident/generated.");
-      return locator = getConfident();
+      locator = getConfident();
+      modified();
+      return locator;
     }
 
     @Override
@@ -152,12 +174,17 @@ public class BasilContext extends AbstractContext implements SearchContext {
 
     @Override
     public Basil getConfident() {
+      Basil confident = this.confident;
       if (locator != null && locator.isConfident()) {
         confident = locator;
       }
       if (confident == null) {
         confident = getGenerated(false);
       }
+      if (!Objects.equals(this.confident, confident)) {
+        this.confident = confident;
+        modified();
+      }
       return confident;
     }
 
@@ -169,16 +196,30 @@ public class BasilContext extends AbstractContext implements SearchContext {
     @Override
     public Basil getGenerated() {
       if (isWebDriver()) {
-        return generated = Basil.xpath("");
+        if (generated == null) {
+          generated = Basil.xpath("");
+          modified();
+        }
+        return generated;
       }
       return getGenerated(resolve.resolutionAvoidance);
     }
 
     Basil getGenerated(boolean resolutionAvoidance) {
       if (resolutionAvoidance) {
+        ResolutionPlan plan = ResolutionPlan.reuse(generatedPlan);
+        if (plan != null) {
+          return generated = plan.getLocator();
+        }
         BasilContext parent = getParent();
-        Basil locator = hasGenerated() ? generated : get();
+        // Start over from the locator rather than the outcome of the previous plan, or the
+        // parents would be concatenated twice
+        boolean planned = generatedPlan != null && generatedPlan.concatenations() > 0
+            && generatedPlan.getLocator().equals(generated);
+        Basil locator = hasGenerated() && !planned ? generated : get();
+        int concatenations = 0;
         while (!locator.isConfident()) {
+          concatenations++;
           // Concatenating the locator
           if (parent.locator().hasGenerated()) {
             locator = parent.getGeneratedLocator().concat(locator);
@@ -192,6 +233,9 @@ public class BasilContext extends AbstractContext implements SearchContext {
             break;
           }
         }
+        // Not a modification, the plan is a function of the chain it remembers
+        generatedPlan = new ResolutionPlan(BasilContext.this, locator, locator.isConfident(),
+            concatenations);
         return generated = locator;
       }
       if (generated == null) {
@@ -210,6 +254,7 @@ public class BasilContext extends AbstractContext implements SearchContext {
         }
         if (xpathExpression != null) {
           generated = Basil.xpath(xpathExpression);
+          modified();
         } else {
           throw new IllegalArgumentException("Unable to generate locator for " + getClassName());
         }
@@ -242,6 +287,7 @@ public class BasilContext extends AbstractContext implements SearchContext {
       this.context = source.context;
       this.parent = source.parent;
       this.driver = source.driver;
+      modified();
     }
 
     @Override
@@ -250,6 +296,7 @@ public class BasilContext extends AbstractContext implements SearchContext {
         BasilContext.this.copy((BasilContext) context);
       } else {
         this.context = Preconditions.checkNotNull(context);
+        modified();
       }
     }
 
@@ -258,8 +305,17 @@ public class BasilContext extends AbstractContext implements SearchContext {
       return context;
     }
 
+    /**
+     * Forgets the context, an element is resolved by its locator again on the next use.
+     */
+    public void unset() {
+      this.context = null;
+      modified();
+    }
+
     @Override
     public void setParent(SearchContext parent) {
+      modified();
       if (parent instanceof BasilContext) {
         this.parent = (BasilContext) parent;
       } else {
@@ -346,6 +402,12 @@ public class BasilContext extends AbstractContext implements SearchContext {
      */
     protected final boolean resolutionAvoidance = true;
 
+    /**
+     * The plans of findElement() and findElements() by the locators
+     */
+    private final ResolutionPlan.Cache elementPlans = new ResolutionPlan.Cache();
+    private final ResolutionPlan.Cache elementsPlans = new ResolutionPlan.Cache();
+
     @Override
     public void resolve() {
       Preconditions.checkArgument(context.isBasilElement(), "Resolution is supported for only BasilElements.");
@@ -393,12 +455,16 @@ public class BasilContext extends AbstractContext implements SearchContext {
 
     List<WebElement> resolutionAvoidances(Basil by) {
       // The same as no resolution avoidance
-      By unconcantenatedBy = by;
       if (by.hasXPath()) {
-        by = locator().getConfident().concat(by);
-        return driver().findElements(by);
+        ResolutionPlan plan = elementsPlans.lookup(by);
+        if (plan == null) {
+          Basil concatenatedBy = locator().getConfident().concat(by);
+          plan = new ResolutionPlan(BasilContext.this, concatenatedBy, true, 1);
+          elementsPlans.put(by, plan);
+        }
+        return driver().findElements(plan.getLocator());
       }
-      return context.get().findElements(unconcantenatedBy);
+      return context.get().findElements(by);
     }
 
     /**
@@ -419,17 +485,33 @@ public class BasilContext extends AbstractContext implements SearchContext {
       }
 
       Basil unconcatenatedBy = by;
-      // Concatenating the locator
       if (context().isResolved() && !locator().hasGenerated()) {
         // Yes, this is a possibility, and yes, this needs to be remedied. Why is this parent
         // that's initialized but has not generated locator? Because it's been out-smarted by
         // resolution avoidance.
         locator().getGenerated(false);
       }
+      ResolutionPlan plan = elementPlans.lookup(unconcatenatedBy);
+      if (plan == null) {
+        plan = plan(unconcatenatedBy);
+        elementPlans.put(unconcatenatedBy, plan);
+      }
+      if (plan.isFromDriver()) {
+        return BasilElement.create(driver().findElement(plan.getLocator()))
+            .setParent(BasilContext.this).setLocator(unconcatenatedBy);
+      }
+      return BasilElement.create(getContext().findElement(by)).setParent(BasilContext.this).setLocator(by);
+    }
+
+    private ResolutionPlan plan(Basil by) {
+      // Concatenating the locator
+      int concatenations = 0;
       if (locator().hasGenerated()) {
         by = getGeneratedLocator().concat(by);
+        concatenations++;
       } else if (locator().hasConfident()) {
         by = getConfidentLocator().concat(by);
+        concatenations++;
       }
       // Note: getLocator().concat(by) isn't guaranteed to be confident. For example, When the
       // current context is a table with locator //div[@id='table_1'], when locating the header
@@ -438,11 +520,7 @@ public class BasilContext extends AbstractContext implements SearchContext {
       // is the header, and we locating a header row, the produced locator is
       // //table[@class='tableHeader']//tr[@class='headerRow'] may result the row from other
       // table to be located.
-      if (by.isConfident()) {
-        return BasilElement.create(driver().findElement(by)).setParent(BasilContext.this).setLocator(unconcatenatedBy);
-      }
-      by = unconcatenatedBy;
-      return BasilElement.create(getContext().findElement(by)).setParent(BasilContext.this).setLocator(by);
+      return new ResolutionPlan(BasilContext.this, by, by.isConfident(), concatenations);
     }
 
   }
@@ -127,11 +127,19 @@ public class BasilElement extends AbstractElement implements WebElement, WrapsEl
 
   public Resolve resolve() {
     if (resolve == null) {
-      resolve = new Resolve();
+      resolve = newResolve();
     }
     return resolve;
   }
 
+  /**
+   * Creates the Resolve of the element, on the first call of resolve() (the constructors call it).
+   * A subclass resolving otherwise returns its own, it can't rely on its fields being initialized.
+   */
+  protected Resolve newResolve() {
+    return new Resolve();
+  }
+
   public class Resolve extends AbstractElement.Resolve {
 
     @Override
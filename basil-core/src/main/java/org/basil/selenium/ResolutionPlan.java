@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolution Plan - The outcome of resolving a locator in a context with resolution avoidance,
+ * that is the concatenated locator and whether to search from the driver or from the context.
+ * Working it out walks the parent chain and concatenates the locators of the parents, so the
+ * contexts keep their plans and reuse them for as long as the contexts of the chain are unchanged:
+ * every context counts the changes to its locators, context and parent, and a plan remembers the
+ * counts of the chain it was worked out with.
+ *
+ * The hits, misses and the concatenations the hits saved are counted for all contexts of the JVM.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 1:12:36 AM
+ */
+public final class ResolutionPlan {
+
+  private static final LongAdder hits = new LongAdder();
+  private static final LongAdder misses = new LongAdder();
+  private static final LongAdder invalidations = new LongAdder();
+  private static final LongAdder concatenationsAvoided = new LongAdder();
+
+  private final BasilContext[] chain;
+  private final int[] modCounts;
+  private final Basil locator;
+  private final boolean fromDriver;
+  private final int concatenations;
+
+  /**
+   * @param context the context the locator was resolved in, it and its parents are the chain
+   * @param locator the locator to search with
+   * @param fromDriver whether to search from the driver rather than the context
+   * @param concatenations the number of concatenations it took to work out the locator
+   */
+  ResolutionPlan(BasilContext context, Basil locator, boolean fromDriver, int concatenations) {
+    List<BasilContext> chain = new ArrayList<>();
+    for (BasilContext link = context; ; link = link.getParent()) {
+      chain.add(link);
+      if (link.isWebDriver()) {
+        break;
+      }
+    }
+    this.chain = chain.toArray(new BasilContext[chain.size()]);
+    this.modCounts = new int[this.chain.length];
+    for (int i = 0; i < this.chain.length; i++) {
+      modCounts[i] = this.chain[i].modCount();
+    }
+    this.locator = locator;
+    this.fromDriver = fromDriver;
+    this.concatenations = concatenations;
+  }
+
+  public Basil getLocator() {
+    return locator;
+  }
+
+  public boolean isFromDriver() {
+    return fromDriver;
+  }
+
+  int concatenations() {
+    return concatenations;
+  }
+
+  /**
+   * Returns true if none of the contexts of the chain has changed since the plan was worked out.
+   */
+  public boolean isValid() {
+    for (int i = 0; i < chain.length; i++) {
+      if (chain[i].modCount() != modCounts[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the plan if it's still valid, or null if it has to be worked out (again).
+   */
+  static ResolutionPlan reuse(ResolutionPlan plan) {
+    if (plan == null) {
+      misses.increment();
+      return null;
+    }
+    if (!plan.isValid()) {
+      invalidations.increment();
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    concatenationsAvoided.add(plan.concatenations);
+    return plan;
+  }
+
+  @Override
+  public String toString() {
+    return "ResolutionPlan {" + locator + ", from " + (fromDriver ? "driver" : "context") + "}";
+  }
+
+  // Statistics
+
+  /**
+   * Returns the number of resolutions that reused a plan.
+   */
+  public static long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of resolutions that worked out a plan, invalidations included.
+   */
+  public static long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the number of plans that were worked out again because their chain has changed.
+   */
+  public static long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Returns the number of locator concatenations the reused plans saved.
+   */
+  public static long getConcatenationsAvoided() {
+    return concatenationsAvoided.sum();
+  }
+
+  public static double getHitRate() {
+    long hits = getHits();
+    long total = hits + getMisses();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  public static String getStatistics() {
+    return String.format("ResolutionPlan {hits=%d, misses=%d, invalidations=%d, "
+        + "concatenations avoided=%d, hit rate=%.1f%%}", getHits(), getMisses(),
+        getInvalidations(), getConcatenationsAvoided(), getHitRate() * 100);
+  }
+
+  /**
+   * The plans of a context by the locators resolved in it, the least recently used plans are
+   * dropped so locators made up on the fly (of table rows for instance) don't pile up.
+   */
+  static class Cache extends LinkedHashMap<Basil, ResolutionPlan> {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_SIZE = 64;
+
+    Cache() {
+      super(16, 0.75f, true);
+    }
+
+    ResolutionPlan lookup(Basil locator) {
+      return reuse(get(locator));
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Basil, ResolutionPlan> eldest) {
+      return size() > MAX_SIZE;
+    }
+
+  }
+
+}
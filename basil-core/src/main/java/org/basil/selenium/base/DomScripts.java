@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.base;
+
+/**
+ * Dom Scripts - The functions the scripts evaluating elements in the browser share, so a check
+ * made in one round trip reads the way WebElement does.
+ *
+ * displayed(element) approximates isDisplayed(): an element is displayed when it's an element
+ * (an option is when its select is), isn't a hidden input, isn't of display "none" (or in one),
+ * of visibility "hidden" or "collapse", or of opacity 0 (or in one), and it has a width and a
+ * height, or a text or a child element which has (unless it hides its overflow). Unlike the atom
+ * of isDisplayed(), it considers an element clipped by the overflow of an ancestor displayed, and
+ * the areas of an image map not displayed.
+ *
+ * attribute(element, name) reads like getAttribute(): a boolean attribute (e.g. "disabled" or
+ * "checked") is "true" or null, the "class" and "readonly" are the ones of the properties, and
+ * otherwise the property is read first and the attribute when there is no such property.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 7:52:06 AM
+ */
+public final class DomScripts {
+  private DomScripts() {}
+
+  public static final String DISPLAYED =
+      "function displayed(element) {" +
+      "  if (!element || element.nodeType !== 1) {" +
+      "    return false;" +
+      "  }" +
+      "  var tag = element.tagName.toLowerCase();" +
+      "  if (tag === 'option' || tag === 'optgroup') {" +
+      "    var select = element.parentNode;" +
+      "    while (select && (!select.tagName || select.tagName.toLowerCase() !== 'select')) {" +
+      "      select = select.parentNode;" +
+      "    }" +
+      "    return !!select && displayed(select);" +
+      "  }" +
+      "  if (tag === 'input' && String(element.type).toLowerCase() === 'hidden') {" +
+      "    return false;" +
+      "  }" +
+      "  var style = window.getComputedStyle(element);" +
+      "  if (style.visibility === 'hidden' || style.visibility === 'collapse') {" +
+      "    return false;" +
+      "  }" +
+      "  for (var e = element; e && e.nodeType === 1; e = e.parentNode) {" +
+      "    var eStyle = e === element ? style : window.getComputedStyle(e);" +
+      "    if (eStyle.display === 'none' || parseFloat(eStyle.opacity) === 0) {" +
+      "      return false;" +
+      "    }" +
+      "  }" +
+      "  function sized(e) {" +
+      "    var rect = e.getBoundingClientRect();" +
+      "    if (rect.width > 0 && rect.height > 0) {" +
+      "      return true;" +
+      "    }" +
+      "    if (window.getComputedStyle(e).overflow === 'hidden') {" +
+      "      return false;" +
+      "    }" +
+      "    for (var child = e.firstChild; child; child = child.nextSibling) {" +
+      "      if (child.nodeType === 3 || (child.nodeType === 1 && sized(child))) {" +
+      "        return true;" +
+      "      }" +
+      "    }" +
+      "    return false;" +
+      "  }" +
+      "  return sized(element);" +
+      "}";
+
+  public static final String ATTRIBUTE =
+      "function attribute(element, name) {" +
+      "  var key = name.toLowerCase();" +
+      "  if (key === 'style') {" +
+      "    return element.style ? element.style.cssText : element.getAttribute(name);" +
+      "  }" +
+      "  if (/^(async|autofocus|autoplay|checked|compact|complete|controls|declare|" +
+      "defaultchecked|defaultselected|defer|disabled|draggable|ended|formnovalidate|hidden|" +
+      "indeterminate|iscontenteditable|ismap|itemscope|loop|multiple|muted|nohref|noresize|" +
+      "noshade|novalidate|nowrap|open|paused|pubdate|readonly|required|reversed|scoped|" +
+      "seamless|seeking|selected|spellcheck|truespeed|willvalidate)$/.test(key)) {" +
+      "    var flag = element[key === 'readonly' ? 'readOnly' : name];" +
+      "    return flag === true || (flag === undefined && element.hasAttribute(name))" +
+      "        ? 'true' : null;" +
+      "  }" +
+      "  var property = element[key === 'class' ? 'className' : name];" +
+      "  if (property !== null && property !== undefined && typeof property !== 'object' &&" +
+      "      typeof property !== 'function') {" +
+      "    return String(property);" +
+      "  }" +
+      "  return element.getAttribute(name);" +
+      "}";
+
+}
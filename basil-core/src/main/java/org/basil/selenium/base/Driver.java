@@ -6,6 +6,7 @@ package org.basil.selenium.base;
 
 import java.net.URL;
 
+import org.basil.selenium.remote.BasilCommandExecutor;
 import org.basil.selenium.remote.BasilWebDriver;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
@@ -17,11 +18,11 @@ import org.openqa.selenium.firefox.FirefoxProfile;
 import org.openqa.selenium.ie.InternetExplorerDriver;
 import org.openqa.selenium.opera.OperaDriver;
 import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.safari.SafariDriver;
 
 /**
- * Drivers
+ * Drivers, every call to create() starts a new browser session, the sessions are pooled by
+ * DriverPool.
  *
  * @author ryan131
  * @since Oct 10, 2013, 11:16:55 AM
@@ -38,11 +39,15 @@ class Driver {
       capabilities.setCapability(ChromeOptions.CAPABILITY, options);
     }
 
-    public static WebDriver driver = new ChromeDriver(capabilities);
+    public static WebDriver create() {
+      return new ChromeDriver(capabilities);
+    }
   }
 
   public static class Edge {
-    public static WebDriver driver = new EdgeDriver();
+    public static WebDriver create() {
+      return new EdgeDriver();
+    }
   }
 
   public static class InternetExplorer {
@@ -53,7 +58,9 @@ class Driver {
       capabilities.setCapability(InternetExplorerDriver.INTRODUCE_FLAKINESS_BY_IGNORING_SECURITY_DOMAINS, true);
     }
 
-    public static WebDriver driver = new InternetExplorerDriver(capabilities);
+    public static WebDriver create() {
+      return new InternetExplorerDriver(capabilities);
+    }
   }
 
   public static class Firefox {
@@ -69,15 +76,21 @@ class Driver {
 //      }
 //    }
 
-    public static WebDriver driver = new FirefoxDriver(profile);
+    public static WebDriver create() {
+      return new FirefoxDriver(profile);
+    }
   }
 
   public static class Opera {
-    public static WebDriver driver = new OperaDriver();
+    public static WebDriver create() {
+      return new OperaDriver();
+    }
   }
 
   public static class Safari {
-    public static WebDriver driver = new SafariDriver();
+    public static WebDriver create() {
+      return new SafariDriver();
+    }
   }
 
 }
@@ -87,24 +100,12 @@ class Driver {
  */
 class RemoteDriver {
 
-  private static WebDriver driver;
-
-  public static WebDriver get(URL remoteAddress, Capabilities capabilities) {
-    if (driver != null && !(driver instanceof BasilWebDriver.Reusable)) {
-      return driver;
-    }
-    driver = new RemoteWebDriver(remoteAddress, capabilities);
-
-    return driver;
+  public static WebDriver create(URL remoteAddress, Capabilities capabilities) {
+    return new BasilWebDriver(new BasilCommandExecutor(remoteAddress), capabilities);
   }
 
-  public static WebDriver getSessionReusable(URL remoteAddress, Capabilities capabilities) {
-    if (driver != null && !(driver instanceof BasilWebDriver.Reusable)) {
-      return driver;
-    }
-    driver = new BasilWebDriver.Reusable(remoteAddress, capabilities);
-
-    return driver;
+  public static WebDriver createSessionReusable(URL remoteAddress, Capabilities capabilities) {
+    return new BasilWebDriver.Reusable(new BasilCommandExecutor(remoteAddress), capabilities);
   }
 
-}
\ No newline at end of file
+}
@@ -5,17 +5,29 @@
 package org.basil.selenium.base;
 
 import java.net.URL;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.basil.Config;
+import org.basil.selenium.remote.CommandMetrics;
 import org.basil.selenium.ui.Waits;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
- * Driver Factory Utility for WebDriver and WebDriverWait objects.
+ * Driver Factory Utility for WebDriver and WebDriverWait objects. The drivers are thread-confined,
+ * every thread gets its own driver leased from a DriverPool.
  *
  * @author ryan131
  * @since Sep 27, 2013, 9:51:06 AM
@@ -23,14 +35,14 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 public final class DriverFactory {
   private DriverFactory() {}
 
+  private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
+
   private static final BrowserType BROWSER_TYPE = Config.BROWSER_TYPE;
 
   private static Dimension BROWSER_DIMENSION = Config.BROWSER_WINDOW_DIMENSION;
 
   private static boolean BROWSER_MAXIMIZED = Config.BROWSER_WINDOW_MAXIMIZED;
 
-  private static final Capabilities CAPABILITIES = DriverUtil.getCapabilities(BROWSER_TYPE);
-
   private static final DriverType DRIVER_TYPE = Config.WEB_DRIVER_TYPE;
 
   private static final URL REMOTE_ADDRESS = Config.WEB_DRIVER_REMOTE_URL;
@@ -38,12 +50,47 @@ public final class DriverFactory {
   static {
     System.setProperty("webdriver.chrome.driver", Config.WEB_DRIVER_EXECUTABLE_CHROME);
     System.setProperty("webdriver.ie.driver", Config.WEB_DRIVER_EXECUTABLE_IE);
+    if (Config.WEB_DRIVER_METRICS_DUMP) {
+      CommandMetrics.global().dumpOnShutdown("WebDriver commands of all sessions:");
+    }
   }
 
   private static final long WAIT_POLL_INTERVAL = Config.WEB_DRIVER_WAIT_POLL;
 
-  private static WebDriver driverOfChoice;
+  private static final int POOL_SIZE = (int) Config.WEB_DRIVER_POOL_SIZE;
+
+  private static final int POOL_RECYCLE = (int) Config.WEB_DRIVER_POOL_RECYCLE;
+
+  private static final long POOL_TIMEOUT = Config.WEB_DRIVER_POOL_TIMEOUT;
+
+  // One pool per browser and driver type
+  private static final Map<Map.Entry<BrowserType, DriverType>, DriverPool> pools =
+      Maps.newHashMap();
+
+  private static final ThreadLocal<Map.Entry<WebDriver, WebDriverWait>> waits =
+      new ThreadLocal<Map.Entry<WebDriver, WebDriverWait>>();
+
+  // Warm-up
+
+  private static final int POOL_WARMUP = (int) Config.WEB_DRIVER_POOL_WARMUP;
 
+  private static final int POOL_STANDBY = (int) Config.WEB_DRIVER_POOL_STANDBY;
+
+  private static final long LOAD_TIME = System.currentTimeMillis();
+
+  private static final AtomicLong timeToFirstDriver = new AtomicLong(-1);
+
+  static {
+    if (POOL_WARMUP > 0 || POOL_STANDBY > 0) {
+      getDriverPool().warmUp(POOL_WARMUP); // In the background, the class loading isn't held up
+      getDriverPool().setStandby(POOL_STANDBY);
+    }
+  }
+
+  /**
+   * Returns the driver of the current thread, which is leased from the driver pool on first call
+   * and kept until releaseWebDriver() is called.
+   */
   public static WebDriver getWebDriver() {
     return getWebDriver(BROWSER_TYPE, DRIVER_TYPE);
   }
@@ -52,64 +99,150 @@ public final class DriverFactory {
     return getWebDriver(browserType, DRIVER_TYPE);
   }
 
+  /**
+   * Returns the driver of the current thread of the given browser and driver types, which is
+   * leased from the pool of the types.
+   */
   public static WebDriver getWebDriver(BrowserType browserType, DriverType driverType) {
-    if (driverOfChoice != null) {
-      return driverOfChoice;
+    DriverPool pool = getDriverPool(browserType, driverType);
+    if (timeToFirstDriver.get() >= 0 || pool.isLeased()) {
+      return pool.lease();
+    }
+
+    long leaseStart = System.currentTimeMillis();
+    WebDriver driver = pool.lease();
+    long leaseEnd = System.currentTimeMillis();
+    if (timeToFirstDriver.compareAndSet(-1, leaseEnd - LOAD_TIME)) {
+      logger.info(String.format(
+          "First driver ready %d ms after the DriverFactory was loaded, %d ms spent leasing it.",
+          leaseEnd - LOAD_TIME, leaseEnd - leaseStart));
+    }
+    return driver;
+  }
+
+  /**
+   * Returns the time (in milliseconds) from loading the DriverFactory to the first driver being
+   * handed out, or -1 if no driver has been handed out yet.
+   */
+  public static long getTimeToFirstDriver() {
+    return timeToFirstDriver.get();
+  }
+
+  /**
+   * Returns the drivers of the current thread to their pools, so other threads can lease them.
+   */
+  public static void releaseWebDriver() {
+    for (DriverPool pool : getDriverPools()) {
+      if (pool.isLeased()) {
+        pool.release();
+      }
+    }
+    waits.remove();
+  }
+
+  public static DriverPool getDriverPool() {
+    return getDriverPool(BROWSER_TYPE, DRIVER_TYPE);
+  }
+
+  public static synchronized DriverPool getDriverPool(
+      final BrowserType browserType, final DriverType driverType) {
+    Map.Entry<BrowserType, DriverType> types = Maps.immutableEntry(browserType, driverType);
+    DriverPool pool = pools.get(types);
+    if (pool == null) {
+      pool = new DriverPool(new Supplier<WebDriver>() {
+        @Override
+        public WebDriver get() {
+          return newWebDriver(browserType, driverType);
+        }
+      }, POOL_SIZE, POOL_RECYCLE, POOL_TIMEOUT, TimeUnit.SECONDS);
+      pools.put(types, pool);
     }
+    return pool;
+  }
+
+  /**
+   * Sets the pool of the browser and driver types, whose drivers are then leased instead of the
+   * ones of the factory, for the tests to lease stubs. The pool it replaces is shut down, so the
+   * drivers of the current thread are to be released first.
+   */
+  static synchronized void setDriverPool(
+      BrowserType browserType, DriverType driverType, DriverPool pool) {
+    DriverPool replaced = pools.put(
+        Maps.immutableEntry(browserType, driverType), Preconditions.checkNotNull(pool));
+    if (replaced != null && replaced != pool) {
+      replaced.shutdown();
+    }
+  }
+
+  private static synchronized List<DriverPool> getDriverPools() {
+    return Lists.newArrayList(pools.values());
+  }
+
+  /**
+   * Creates a new driver, that is, starts a new browser session, sized as configured.
+   */
+  public static WebDriver newWebDriver(BrowserType browserType, DriverType driverType) {
+    WebDriver driver = null;
 
     // Local
 
-    if (DRIVER_TYPE == DriverType.STANDARD) {
+    if (driverType == DriverType.STANDARD) {
       switch (browserType) {
       case CHROME:
-        driverOfChoice = Driver.Chrome.driver;
+        driver = Driver.Chrome.create();
         break;
       case EDGE:
-        driverOfChoice = Driver.Edge.driver;
+        driver = Driver.Edge.create();
         break;
       case FIREFOX:
-        driverOfChoice = Driver.Firefox.driver;
+        driver = Driver.Firefox.create();
         break;
       case INTERNET_EXPLORER:
-        driverOfChoice = Driver.InternetExplorer.driver;
+        driver = Driver.InternetExplorer.create();
         break;
       case OPERA:
-        driverOfChoice = Driver.Opera.driver;
+        driver = Driver.Opera.create();
         break;
       case SAFARI:
-        driverOfChoice = Driver.Safari.driver;
+        driver = Driver.Safari.create();
         break;
       }
     }
 
     // Remote
 
-    if (DRIVER_TYPE == DriverType.REMOTE) {
-      driverOfChoice = RemoteDriver.get(REMOTE_ADDRESS, CAPABILITIES);
+    Capabilities capabilities = DriverUtil.getCapabilities(browserType);
+    if (driverType == DriverType.REMOTE) {
+      driver = RemoteDriver.create(REMOTE_ADDRESS, capabilities);
     }
-    if (DRIVER_TYPE == DriverType.SESSION_REUSABLE_REMOTE) {
-      driverOfChoice = RemoteDriver.getSessionReusable(REMOTE_ADDRESS, CAPABILITIES);
+    if (driverType == DriverType.SESSION_REUSABLE_REMOTE) {
+      driver = RemoteDriver.createSessionReusable(REMOTE_ADDRESS, capabilities);
     }
 
     // Set size/maximize
 
-    driverOfChoice.manage().window().setSize(BROWSER_DIMENSION);
+    driver.manage().window().setSize(BROWSER_DIMENSION);
     if (BROWSER_MAXIMIZED) {
-      driverOfChoice.manage().window().maximize();
+      driver.manage().window().maximize();
     }
 
-    return driverOfChoice;
+    return driver;
   }
 
   // Wait
 
-  private static class WebDriverWaitHolder {
-    public static WebDriverWait instance = Waits.getWebDriverWait(driverOfChoice);
-  }
-
+  /**
+   * Returns the wait of the current thread's driver.
+   */
   public static WebDriverWait getWebDriverWait() {
-    WebDriverWaitHolder.instance.pollingEvery(WAIT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
-    return WebDriverWaitHolder.instance;
+    WebDriver driver = getWebDriver();
+    Map.Entry<WebDriver, WebDriverWait> wait = waits.get();
+    if (wait == null || wait.getKey() != driver) { // The driver has been returned and replaced
+      wait = Maps.immutableEntry(driver, Waits.getWebDriverWait(driver));
+      waits.set(wait);
+    }
+    wait.getValue().pollingEvery(WAIT_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+    return wait.getValue();
   }
 
   public static long totalWaitedTime = 0;
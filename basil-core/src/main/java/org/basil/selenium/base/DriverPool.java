@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.base;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.basil.selenium.remote.BasilWebDriver;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Driver Pool - Hands out thread-confined WebDriver instances. A thread leases a driver, keeps it
+ * until it returns it, and leasing again in the meantime yields the same driver. At most "size"
+ * drivers are leased at a time, the other threads wait for one to be returned. Returned drivers
+ * are health checked and recycled after a number of leases before they are handed out again, and
+ * the ones whose sessions were lost (see SessionErrors) are discarded when they are returned.
+ *
+ * A driver reusing sessions (BasilWebDriver.Reusable) releases the lease of its session while it's
+ * idle, and is dropped if another driver has continued in the session by the time it's leased.
+ *
+ * Browser sessions take seconds to start, so the pool can start them ahead of time: warmUp()
+ * starts a number of sessions in the background, and a standby count keeps that many idle sessions
+ * ready by starting a replacement whenever a lease takes one. A lease that finds no idle driver
+ * while sessions are warming up waits for one of them instead of starting yet another.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 6:20:14 PM
+ */
+public final class DriverPool {
+
+  private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+
+  private final Supplier<WebDriver> factory;
+  private final int size;
+  private final int maximumUses;
+  private final long leaseTimeout;
+
+  private final Semaphore permits;
+  private final BlockingDeque<PooledDriver> idleDrivers;
+  private final ThreadLocal<PooledDriver> leasedDriver;
+  private final AtomicInteger liveDrivers; // Idle, leased and warming up
+  private final AtomicInteger warmingDrivers;
+  private volatile int standby;
+  private volatile ExecutorService warmUpExecutor;
+  private volatile boolean shutdown;
+
+  private final AtomicInteger created;
+  private final AtomicInteger warmedUp;
+  private final AtomicInteger recycled;
+  private final AtomicInteger unhealthy;
+  private final AtomicInteger poisoned;
+
+  /**
+   * @param factory creates a new driver (a new browser session) on every call
+   * @param size the maximum number of drivers leased at a time
+   * @param maximumUses the number of leases after which a driver is replaced, 0 to never replace
+   * @param leaseTimeout how long lease() waits for a driver to be returned
+   */
+  public DriverPool(Supplier<WebDriver> factory, int size, int maximumUses, long leaseTimeout,
+      TimeUnit unit) {
+    Preconditions.checkArgument(size > 0, "The pool size must be positive.");
+    this.factory = Preconditions.checkNotNull(factory);
+    this.size = size;
+    this.maximumUses = maximumUses;
+    this.leaseTimeout = unit.toMillis(leaseTimeout);
+
+    this.permits = new Semaphore(size, true);
+    this.idleDrivers = new LinkedBlockingDeque<PooledDriver>();
+    this.leasedDriver = new ThreadLocal<PooledDriver>();
+    this.liveDrivers = new AtomicInteger();
+    this.warmingDrivers = new AtomicInteger();
+
+    this.created = new AtomicInteger();
+    this.warmedUp = new AtomicInteger();
+    this.recycled = new AtomicInteger();
+    this.unhealthy = new AtomicInteger();
+    this.poisoned = new AtomicInteger();
+  }
+
+  // Lease and return
+
+  /**
+   * Returns the driver leased to the current thread, leasing one first if there isn't.
+   */
+  public WebDriver lease() {
+    PooledDriver pooledDriver = leasedDriver.get();
+    if (pooledDriver != null) {
+      return pooledDriver.driver;
+    }
+    Preconditions.checkState(!shutdown, "The driver pool is shut down.");
+
+    try {
+      if (!permits.tryAcquire(leaseTimeout, TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException(String.format(
+            "No driver was returned to the pool (size %d) in %d ms.", size, leaseTimeout));
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a driver.", ie);
+    }
+
+    try {
+      pooledDriver = takeIdleDriver();
+      if (pooledDriver == null) {
+        liveDrivers.incrementAndGet();
+        pooledDriver = create();
+        logger.info(String.format("Driver #%d created for %s.",
+            created.get(), Thread.currentThread().getName()));
+      }
+    } catch (RuntimeException re) {
+      permits.release();
+      throw re;
+    }
+    leasedDriver.set(pooledDriver);
+    keepStandby();
+    return pooledDriver.driver;
+  }
+
+  private PooledDriver create() {
+    try {
+      PooledDriver pooledDriver = new PooledDriver(factory.get());
+      created.incrementAndGet();
+      return pooledDriver;
+    } catch (RuntimeException re) {
+      liveDrivers.decrementAndGet();
+      throw re;
+    }
+  }
+
+  /**
+   * Returns the driver leased to the current thread to the pool, if there is one.
+   */
+  public void release() {
+    PooledDriver pooledDriver = leasedDriver.get();
+    if (pooledDriver == null) {
+      return;
+    }
+    leasedDriver.remove();
+    pooledDriver.uses++;
+    if (SessionErrors.isPoisoned(pooledDriver.driver)) {
+      poisoned.incrementAndGet();
+      logger.warn("Discarded a driver whose session is lost.");
+      quit(pooledDriver);
+    } else if (shutdown) {
+      quit(pooledDriver);
+    } else {
+      releaseSession(pooledDriver.driver);
+      idleDrivers.offerFirst(pooledDriver); // The most recently used one is handed out first
+    }
+    permits.release();
+  }
+
+  /**
+   * Whether a driver is leased to the current thread.
+   */
+  public boolean isLeased() {
+    return leasedDriver.get() != null;
+  }
+
+  private PooledDriver takeIdleDriver() {
+    PooledDriver pooledDriver;
+    while ((pooledDriver = pollIdleDriver()) != null) {
+      if (!leaseSession(pooledDriver.driver)) {
+        liveDrivers.decrementAndGet(); // Not quit, its session is another driver's now
+        logger.info("Dropped an idle driver whose session another driver has continued in.");
+      } else if (maximumUses > 0 && pooledDriver.uses >= maximumUses) {
+        recycled.incrementAndGet();
+        quit(pooledDriver);
+      } else if (SessionErrors.isPoisoned(pooledDriver.driver)) { // Poisoned while idle
+        poisoned.incrementAndGet();
+        quit(pooledDriver);
+      } else if (!isHealthy(pooledDriver.driver)) {
+        unhealthy.incrementAndGet();
+        logger.warn("Discarded a driver that failed the health check.");
+        quit(pooledDriver);
+      } else {
+        return pooledDriver;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes an idle driver, waiting for the sessions that are warming up if there isn't one.
+   */
+  private PooledDriver pollIdleDriver() {
+    PooledDriver pooledDriver = idleDrivers.pollFirst();
+    try {
+      while (pooledDriver == null && warmingDrivers.get() > 0) {
+        pooledDriver = idleDrivers.pollFirst(100, TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    }
+    return pooledDriver;
+  }
+
+  // Warm-up
+
+  /**
+   * Starts up to the given number of sessions in the background, without exceeding the pool size,
+   * and returns immediately.
+   */
+  public void warmUp(int count) {
+    for (int i = 0; i < count; i++) {
+      if (!warmUpOne()) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Keeps the given number of idle sessions ready, starting replacements in the background as
+   * leases take them.
+   */
+  public void setStandby(int standby) {
+    this.standby = standby;
+    keepStandby();
+  }
+
+  private void keepStandby() {
+    while (!shutdown && idleDrivers.size() + warmingDrivers.get() < standby) {
+      if (!warmUpOne()) {
+        break;
+      }
+    }
+  }
+
+  private boolean warmUpOne() {
+    if (shutdown || liveDrivers.incrementAndGet() > size) {
+      liveDrivers.decrementAndGet();
+      return false;
+    }
+    warmingDrivers.incrementAndGet();
+    warmUpExecutor().execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          long warmUpStart = System.currentTimeMillis();
+          PooledDriver pooledDriver = create();
+          warmedUp.incrementAndGet();
+          logger.info(String.format("Driver #%d warmed up in %d ms.",
+              created.get(), System.currentTimeMillis() - warmUpStart));
+          if (shutdown) {
+            quit(pooledDriver);
+          } else {
+            releaseSession(pooledDriver.driver);
+            idleDrivers.offerLast(pooledDriver);
+          }
+        } catch (RuntimeException re) {
+          logger.warn("Unable to warm up a driver: " + re.getMessage());
+        } finally {
+          warmingDrivers.decrementAndGet();
+        }
+        keepStandby(); // A lease may have taken it while it was still counted as warming up
+      }
+    });
+    return true;
+  }
+
+  private ExecutorService warmUpExecutor() {
+    if (warmUpExecutor == null) {
+      synchronized (this) {
+        if (warmUpExecutor == null) {
+          warmUpExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+              .setNameFormat("basil-driver-warm-up-%d").setDaemon(true).build());
+        }
+      }
+    }
+    return warmUpExecutor;
+  }
+
+  /**
+   * A driver whose session is gone fails to tell its window handle.
+   */
+  static boolean isHealthy(WebDriver driver) {
+    try {
+      driver.getWindowHandle();
+      return true;
+    } catch (WebDriverException wde) {
+      return false;
+    }
+  }
+
+  /**
+   * An idle driver holds no lease on its session, so that another driver reusing sessions (see
+   * BasilWebDriver.Reusable) can continue in it. The lease is taken again when it's handed out.
+   */
+  private static void releaseSession(WebDriver driver) {
+    if (driver instanceof BasilWebDriver.Reusable) {
+      ((BasilWebDriver.Reusable) driver).releaseSession();
+    }
+  }
+
+  private static boolean leaseSession(WebDriver driver) {
+    return !(driver instanceof BasilWebDriver.Reusable)
+        || ((BasilWebDriver.Reusable) driver).leaseSession();
+  }
+
+  private void quit(PooledDriver pooledDriver) {
+    liveDrivers.decrementAndGet();
+    try {
+      pooledDriver.driver.quit();
+    } catch (WebDriverException wde) {
+      logger.warn("Unable to quit the driver: " + wde.getMessage());
+    }
+  }
+
+  /**
+   * Quits the idle drivers, the leased ones are quit when they are returned.
+   */
+  public void shutdown() {
+    shutdown = true;
+    PooledDriver pooledDriver;
+    while ((pooledDriver = idleDrivers.pollFirst()) != null) {
+      if (leaseSession(pooledDriver.driver)) {
+        quit(pooledDriver);
+      } else {
+        liveDrivers.decrementAndGet();
+      }
+    }
+    if (warmUpExecutor != null) {
+      warmUpExecutor.shutdown();
+    }
+  }
+
+  // Statistics
+
+  public int size() {
+    return size;
+  }
+
+  public int createdCount() {
+    return created.get();
+  }
+
+  public int warmedUpCount() {
+    return warmedUp.get();
+  }
+
+  public int recycledCount() {
+    return recycled.get();
+  }
+
+  public int unhealthyCount() {
+    return unhealthy.get();
+  }
+
+  /**
+   * Returns the number of drivers discarded because their sessions were lost, see SessionErrors.
+   */
+  public int poisonedCount() {
+    return poisoned.get();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "DriverPool (size %d): %d created, %d warmed up, %d recycled, %d unhealthy, %d poisoned, "
+        + "%d idle.", size, createdCount(), warmedUpCount(), recycledCount(), unhealthyCount(),
+        poisonedCount(), idleDrivers.size());
+  }
+
+  private static class PooledDriver {
+
+    private final WebDriver driver;
+    private int uses; // Only written by the leasing thread
+
+    private PooledDriver(WebDriver driver) {
+      this.driver = driver;
+    }
+
+  }
+
+}
@@ -4,8 +4,13 @@
 
 package org.basil.selenium.base;
 
+import org.basil.selenium.BasilContext;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 /**
@@ -98,4 +103,28 @@ public final class DriverUtil {
     return driverType;
   }
 
+  /**
+   * Returns the WebDriver behind the given search context, or null if it cannot be told.
+   */
+  public static WebDriver getDriver(SearchContext context) {
+    if (context instanceof BasilContext) {
+      return ((BasilContext) context).driver();
+    }
+    if (context instanceof WebDriver) {
+      return (WebDriver) context;
+    }
+    if (context instanceof WrapsDriver) {
+      return ((WrapsDriver) context).getWrappedDriver();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the JavascriptExecutor behind the given search context, or null if there isn't one.
+   */
+  public static JavascriptExecutor getJsExecutor(SearchContext context) {
+    WebDriver driver = getDriver(context);
+    return driver instanceof JavascriptExecutor ? (JavascriptExecutor) driver : null;
+  }
+
 }
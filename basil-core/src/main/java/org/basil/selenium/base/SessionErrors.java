@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.base;
+
+import java.net.ConnectException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Session Errors - Tells the errors after which the session of a driver can't recover, for the
+ * waits and the repeaters to give up at once instead of polling a dead browser until they time out.
+ * NoSuchSessionException is a NotFoundException, so it's even ignored by the waits that ignore the
+ * elements not found.
+ *
+ * The driver of a fatal error is poisoned: the pool quits it instead of handing it out again, and
+ * the waits on it give up on their next poll. The waits that gave up, and the time they would have
+ * kept polling, are counted for all threads.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 6:31:07 AM
+ */
+public final class SessionErrors {
+  private SessionErrors() {}
+
+  private static final Logger logger = LoggerFactory.getLogger(SessionErrors.class);
+
+  /**
+   * The messages of the errors the drivers report when the browser has crashed or is gone.
+   */
+  private static final String[] FATAL_MESSAGES = {
+      "chrome not reachable",
+      "session deleted because of page crash",
+      "tab crashed",
+      "Session ID is null",
+      "Tried to run command without establishing a connection",
+  };
+
+  private static final Set<WebDriver> poisoned =
+      Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<WebDriver, Boolean>()));
+
+  private static final Map<Throwable, Long> aborted =
+      Collections.synchronizedMap(new WeakHashMap<Throwable, Long>());
+
+  private static final LongAdder abortedWaits = new LongAdder();
+  private static final LongAdder savedMillis = new LongAdder();
+
+  /**
+   * Returns true if the throwable, or any of its causes, tells the session is gone.
+   */
+  public static boolean isFatal(Throwable throwable) {
+    if (throwable == null) {
+      return false;
+    }
+    for (Throwable cause : Throwables.getCausalChain(throwable)) {
+      if (cause instanceof NoSuchSessionException || cause instanceof UnreachableBrowserException
+          || cause instanceof ConnectException) {
+        return true;
+      }
+      String message = cause.getMessage();
+      if (message != null) {
+        for (String fatalMessage : FATAL_MESSAGES) {
+          if (message.contains(fatalMessage)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Marks the session of the driver as unrecoverable.
+   */
+  public static void poison(WebDriver driver) {
+    if (driver != null && poisoned.add(driver)) {
+      logger.warn("The session of " + driver.getClass().getSimpleName() + " is lost, the driver "
+          + "is poisoned.");
+    }
+  }
+
+  public static boolean isPoisoned(WebDriver driver) {
+    return driver != null && poisoned.contains(driver);
+  }
+
+  /**
+   * Gives up a wait on a fatal error: the driver is poisoned, and the time the wait would have kept
+   * polling is counted as saved. A wait nested in another gives up on the same error, which is
+   * counted once, the time saved being the one of the outermost wait. Returns the error for the
+   * caller to throw.
+   *
+   * @param fatal the error the wait gives up on
+   * @param driver the driver of the wait, null if it can't be told
+   * @param remainingMillis the time left of the timeout of the wait
+   */
+  public static <T extends Throwable> T abort(T fatal, WebDriver driver, long remainingMillis) {
+    poison(driver);
+    long saved = Math.max(0, remainingMillis);
+    Long counted = aborted.put(fatal, saved);
+    if (counted == null) {
+      abortedWaits.increment();
+      savedMillis.add(saved);
+      logger.warn(String.format("Gave up waiting %d ms early on a lost session (%s).", saved,
+          fatal.getClass().getSimpleName()));
+    } else {
+      aborted.put(fatal, Math.max(saved, counted));
+      savedMillis.add(Math.max(0, saved - counted));
+    }
+    return fatal;
+  }
+
+  // Statistics
+
+  /**
+   * Returns the number of waits given up on fatal errors.
+   */
+  public static long getAbortedWaits() {
+    return abortedWaits.sum();
+  }
+
+  /**
+   * Returns the milliseconds the given up waits would have kept polling until their timeouts.
+   */
+  public static long getSavedMillis() {
+    return savedMillis.sum();
+  }
+
+  public static String getStatistics() {
+    return String.format("SessionErrors {aborted waits=%d, saved time=%d ms}", getAbortedWaits(),
+        getSavedMillis());
+  }
+
+}
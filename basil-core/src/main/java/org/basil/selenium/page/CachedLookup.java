@@ -4,17 +4,37 @@
 
 package org.basil.selenium.page;
 
+import static org.basil.Config.LOOKUP_CACHE_SIZE;
+import static org.basil.Config.LOOKUP_CACHE_SNAPSHOT;
+import static org.basil.Config.LOOKUP_CACHE_TTL;
+import static org.basil.Config.LOOKUP_CACHE_VALIDATE;
+
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
+import org.basil.selenium.Basil;
+import org.basil.selenium.BasilContext;
+import org.basil.selenium.base.DomScripts;
+import org.basil.selenium.base.DriverUtil;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
 /**
  * Cached Lookup
  *
@@ -25,81 +45,366 @@ public class CachedLookup extends BaseLookup {
 
   private static final Logger logger = LoggerFactory.getLogger(CachedLookup.class);
 
-  private Map<By, Map<String, WebElement>> elementMapMap;
+  /**
+   * Marks the document with an identity on the first call, so that a reload or navigation can be
+   * told apart from the document that has been cached even when the URL remains the same.
+   */
+  private static final String DOCUMENT_SCRIPT =
+      "if (!document.basilLookupId) {" +
+      "  document.basilLookupId = new Date().getTime() + '-' + Math.random();" +
+      "}" +
+      "var identity = document.URL + ' ' + document.basilLookupId;";
+
+  /**
+   * Returns every candidate along with its visibility, text and attributes in one round-trip. The
+   * candidates are either evaluated from arguments[1] (an XPath relative to arguments[0], or the
+   * document when it is null) or taken from the list of elements given in arguments[2].
+   */
+  private static final String SNAPSHOT_SCRIPT = DOCUMENT_SCRIPT +
+      "var context = arguments[0], xpath = arguments[1], elements = arguments[2] || [];" +
+      DomScripts.DISPLAYED +
+      "if (xpath) {" +
+      "  var result = document.evaluate(xpath, context || document, null," +
+      "      XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+      "  for (var i = 0; i < result.snapshotLength; i++) {" +
+      "    elements.push(result.snapshotItem(i));" +
+      "  }" +
+      "}" +
+      "var snapshot = [];" +
+      "for (var i = 0; i < elements.length; i++) {" +
+      "  var element = elements[i];" +
+      "  var shown = displayed(element);" +
+      "  var attributes = {};" +
+      "  for (var j = 0; j < element.attributes.length; j++) {" +
+      "    attributes[element.attributes[j].name] = element.attributes[j].value;" +
+      "  }" +
+      "  if (element.value !== undefined && element.value !== null) {" +
+      "    attributes['value'] = String(element.value);" +
+      "  }" +
+      "  snapshot.push({" +
+      "    element: element," +
+      "    displayed: shown," +
+      "    text: shown ? (element.innerText || '').replace(/\\u00a0/g, ' ').trim() : ''," +
+      "    id: element.id || ''," +
+      "    labelFor: element.getAttribute('for') || ''," +
+      "    attributes: attributes" +
+      "  });" +
+      "}" +
+      "return {document: identity, url: document.URL, elements: snapshot};";
+
+  /**
+   * Returns the document identity, and whether the element in arguments[0] (if any) is still
+   * attached to it. A stale element fails the call before the script is evaluated.
+   */
+  private static final String VALIDATION_SCRIPT = DOCUMENT_SCRIPT +
+      "var element = arguments[0];" +
+      "return {document: identity," +
+      "        attached: !element || document.documentElement.contains(element)};";
+
+  private final Map<By, CacheSector> elementMapMap;
+  private final Map<By, Long> timeToLives;
+  private final Statistics statistics;
+
+  private long maximumSize = LOOKUP_CACHE_SIZE;
+  private long timeToLive = LOOKUP_CACHE_TTL;
+  private boolean snapshot = LOOKUP_CACHE_SNAPSHOT;
+  private Validation validation = LOOKUP_CACHE_VALIDATE;
 
   CachedLookup(SearchContext searchContext) {
     // So far, CachedLookup is never used directly.
     super(searchContext);
-    this.elementMapMap = new HashMap<By, Map<String, WebElement>>();
+    this.elementMapMap = new LinkedHashMap<By, CacheSector>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<By, CacheSector> eldest) {
+        if (maximumSize > 0 && size() > maximumSize) {
+          statistics.evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+    this.timeToLives = Maps.newHashMap();
+    this.statistics = new Statistics();
+  }
+
+  // Cache management
+
+  /**
+   * Sets the maximum number of locators to be cached, the least recently used one is evicted when
+   * the size is exceeded. A non-positive size leaves the cache unbounded.
+   */
+  public void setMaximumSize(long maximumSize) {
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Sets the time-to-live of every locator that has no specific time-to-live set. A non-positive
+   * time-to-live keeps the elements until they're evicted or invalidated.
+   */
+  public void setTimeToLive(long timeToLive, TimeUnit unit) {
+    this.timeToLive = unit.toMillis(timeToLive);
+  }
+
+  /**
+   * Sets the time-to-live of the given locator, handy for the parts of a page that re-render more
+   * often than the others.
+   */
+  public void setTimeToLive(By by, long timeToLive, TimeUnit unit) {
+    timeToLives.put(by, unit.toMillis(timeToLive));
+  }
+
+  /**
+   * Sets whether the elements of a locator are populated with a single script call, which
+   * returns them together with their visibility, text and attributes. It takes effect when a
+   * locator is populated next, and only on a driver that executes scripts.
+   */
+  public void setSnapshot(boolean snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Sets how a cache hit is validated before it's answered, see Validation.
+   */
+  public void setValidation(Validation validation) {
+    this.validation = validation;
+  }
+
+  public void invalidate(By by) {
+    if (elementMapMap.remove(by) != null) {
+      statistics.invalidations++;
+    }
+  }
+
+  public void invalidate() {
+    statistics.invalidations += elementMapMap.size();
+    elementMapMap.clear();
+  }
+
+  public Statistics getStatistics() {
+    return new Statistics(statistics);
   }
 
   // Internal service method
 
-  private Map<String, WebElement> initializeElementMap(By by) {
-    Map<String, WebElement> elementMap = elementMapMap.get(by);
+  private CacheSector getCachedSector(By by) {
+    CacheSector sector = elementMapMap.get(by);
+    if (sector != null && sector.isExpired(getTimeToLive(by))) {
+      elementMapMap.remove(by);
+      statistics.expirations++;
+      sector = null;
+    }
+    return sector;
+  }
+
+  private long getTimeToLive(By by) {
+    Long timeToLive = timeToLives.get(by);
+    return timeToLive == null ? this.timeToLive : timeToLive;
+  }
+
+  private CacheSector initializeElementMap(By by) {
+    CacheSector sector = getCachedSector(by);
 
-    if (elementMap == null) {
+    if (sector == null) {
       // Create map if there isn't a map for the given by
+      statistics.misses++;
       long cacheStart = System.currentTimeMillis();
 
-      elementMap = new HashMap<String, WebElement>();
+      sector = collectElements(by);
+      if (validation == Validation.URL && sector.url == null) {
+        sector.url = getCurrentUrl();
+      }
 //      logger.info("Cache sector created for locator: \"" + by + "\".");
 
       int ignoredElementCount = 0;
-      for (WebElement element : searchContext.findElements(by)) {
+      for (CachedElement element : sector.candidates) {
         if (!element.isDisplayed()) {
           continue;
         }
 
         String elementText = element.getText();
-//        String elementId = element.getAttribute("id");
 
         if (!elementText.equals("")) {
-          elementMap.put(elementText, element);
+          sector.elements.put(elementText, element);
 //            logger.info("Cached element \"" + elementText + "\" <===> \"" + elementId + "\".");
         } else {
           ignoredElementCount++;
 //          logger.warn("Element \"" + elementText + "\" isn't eligible to be cached.");
         }
       }
+      sector.candidates = null;
+      sector.index();
 
-      elementMapMap.put(by, elementMap);
+      elementMapMap.put(by, sector);
 
       long cacheUsed = System.currentTimeMillis() - cacheStart;
       String ignored = "and ignored " + ignoredElementCount + " elements";
-      String message = "Lookup cached " + elementMap.size() + " elements " +
+      String message = "Lookup cached " + sector.elements.size() + " elements " +
           (ignoredElementCount > 0 ? ignored : "") + " in " + cacheUsed + " ms.";
       //logger.info(message);
+    } else {
+      statistics.hits++;
+    }
+
+    return sector;
+  }
+
+  /**
+   * Runs the query against the cached elements of the locator. A hit is answered from memory once
+   * it is validated, and the query is retried once against a re-populated cache when it hits a
+   * stale element, or the validation finds the page changed.
+   */
+  private CachedElement lookup(By by, Function<CacheSector, CachedElement> query) {
+    boolean cached = getCachedSector(by) != null;
+    CachedElement element;
+    try {
+      element = query.apply(initializeElementMap(by));
+    } catch (StaleElementReferenceException sere) {
+      if (!cached) {
+        throw sere;
+      }
+      invalidate(by);
+      statistics.staleRetries++;
+      return query.apply(initializeElementMap(by));
+    }
+    if (!cached || validation == Validation.NONE || isValid(by, element)) {
+      return element;
+    }
+    statistics.staleRetries++;
+    return query.apply(initializeElementMap(by));
+  }
+
+  private boolean isValid(By by, CachedElement element) {
+    CacheSector sector = elementMapMap.get(by);
+    if (validation == Validation.URL) {
+      String url = getCurrentUrl();
+      if (sector.url != null && url != null && !sector.url.equals(url)) {
+        logger.info("The URL has changed, invalidating all cached elements.");
+        invalidate();
+        return false;
+      }
+      return true;
+    }
+
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(searchContext);
+    try {
+      if (executor == null) {
+        if (element != null) {
+          element.getElement().isEnabled(); // Throws if the element has gone stale
+        }
+        return true;
+      }
+      Map<?, ?> response = (Map<?, ?>) executor.executeScript(
+          VALIDATION_SCRIPT, element == null ? null : element.getElement());
+      if (sector.document != null && !sector.document.equals(response.get("document"))) {
+        logger.info("The document has changed, invalidating all cached elements.");
+        invalidate();
+        return false;
+      }
+      if (Boolean.FALSE.equals(response.get("attached"))) {
+        invalidate(by);
+        return false;
+      }
+      return true;
+    } catch (StaleElementReferenceException sere) {
+      invalidate(by);
+      return false;
     }
+  }
 
-    return elementMap;
+  private String getCurrentUrl() {
+    WebDriver driver = DriverUtil.getDriver(searchContext);
+    return driver == null ? null : driver.getCurrentUrl();
+  }
+
+  private CacheSector collectElements(By by) {
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(searchContext);
+    if (snapshot && executor != null) {
+      try {
+        return snapshot(executor, by);
+      } catch (WebDriverException wde) {
+        logger.warn("Unable to snapshot elements with " + by + ", querying them one by one.");
+      }
+    }
+
+    CacheSector sector = new CacheSector(null);
+    for (WebElement element : searchContext.findElements(by)) {
+      sector.candidates.add(new CachedElement(element));
+    }
+    return sector;
+  }
+
+  /**
+   * Takes the snapshot in a single script call when the locator can be evaluated in the browser,
+   * otherwise the elements found by the search context are handed to the script in a second call.
+   */
+  @SuppressWarnings("unchecked")
+  private CacheSector snapshot(JavascriptExecutor executor, By by) {
+    Object response = null;
+    Basil locator = Basil.from(by);
+    if (locator.hasXPath() && isEvaluable()) {
+      Object context = searchContext instanceof WebElement ? searchContext : null;
+      response = executor.executeScript(SNAPSHOT_SCRIPT, context, locator.getXPath(), null);
+    } else {
+      List<WebElement> elements = searchContext.findElements(by);
+      response = executor.executeScript(SNAPSHOT_SCRIPT, null, null, elements);
+    }
+
+    Map<String, Object> snapshot = (Map<String, Object>) response;
+    CacheSector sector = new CacheSector((String) snapshot.get("document"));
+    sector.url = (String) snapshot.get("url");
+    for (Object entry : (List<Object>) snapshot.get("elements")) {
+      sector.candidates.add(new CachedElement((Map<String, Object>) entry));
+    }
+    return sector;
+  }
+
+  /**
+   * A raw WebDriver or WebElement searches the locator as it is, whereas a BasilContext may
+   * concatenate it with its parents' locators, which only the context itself is able to do.
+   */
+  private boolean isEvaluable() {
+    return !(searchContext instanceof BasilContext) &&
+        (searchContext instanceof WebDriver || searchContext instanceof WebElement);
+  }
+
+  private WebElement toWebElement(CachedElement element) {
+    return element == null ? null : element.getElement();
   }
 
   // Look up by text
 
   @Override
-  public WebElement byText(By by, String text) {
-    WebElement element = initializeElementMap(by).get(text);
+  public WebElement byText(By by, final String text) {
+    CachedElement element = lookup(by, new Function<CacheSector, CachedElement>() {
+      @Override
+      public CachedElement apply(CacheSector sector) {
+        return sector.elements.get(text);
+      }
+    });
 
     if (element == null) {
       logger.error("Unable to locate element \"" + text + "\" with " + by + "\".");
     }
 
-    return element;
+    return toWebElement(element);
   }
 
   @Override
-  public WebElement byPartialText(By by, String partialText) {
-    String completeText = "";
-
-    for (String text : initializeElementMap(by).keySet()) {
-      if (text.contains(partialText)) {
-        completeText = text;
+  public WebElement byPartialText(By by, final String partialText) {
+    CachedElement element = lookup(by, new Function<CacheSector, CachedElement>() {
+      @Override
+      public CachedElement apply(CacheSector sector) {
+        return sector.textIndex.first(partialText);
       }
+    });
+
+    if (element == null) {
+      logger.error("Unable to locate element \"" + partialText + "\" with " + by + "\".");
     }
 
-//    logger.info("Looked up \"" + completeText + "\" for \"" + partialText + "\".");
-    return byText(by, completeText);
+    return toWebElement(element);
   }
 
   @Override
@@ -120,42 +425,32 @@ public class CachedLookup extends BaseLookup {
   // Look up by element attribute
 
   @Override
-  public WebElement byAttribute(By by, String attribute, String value) {
-    WebElement element = null;
-
-    for (Entry<String, WebElement> entry : initializeElementMap(by).entrySet()) {
-      WebElement currentIterateElement = entry.getValue();
-      if (currentIterateElement.getAttribute(attribute).equals(value)) {
-        element = currentIterateElement;
+  public WebElement byAttribute(By by, final String attribute, final String value) {
+    CachedElement element = lookup(by, new Function<CacheSector, CachedElement>() {
+      @Override
+      public CachedElement apply(CacheSector sector) {
+        return sector.getAttributeIndex(attribute).get(value);
       }
-    }
+    });
 
-    return element;
+    return toWebElement(element);
   }
 
   // Lookup by label elements
 
   @Override
   public WebElement label(String text) {
-    return initializeElementMap(By.tagName("label")).get(text);
+    return toWebElement(cachedLabel(text));
   }
 
   @Override
   public WebElement partialLabel(String partialText) {
-    String completeText = "";
-
-    for (String text : initializeElementMap(By.tagName("label")).keySet()) {
-      if (text.contains(partialText)) {
-        completeText = text;
-      }
-    }
-
-    return label(completeText);
+    return toWebElement(cachedPartialLabel(partialText));
   }
 
   @Override
   public WebElement byLabel(String text) {
-    WebElement label = label(text);
+    CachedElement label = cachedLabel(text);
 
     if (label == null) {
       logger.error("Unable to locate element with label: \"" + text + "\".");
@@ -167,7 +462,7 @@ public class CachedLookup extends BaseLookup {
 
   @Override
   public WebElement byPartialLabel(String partialText) {
-    WebElement label = partialLabel(partialText);
+    CachedElement label = cachedPartialLabel(partialText);
 
     if (label == null) {
       logger.error("Unable to locate element with partial label: \"" + partialText + "\".");
@@ -177,4 +472,256 @@ public class CachedLookup extends BaseLookup {
     return searchContext.findElement(By.id(label.getAttribute("for")));
   }
 
+  private CachedElement cachedLabel(final String text) {
+    return lookup(By.tagName("label"), new Function<CacheSector, CachedElement>() {
+      @Override
+      public CachedElement apply(CacheSector sector) {
+        return sector.elements.get(text);
+      }
+    });
+  }
+
+  private CachedElement cachedPartialLabel(final String partialText) {
+    return lookup(By.tagName("label"), new Function<CacheSector, CachedElement>() {
+      @Override
+      public CachedElement apply(CacheSector sector) {
+        return sector.textIndex.first(partialText);
+      }
+    });
+  }
+
+  /**
+   * A WebElement together with the properties the lookup needs. Properties of an element that is
+   * taken from a snapshot are answered from memory, otherwise they are queried from the element.
+   */
+  static class CachedElement {
+
+    private final WebElement element;
+    private final boolean displayed;
+    private final String text;
+    private final Map<String, String> attributes;
+
+    CachedElement(WebElement element) {
+      this.element = element;
+      this.displayed = element.isDisplayed();
+      this.text = displayed ? element.getText() : "";
+      this.attributes = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    CachedElement(Map<String, Object> snapshot) {
+      this.element = (WebElement) snapshot.get("element");
+      this.displayed = Boolean.TRUE.equals(snapshot.get("displayed"));
+      this.text = String.valueOf(snapshot.get("text"));
+      this.attributes = Maps.newHashMap();
+      Map<String, Object> attributes = (Map<String, Object>) snapshot.get("attributes");
+      if (attributes != null) {
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+          this.attributes.put(attribute.getKey(), String.valueOf(attribute.getValue()));
+        }
+      }
+      this.attributes.put("id", String.valueOf(snapshot.get("id")));
+      this.attributes.put("for", String.valueOf(snapshot.get("labelFor")));
+    }
+
+    WebElement getElement() {
+      return element;
+    }
+
+    boolean isDisplayed() {
+      return displayed;
+    }
+
+    String getText() {
+      return text;
+    }
+
+    String getAttribute(String name) {
+      if (attributes == null) {
+        return element.getAttribute(name);
+      }
+      return attributes.get(name);
+    }
+
+  }
+
+  /**
+   * The elements cached for a locator, and the document and URL they were taken from. The
+   * elements are kept in document order, and indexed by partial text and by attribute values so
+   * that queries don't scan every element.
+   */
+  private static class CacheSector {
+
+    private final String document;
+    private String url;
+    private final long created;
+    private final Map<String, CachedElement> elements;
+    private final TextIndex<CachedElement> textIndex;
+    private final Map<String, Map<String, CachedElement>> attributeIndex;
+    private List<CachedElement> candidates;
+
+    private CacheSector(String document) {
+      this.document = document;
+      this.created = System.currentTimeMillis();
+      this.elements = new LinkedHashMap<String, CachedElement>();
+      this.textIndex = new TextIndex<CachedElement>();
+      this.attributeIndex = new HashMap<String, Map<String, CachedElement>>();
+      this.candidates = Lists.newArrayList();
+    }
+
+    /**
+     * Indexes the texts, and the attributes of the elements taken from a snapshot. Those of the
+     * elements that aren't are indexed on demand as querying them requires remote calls.
+     */
+    private void index() {
+      for (Map.Entry<String, CachedElement> entry : elements.entrySet()) {
+        textIndex.put(entry.getKey(), entry.getValue());
+        if (entry.getValue().attributes != null) {
+          for (Map.Entry<String, String> attribute : entry.getValue().attributes.entrySet()) {
+            indexAttribute(attribute.getKey(), attribute.getValue(), entry.getValue());
+          }
+        }
+      }
+    }
+
+    private void indexAttribute(String attribute, String value, CachedElement element) {
+      Map<String, CachedElement> values = attributeIndex.get(attribute);
+      if (values == null) {
+        values = new HashMap<String, CachedElement>();
+        attributeIndex.put(attribute, values);
+      }
+      if (value != null && !values.containsKey(value)) {
+        values.put(value, element); // The first element in document order wins
+      }
+    }
+
+    private Map<String, CachedElement> getAttributeIndex(String attribute) {
+      if (isSnapshot()) {
+        Map<String, CachedElement> values = attributeIndex.get(attribute);
+        return values == null ? Collections.<String, CachedElement>emptyMap() : values;
+      }
+      if (!attributeIndex.containsKey(attribute)) {
+        attributeIndex.put(attribute, new HashMap<String, CachedElement>());
+        for (CachedElement element : elements.values()) {
+          indexAttribute(attribute, element.getAttribute(attribute), element);
+        }
+      }
+      return attributeIndex.get(attribute);
+    }
+
+    private boolean isSnapshot() {
+      return document != null;
+    }
+
+    private boolean isExpired(long timeToLive) {
+      return timeToLive > 0 && System.currentTimeMillis() - created > timeToLive;
+    }
+
+  }
+
+  /**
+   * How a cache hit is validated before it's answered.
+   */
+  public enum Validation {
+
+    /**
+     * The hit is answered from memory, the elements are re-populated when they outlive the
+     * time-to-live, or a query runs into a stale one.
+     */
+    NONE,
+    /**
+     * The current URL is compared with the one the elements were cached at, which takes one
+     * light-weight call per hit and catches the navigation to another page.
+     */
+    URL,
+    /**
+     * A script verifies that the document hasn't been reloaded or replaced and the element isn't
+     * stale, which catches a reload at the same URL as well.
+     */
+    DOCUMENT;
+
+    public static Validation fromString(String string) {
+      for (Validation validation : values()) {
+        if (string.equalsIgnoreCase(validation.name())) {
+          return validation;
+        }
+      }
+      throw new IllegalArgumentException("Validation cannot be parsed from: \"" + string + "\".");
+    }
+
+  }
+
+  /**
+   * Counters of the cache, for tuning its size and time-to-live.
+   */
+  public static class Statistics {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    private long staleRetries;
+
+    private Statistics() {}
+
+    private Statistics(Statistics source) {
+      this.hits = source.hits;
+      this.misses = source.misses;
+      this.evictions = source.evictions;
+      this.expirations = source.expirations;
+      this.invalidations = source.invalidations;
+      this.staleRetries = source.staleRetries;
+    }
+
+    public long getHits() {
+      return hits;
+    }
+
+    public long getMisses() {
+      return misses;
+    }
+
+    public double getHitRate() {
+      long requests = hits + misses;
+      return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * The number of locators evicted for exceeding the maximum size.
+     */
+    public long getEvictions() {
+      return evictions;
+    }
+
+    /**
+     * The number of locators removed for outliving their time-to-live.
+     */
+    public long getExpirations() {
+      return expirations;
+    }
+
+    /**
+     * The number of locators removed for a document change, a stale element, or on request.
+     */
+    public long getInvalidations() {
+      return invalidations;
+    }
+
+    /**
+     * The number of queries retried against a re-populated cache.
+     */
+    public long getStaleRetries() {
+      return staleRetries;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("hits: %d, misses: %d, evictions: %d, expirations: %d, " +
+          "invalidations: %d, stale retries: %d", hits, misses, evictions, expirations,
+          invalidations, staleRetries);
+    }
+
+  }
+
 }
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.basil.selenium.Basil;
+import org.basil.selenium.BasilElement;
+import org.basil.selenium.base.DomScripts;
+import org.basil.selenium.base.DriverUtil;
+import org.basil.selenium.base.SessionErrors;
+import org.basil.selenium.service.XPathUtil;
+import org.basil.selenium.ui.SearchContextWait;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Element Batch - The fields a page object registers in registerWebElements(), resolved in one
+ * script round trip relative to the page object and filled in before initializeWebElements():
+ * <pre>
+ * protected void registerWebElements(ElementBatch batch) {
+ *   batch.visible("username", By.id("username"))
+ *        .visible("password", By.id("password"))
+ *        .present("token", By.name("csrf_token"));
+ * }
+ * </pre>
+ * The script returns the elements along with their visibility, and is repeated until the visible
+ * fields are visible, so a dialog of 30 fields takes one call instead of 30 finds and 30 waits.
+ * Locators without an XPath equivalent (CSS selectors and link texts) are resolved one by one, so
+ * are all of them if the driver doesn't execute scripts. The lazy fields aren't resolved at all,
+ * they are filled with LazyElements resolving on their first use.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 1:47:20 AM
+ */
+public class ElementBatch {
+
+  private static final Logger logger = LoggerFactory.getLogger(ElementBatch.class);
+
+  /**
+   * Returns the first element of each XPath of arguments[1] along with its visibility, an XPath
+   * is evaluated relative to arguments[0], or to the document when the arguments[2] of it is true
+   * or there is no arguments[0].
+   */
+  private static final String RESOLVE_SCRIPT =
+      "var root = arguments[0], xpaths = arguments[1], fromDocument = arguments[2];" +
+      DomScripts.DISPLAYED +
+      "var results = [];" +
+      "for (var i = 0; i < xpaths.length; i++) {" +
+      "  var element = document.evaluate(xpaths[i], fromDocument[i] || !root ? document : root," +
+      "      null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+      "  results.push({element: element, displayed: displayed(element)});" +
+      "}" +
+      "return results;";
+
+  private final PageObject pageObject;
+  private final Map<String, Entry> entries = Maps.newLinkedHashMap();
+  private int roundTrips;
+
+  ElementBatch(PageObject pageObject) {
+    this.pageObject = pageObject;
+  }
+
+  // Registration
+
+  /**
+   * Registers the field to be filled with the element of the locator once it's visible.
+   */
+  public ElementBatch visible(String field, By locator) {
+    return register(field, locator, true, false);
+  }
+
+  /**
+   * Registers the field to be filled with the element of the locator once it's present.
+   */
+  public ElementBatch present(String field, By locator) {
+    return register(field, locator, false, false);
+  }
+
+  /**
+   * Registers the field to be filled with a LazyElement of the locator, which is resolved on its
+   * first use, so the fields a test never touches cost nothing.
+   */
+  public ElementBatch lazy(String field, By locator) {
+    return register(field, locator, false, true);
+  }
+
+  private ElementBatch register(String name, By locator, boolean visible, boolean lazy) {
+    Preconditions.checkArgument(!entries.containsKey(name),
+        "The field \"%s\" is registered twice.", name);
+    entries.put(name, new Entry(getField(name), Basil.from(locator), visible, lazy));
+    return this;
+  }
+
+  private Field getField(String name) {
+    for (Class<?> clazz = pageObject.getClass(); clazz != PageObject.class;
+        clazz = clazz.getSuperclass()) {
+      try {
+        Field field = clazz.getDeclaredField(name);
+        Preconditions.checkArgument(field.getType().isAssignableFrom(BasilElement.class),
+            "The field \"%s\" of %s can't hold a BasilElement.", name, clazz.getSimpleName());
+        field.setAccessible(true);
+        return field;
+      } catch (NoSuchFieldException nsfe) {
+        continue;
+      }
+    }
+    throw new IllegalArgumentException(
+        "There's no field \"" + name + "\" in " + pageObject.getClassName() + ".");
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of script calls it took to resolve the fields.
+   */
+  public int getRoundTrips() {
+    return roundTrips;
+  }
+
+  // Resolution
+
+  void resolve(WebDriverWait wait) {
+    List<Entry> scripted = Lists.newArrayList();
+    for (Entry entry : entries.values()) {
+      if (entry.locator.hasXPath() && !entry.lazy) {
+        scripted.add(entry);
+      }
+    }
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(pageObject);
+    if (executor != null && !scripted.isEmpty()) {
+      try {
+        resolveByScript(executor, wait, scripted);
+      } catch (TimeoutException te) {
+        throw new NoSuchElementException("Cannot resolve the fields " +
+            Joiner.on(", ").join(getUnresolved(scripted)) + " of " + pageObject.getClassName());
+      } catch (WebDriverException wde) {
+        if (SessionErrors.isFatal(wde)) {
+          throw wde; // Resolving them one by one would fail the same way
+        }
+        logger.warn("Unable to resolve the fields of " + pageObject.getClassName() +
+            " in a batch, resolving them one by one.", wde);
+      }
+    }
+    for (Entry entry : entries.values()) {
+      if (entry.lazy) {
+        fill(entry, new LazyElement(pageObject, entry.field.getName(), entry.locator));
+      } else if (!entry.filled) {
+        resolveByLocator(entry);
+      }
+    }
+    logger.debug(String.format("Resolved %d fields of %s in %d round trips.", entries.size(),
+        pageObject.getClassName(), roundTrips));
+  }
+
+  private void resolveByScript(final JavascriptExecutor executor, WebDriverWait wait,
+      final List<Entry> entries) {
+    SearchContext context = pageObject.context().get();
+    final Object root = context instanceof WebElement ? context : null;
+    final List<String> xpaths = Lists.newArrayListWithCapacity(entries.size());
+    final List<Boolean> fromDocument = Lists.newArrayListWithCapacity(entries.size());
+    for (Entry entry : entries) {
+      // Confident locators are looked up in the document, the way resolution avoidance does
+      fromDocument.add(entry.locator.isConfident());
+      String xpath = entry.locator.getXPath();
+      xpaths.add(entry.locator.isConfident() || xpath.startsWith(".")
+          ? xpath : "." + XPathUtil.append(Collections.singletonList(xpath)));
+    }
+
+    // Wrapped so the resolution is clipped to the deadline of the construction
+    new SearchContextWait(pageObject, wait).until(new Function<SearchContext, Boolean>() {
+      @Override
+      public Boolean apply(SearchContext context) {
+        roundTrips++;
+        List<?> results = (List<?>) executor.executeScript(RESOLVE_SCRIPT, root, xpaths,
+            fromDocument);
+        boolean resolved = true;
+        for (int i = 0; i < entries.size(); i++) {
+          Map<?, ?> result = (Map<?, ?>) results.get(i);
+          resolved &= entries.get(i).offer(
+              (WebElement) result.get("element"), Boolean.TRUE.equals(result.get("displayed")));
+        }
+        return resolved ? Boolean.TRUE : null;
+      }
+    });
+    for (Entry entry : entries) {
+      fill(entry, entry.element);
+    }
+  }
+
+  private void resolveByLocator(Entry entry) {
+    WebElement element = entry.visible
+        ? pageObject.lookup.getVisibleElement(entry.locator)
+        : pageObject.findElement(entry.locator);
+    fill(entry, element);
+  }
+
+  private void fill(Entry entry, WebElement element) {
+    BasilElement basilElement = element instanceof BasilElement
+        ? (BasilElement) element
+        : BasilElement.create(element).setParent(pageObject).setLocator(entry.locator);
+    try {
+      entry.field.set(pageObject, basilElement);
+    } catch (IllegalAccessException iae) {
+      throw new PageObjectException.Initialization(
+          "Unable to fill the field \"" + entry.field.getName() + "\".", iae);
+    }
+    entry.filled = true;
+  }
+
+  private List<String> getUnresolved(List<Entry> entries) {
+    List<String> unresolved = Lists.newArrayList();
+    for (Entry entry : entries) {
+      if (entry.element == null) {
+        unresolved.add(entry.field.getName() + " (" + entry.locator + ")");
+      } else if (entry.visible && !entry.displayed) {
+        unresolved.add(entry.field.getName() + " (" + entry.locator + ", invisible)");
+      }
+    }
+    return unresolved;
+  }
+
+  private static class Entry {
+
+    private final Field field;
+    private final Basil locator;
+    private final boolean visible;
+    private final boolean lazy;
+
+    // The outcome of the latest round trip
+    private WebElement element;
+    private boolean displayed;
+    private boolean filled;
+
+    private Entry(Field field, Basil locator, boolean visible, boolean lazy) {
+      this.field = field;
+      this.locator = locator;
+      this.visible = visible;
+      this.lazy = lazy;
+    }
+
+    /**
+     * Takes the element of a round trip, returns true if it resolves the entry.
+     */
+    private boolean offer(WebElement element, boolean displayed) {
+      this.element = element;
+      this.displayed = displayed;
+      return element != null && (displayed || !visible);
+    }
+
+  }
+
+}
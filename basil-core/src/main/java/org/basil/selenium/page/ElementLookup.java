@@ -50,6 +50,15 @@ public class ElementLookup extends BaseLookup {
     this.searchContext = searchContext;
   }
 
+  // Cache
+
+  /**
+   * The cache behind the look ups by text, attribute and label, for tuning or invalidating it.
+   */
+  public CachedLookup getCache() {
+    return cachedLookup;
+  }
+
   // Explicit wait methods
 
   public WebElement getVisibleElement(By by) {
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.basil.selenium.BasilElement;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Lazy Element - A locator-backed field of a page object, registered with ElementBatch.lazy(), it
+ * is resolved on its first use rather than on the construction of the page object, and resolved
+ * again when the element it resolved to has gone stale (the call is retried once).
+ *
+ * The uses are counted by the fields of the page object classes, so the fields that are never
+ * used can be told and dropped, see getUnusedFields().
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 2:26:05 AM
+ */
+public class LazyElement extends BasilElement {
+
+  private static final ConcurrentMap<String, Usage> usages = Maps.newConcurrentMap();
+  private static final LongAdder resolutions = new LongAdder();
+  private static final LongAdder reResolutions = new LongAdder();
+
+  private final String field;
+  private final Usage usage;
+
+  private boolean used;
+  private WebElement element;
+  private WebElement proxy;
+
+  LazyElement(PageObject pageObject, String field, By locator) {
+    super(pageObject, locator);
+    this.field = pageObject.getClassName() + "." + field;
+    this.usage = getUsage(this.field);
+    usage.instances.increment();
+  }
+
+  private static Usage getUsage(String field) {
+    Usage usage = usages.get(field);
+    if (usage == null) {
+      Usage newUsage = new Usage();
+      usage = usages.putIfAbsent(field, newUsage);
+      if (usage == null) {
+        usage = newUsage;
+      }
+    }
+    return usage;
+  }
+
+  /**
+   * Returns the field as PageObjectClass.field.
+   */
+  public String getField() {
+    return field;
+  }
+
+  public boolean isUsed() {
+    return used;
+  }
+
+  // Resolve
+
+  @Override
+  public LazyResolve resolve() {
+    return (LazyResolve) super.resolve();
+  }
+
+  @Override
+  protected LazyResolve newResolve() {
+    return new LazyResolve();
+  }
+
+  public class LazyResolve extends BasilElement.Resolve {
+
+    @Override
+    protected WebElement by(ResolveBy by) {
+      boolean resolved = isResolved();
+      WebElement element = super.by(by);
+      if (!resolved) {
+        if (!used) {
+          used = true;
+          usage.used.increment();
+          resolutions.increment();
+        } else {
+          reResolutions.increment();
+        }
+      }
+      if (element != LazyElement.this.element) {
+        LazyElement.this.element = element;
+        proxy = (WebElement) Proxy.newProxyInstance(LazyElement.class.getClassLoader(),
+            new Class<?>[] {WebElement.class, WrapsElement.class, Locatable.class},
+            new StaleElementHandler());
+      }
+      return proxy;
+    }
+
+  }
+
+  /**
+   * Calls the resolved element, or the element resolved again if it has gone stale.
+   */
+  private class StaleElementHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (method.getDeclaringClass() == WrapsElement.class) {
+        return element;
+      }
+      try {
+        return method.invoke(element, args);
+      } catch (InvocationTargetException ite) {
+        if (!(ite.getCause() instanceof StaleElementReferenceException)) {
+          throw ite.getCause();
+        }
+      }
+      context().unset();
+      resolve().by(ResolveBy.resolve);
+      try {
+        return method.invoke(element, args);
+      } catch (InvocationTargetException ite) {
+        throw ite.getCause();
+      }
+    }
+
+  }
+
+  // Statistics
+
+  /**
+   * Returns the number of lazy elements resolved on their first use.
+   */
+  public static long getResolutions() {
+    return resolutions.sum();
+  }
+
+  /**
+   * Returns the number of lazy elements resolved again because they have gone stale.
+   */
+  public static long getReResolutions() {
+    return reResolutions.sum();
+  }
+
+  /**
+   * Returns the fields (as PageObjectClass.field) that none of the page objects has ever used.
+   */
+  public static List<String> getUnusedFields() {
+    List<String> unused = Lists.newArrayList();
+    for (Map.Entry<String, Usage> entry : usages.entrySet()) {
+      if (entry.getValue().used.sum() == 0) {
+        unused.add(entry.getKey());
+      }
+    }
+    Collections.sort(unused);
+    return unused;
+  }
+
+  public static String getStatistics() {
+    long instances = 0;
+    for (Usage usage : usages.values()) {
+      instances += usage.instances.sum();
+    }
+    return String.format("LazyElement {instances=%d, resolutions=%d, re-resolutions=%d, "
+        + "unused fields=%s}", instances, getResolutions(), getReResolutions(),
+        getUnusedFields());
+  }
+
+  private static class Usage {
+
+    private final LongAdder instances = new LongAdder();
+    private final LongAdder used = new LongAdder();
+
+  }
+
+}
@@ -6,18 +6,24 @@ package org.basil.selenium.page;
 
 import static org.basil.Config.PAGE_OBJECT_LOCATE_TIMEOUT;
 
+import java.util.concurrent.TimeUnit;
+
 import org.basil.Config;
 import org.basil.selenium.Basil;
 import org.basil.selenium.BasilContext;
 import org.basil.selenium.BasilElement;
 import org.basil.selenium.base.DriverFactory;
+import org.basil.selenium.base.DriverUtil;
 import org.basil.selenium.service.WebElementUtil;
+import org.basil.selenium.ui.Deadline;
 import org.basil.selenium.ui.ExtendedConditions;
 import org.basil.selenium.ui.Pessimistically;
+import org.basil.selenium.ui.SearchContextWait;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
@@ -47,6 +53,7 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
   private static final Logger logger = LoggerFactory.getLogger(PageObject.class);
 
   private final Timer timer;
+  private final long timeout; // In seconds, the deadline of the construction
 
   protected WebDriverWait wait;
   protected final Object[] params;
@@ -69,7 +76,9 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
   }
 
   protected PageObject(SearchContext context, By locator, long timeout, Object... params) {
-    this.wait = new WebDriverWait(DriverFactory.getWebDriver(), timeout);
+    WebDriver driver = DriverUtil.getDriver(context); // The thread's driver for unwrapped contexts
+    this.wait = new WebDriverWait(driver != null ? driver : DriverFactory.getWebDriver(), timeout);
+    this.timeout = timeout;
     this.params = params;
 
     this.timer = new Timer(getClass());
@@ -90,6 +99,7 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
 
   protected PageObject(WebElement pageObject, Object... params) {
     this.wait = DriverFactory.getWebDriverWait();
+    this.timeout = Config.WEB_DRIVER_WAIT_TIMEOUT;
     this.params = params;
 
     this.timer = new Timer(getClass());
@@ -107,6 +117,7 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
 
   protected PageObject(Object... params) {
     this.wait = DriverFactory.getWebDriverWait();
+    this.timeout = Config.WEB_DRIVER_WAIT_TIMEOUT;
     this.params = params;
 
     this.timer = new Timer(getClass());
@@ -123,17 +134,27 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
     }
   }
 
+  /**
+   * Constructs the page object within a deadline of its timeout, so the waits of locating it and
+   * its fields (and of the page objects constructed in it) add up to the timeout at most.
+   */
   protected void construct() {
-    timer.tokenBegin();
-    initializePageObject();
-    setContext(pageObject);
-    timer.tokenEnd();
-
-    timer.elementBegin();
-    initializeWebElements();
-    timer.elementEnd();
-
-    timer.printTimerMessage();
+    Deadline deadline = Deadline.open(getClassName(), timeout, TimeUnit.SECONDS);
+    try {
+      timer.tokenBegin();
+      initializePageObject();
+      setContext(pageObject);
+      timer.tokenEnd();
+
+      timer.elementBegin();
+      resolveWebElements();
+      initializeWebElements();
+      timer.elementEnd();
+
+      timer.printTimerMessage();
+    } finally {
+      deadline.close();
+    }
   }
 
   public void initialize(SearchContext context, By locator) {
@@ -197,6 +218,22 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
     this.pageObject = BasilElement.create(pageObject).setParent(parent).setLocator(locator);
   }
 
+  /**
+   * Override to register the fields to be resolved in a batch, in one round trip, or lazily, on
+   * their first use, before the initializeWebElements() is called.
+   */
+  protected void registerWebElements(ElementBatch batch) {
+    // Do nothing
+  }
+
+  private void resolveWebElements() {
+    ElementBatch batch = new ElementBatch(this);
+    registerWebElements(batch);
+    if (!batch.isEmpty()) {
+      batch.resolve(wait);
+    }
+  }
+
   /**
    * Override if there are WebElements you wish to initialize once the PageObject is created.
    */
@@ -226,11 +263,11 @@ public abstract class PageObject extends PageObjectAnnotation implements SearchC
   }
 
   public void waitUntilVisible() {
-    wait.until(ExtendedConditions.visibilityOf(pageObject));
+    new SearchContextWait(this, wait).until(ExtendedConditions.visibilityOf(pageObject));
   }
 
   public void waitUntilInvisible() {
-    wait.until(ExtendedConditions.invisibilityOf(pageObject));
+    new SearchContextWait(this, wait).until(ExtendedConditions.invisibilityOf(pageObject));
   }
 
   @SuppressWarnings("unchecked")
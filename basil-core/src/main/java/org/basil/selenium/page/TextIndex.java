@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Text Index - An n-gram index of texts for partial text queries. Every text is indexed by all of
+ * its substrings of up to three characters, a query no longer than that is answered directly from
+ * its posting list, a longer one verifies only the texts that contain its rarest trigram. Matches
+ * are returned in the order the texts were indexed.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 10:12:45 AM
+ */
+final class TextIndex<V> {
+
+  private static final int GRAM_LENGTH = 3;
+
+  private final List<String> texts;
+  private final List<V> values;
+  private final Map<String, Postings> grams;
+
+  TextIndex() {
+    this.texts = Lists.newArrayList();
+    this.values = Lists.newArrayList();
+    this.grams = new HashMap<String, Postings>();
+  }
+
+  void put(String text, V value) {
+    int id = texts.size();
+    texts.add(text);
+    values.add(value);
+    for (int length = 1; length <= GRAM_LENGTH; length++) {
+      for (int begin = 0; begin + length <= text.length(); begin++) {
+        String gram = text.substring(begin, begin + length);
+        Postings postings = grams.get(gram);
+        if (postings == null) {
+          postings = new Postings();
+          grams.put(gram, postings);
+        }
+        postings.add(id);
+      }
+    }
+  }
+
+  int size() {
+    return texts.size();
+  }
+
+  /**
+   * Returns the value of the first text that contains the given partial text, or null.
+   */
+  V first(String partialText) {
+    List<V> matches = find(partialText, 1);
+    return matches.isEmpty() ? null : matches.get(0);
+  }
+
+  /**
+   * Returns the values of all texts that contain the given partial text.
+   */
+  List<V> all(String partialText) {
+    return find(partialText, Integer.MAX_VALUE);
+  }
+
+  private List<V> find(String partialText, int limit) {
+    List<V> matches = Lists.newArrayList();
+    if (partialText.isEmpty()) {
+      for (int id = 0; id < texts.size() && matches.size() < limit; id++) {
+        matches.add(values.get(id));
+      }
+      return matches;
+    }
+
+    Postings candidates = null;
+    if (partialText.length() <= GRAM_LENGTH) {
+      candidates = grams.get(partialText);
+    } else {
+      for (int begin = 0; begin + GRAM_LENGTH <= partialText.length(); begin++) {
+        Postings postings = grams.get(partialText.substring(begin, begin + GRAM_LENGTH));
+        if (postings == null) {
+          return matches; // A trigram that no text has
+        }
+        if (candidates == null || postings.size < candidates.size) {
+          candidates = postings;
+        }
+      }
+    }
+    if (candidates == null) {
+      return matches;
+    }
+
+    boolean verify = partialText.length() > GRAM_LENGTH;
+    for (int i = 0; i < candidates.size && matches.size() < limit; i++) {
+      int id = candidates.ids[i];
+      if (!verify || texts.get(id).contains(partialText)) {
+        matches.add(values.get(id));
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Ascending ids of the texts containing a gram, without boxing.
+   */
+  private static class Postings {
+
+    private int[] ids = new int[4];
+    private int size;
+
+    private void add(int id) {
+      if (size > 0 && ids[size - 1] == id) {
+        return; // The gram occurs more than once in the same text
+      }
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+  }
+
+}
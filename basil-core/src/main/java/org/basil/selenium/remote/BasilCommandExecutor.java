@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.net.URL;
+
+import org.openqa.selenium.remote.CommandInfo;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Basil Command Executor - Sends the commands to the remote end over the pooled, persistent
+ * connections of a PooledHttpClientFactory, the default factory unless specified.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 10:21:43 PM
+ */
+public class BasilCommandExecutor extends HttpCommandExecutor {
+
+  public BasilCommandExecutor(URL remoteAddress) {
+    this(remoteAddress, PooledHttpClientFactory.getDefault());
+  }
+
+  public BasilCommandExecutor(URL remoteAddress, HttpClient.Factory httpClientFactory) {
+    super(ImmutableMap.<String, CommandInfo>of(), remoteAddress, httpClientFactory);
+  }
+
+}
@@ -4,28 +4,23 @@
 
 package org.basil.selenium.remote;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.net.URL;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.basil.Config;
 import org.basil.selenium.BasilElement;
+import org.basil.selenium.base.SessionErrors;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.HasCapabilities;
@@ -59,6 +54,7 @@ import org.openqa.selenium.remote.Command;
 import org.openqa.selenium.remote.CommandExecutor;
 import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
 import org.openqa.selenium.remote.ErrorHandler;
 import org.openqa.selenium.remote.ExecuteMethod;
 import org.openqa.selenium.remote.FileDetector;
@@ -73,15 +69,17 @@ import org.openqa.selenium.remote.Response;
 import org.openqa.selenium.remote.SessionId;
 import org.openqa.selenium.remote.UnreachableBrowserException;
 import org.openqa.selenium.remote.UselessFileDetector;
-import org.openqa.selenium.remote.internal.JsonToWebElementConverter;
 import org.openqa.selenium.remote.internal.WebElementToJsonConverter;
 import org.spearmint.Spearmint;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * <code>BasilWebDriver</code> is a copy of <code>RemoteWebDriver</code>.
@@ -108,13 +106,15 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
   private FileDetector fileDetector = new UselessFileDetector();
   private ExecuteMethod executeMethod;
 
-  protected JsonToWebElementConverter converter;
+  protected InterningElementConverter converter;
 
   private RemoteKeyboard keyboard;
   private RemoteMouse mouse;
   private Logs remoteLogs;
   protected LocalLogs localLogs;
 
+  private final CommandMetrics metrics = new CommandMetrics();
+
   // For cglib
   protected BasilWebDriver() {
     init(new DesiredCapabilities(), null);
@@ -165,19 +165,19 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
 
   public BasilWebDriver(URL remoteAddress, Capabilities desiredCapabilities,
       Capabilities requiredCapabilities) {
-    this(new HttpCommandExecutor(remoteAddress), desiredCapabilities,
+    this(new BasilCommandExecutor(remoteAddress), desiredCapabilities,
         requiredCapabilities);
   }
 
   public BasilWebDriver(URL remoteAddress, Capabilities desiredCapabilities) {
-    this(new HttpCommandExecutor(remoteAddress), desiredCapabilities, null);
+    this(new BasilCommandExecutor(remoteAddress), desiredCapabilities, null);
   }
 
   // TODO(ryan131): This was private.
   protected void init(Capabilities desiredCapabilities, Capabilities requiredCapabilities) {
     logger.addHandler(LoggingHandler.getInstance());
 
-    converter = new JsonToWebElementConverter(this);
+    converter = new InterningElementConverter(this);
     executeMethod = new RemoteExecuteMethod(this);
     keyboard = new RemoteKeyboard(executeMethod);
     mouse = new RemoteMouse(executeMethod);
@@ -222,6 +222,29 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
     return sessionId;
   }
 
+  /**
+   * Returns the metrics of the commands executed on this session.
+   */
+  public CommandMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the converter of the element references in responses, which interns the elements of
+   * the session.
+   */
+  public InterningElementConverter getElementConverter() {
+    return converter;
+  }
+
+  @Override
+  public void quit() {
+    if (sessionId != null) {
+      logger.log(level, "Element interning of session " + sessionId + ": " + converter);
+    }
+    super.quit();
+  }
+
   protected void setSessionId(String opaqueKey) {
     sessionId = new SessionId(opaqueKey);
   }
@@ -230,6 +253,28 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
     startSession(desiredCapabilities, null);
   }
 
+  /**
+   * Starts a new session with RemoteWebDriver, which keeps its session ID and capabilities in
+   * private fields of its own, they are copied to the ones of this driver.
+   */
+  @Override
+  protected void startSession(
+      Capabilities desiredCapabilities, Capabilities requiredCapabilities) {
+    super.startSession(desiredCapabilities, requiredCapabilities);
+    sessionId = (SessionId) getRemoteWebDriverField("sessionId");
+    capabilities = (Capabilities) getRemoteWebDriverField("capabilities");
+  }
+
+  private Object getRemoteWebDriverField(String name) {
+    try {
+      Field field = RemoteWebDriver.class.getDeclaredField(name);
+      field.setAccessible(true);
+      return field.get(this);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      throw new WebDriverException("Unable to read the field " + name + " of RemoteWebDriver.", e);
+    }
+  }
+
   /**
    * Method called before {@link #startSession(Capabilities) starting a new session}. The default
    * implementation is a no-op, but subtypes should override this method to define custom behavior.
@@ -459,7 +504,38 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
     return execute(DriverCommand.EXECUTE_ASYNC_SCRIPT, params).getValue();
   }
 
+  /**
+   * Executes the command, recording its latency and outcome in the metrics of this session and the
+   * global metrics.
+   */
   protected Response execute(String driverCommand, Map<String, ?> parameters) {
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      Response response = executeCommand(driverCommand, parameters);
+      failed = false;
+      return response;
+    } catch (WebDriverException wde) {
+      if (SessionErrors.isFatal(wde) && !SessionErrors.isPoisoned(this)) {
+        SessionErrors.poison(this);
+        sessionLost();
+      }
+      throw wde;
+    } finally {
+      long latency = System.nanoTime() - start;
+      metrics.record(driverCommand, latency, failed);
+      CommandMetrics.global().record(driverCommand, latency, failed);
+    }
+  }
+
+  /**
+   * Called once when a command tells the session is gone, after the driver is poisoned.
+   */
+  protected void sessionLost() {
+    // Do nothing
+  }
+
+  private Response executeCommand(String driverCommand, Map<String, ?> parameters) {
     Command command = new Command(sessionId, driverCommand, parameters);
     Response response;
 
@@ -545,10 +621,14 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
    */
   public static class Reusable extends BasilWebDriver {
 
-    private File localSessionFile;
-    private SessionId localSessionId;
-    private Capabilities localSession;
-    private Map<SessionId, Capabilities> remoteSessions;
+    private static final SessionStore defaultStore = createDefaultStore();
+
+    private static final Cache<String, Set<SessionId>> remoteSessionCache =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(Config.WEB_DRIVER_SESSION_CACHE_TTL, TimeUnit.MILLISECONDS)
+            .build();
+
+    private final SessionStore store;
 
     // Constructors
 
@@ -557,12 +637,12 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
     }
 
     public Reusable(URL remoteAddress, Capabilities desiredCapabilities) {
-      this(new HttpCommandExecutor(remoteAddress), desiredCapabilities, null);
+      this(new BasilCommandExecutor(remoteAddress), desiredCapabilities, null);
     }
 
     public Reusable(URL remoteAddress, Capabilities desiredCapabilities,
         Capabilities requiredCapabilities) {
-      this(new HttpCommandExecutor(remoteAddress), desiredCapabilities,
+      this(new BasilCommandExecutor(remoteAddress), desiredCapabilities,
           requiredCapabilities);
     }
 
@@ -572,19 +652,13 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
 
     public Reusable(CommandExecutor executor, Capabilities desiredCapabilities,
         Capabilities requiredCapabilities) {
-      super.executor = executor;
-
-      //String localSessionPath =
-      //    System.getProperty("user.home") + "\\Selenium Remote Sessions\\";
-      //localSessionFile =
-      //    new File(localSessionPath + new Timestamp(new Date().getTime()));
+      this(executor, desiredCapabilities, requiredCapabilities, defaultStore);
+    }
 
-      localSessionFile = new File("D:\\Selenium_Session");
-      localSession = readSessionFromFile(localSessionFile);
-      if (localSession != null) {
-        localSessionId = getSessionId(localSession);
-      }
-      remoteSessions = getRemoteSessions();
+    public Reusable(CommandExecutor executor, Capabilities desiredCapabilities,
+        Capabilities requiredCapabilities, SessionStore store) {
+      super.executor = executor;
+      this.store = store;
 
       init(desiredCapabilities, requiredCapabilities);
 
@@ -613,6 +687,17 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
       }
     }
 
+    private static SessionStore createDefaultStore() {
+      if ("memory".equalsIgnoreCase(Config.WEB_DRIVER_SESSION_STORE)) {
+        return new MemorySessionStore();
+      }
+      String directory = Config.WEB_DRIVER_SESSION_DIRECTORY;
+      if (directory == null || directory.isEmpty()) {
+        directory = new File(System.getProperty("java.io.tmpdir"), "basil-sessions").getPath();
+      }
+      return new FileSessionStore(new File(directory));
+    }
+
     // Assistive methods
 
     /**
@@ -623,8 +708,7 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
      * @return the session ID of the passed in Capabilities
      */
     private SessionId getSessionId(Capabilities capabilities) {
-      String key = "webdriver.remote.sessionid";
-      String value = (String) capabilities.getCapability(key);
+      String value = (String) capabilities.getCapability(SessionStore.SESSION_ID);
       return new SessionId(value);
     }
 
@@ -636,157 +720,41 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
      */
     private void setSessionId(Capabilities capabilities, String sessionId) {
       DesiredCapabilities session = (DesiredCapabilities) capabilities;
-      session.setCapability("webdriver.remote.sessionid", sessionId);
-    }
-
-    /**
-     * A method for retrieving the sessions from remote. The session ID
-     * is used as the key of the Map object whereas the Capabilities (session)
-     * is the value.
-     * 
-     * @return a Map contains remote sessions
-     */
-    private Map<SessionId, Capabilities> getRemoteSessions() {
-      Response response = execute(DriverCommand.GET_ALL_SESSIONS);
-      List<Map<String, Object>> sessionList =
-          (List<Map<String, Object>>) response.getValue();
-
-      // For the ease of use, only useful information (ID and Capabilities)
-      // are extracted from List<Map<String, Capabilities>> and stored in a
-      // Map<String, Capabilities> object
-
-      Map<SessionId, Capabilities> remoteSessions =
-          new HashMap<SessionId, Capabilities>();
-
-      for (Map<String, Object> session : sessionList) {
-        String id = (String) session.get("id"); // Extract ID
-
-        Map<String, Object> rawCapabilities =   // Extract Capabilities
-            (Map<String, Object>) session.get("capabilities");
-        DesiredCapabilities capabilities = new DesiredCapabilities();
-        for (Map.Entry<String, Object> entry : rawCapabilities.entrySet()) {
-          capabilities.setCapability(entry.getKey(), entry.getValue());
-        }
-
-        setSessionId(capabilities, id);         // Set session ID
-        // since returned capabilities doesn't contain session ID
-
-        SessionId sId = new SessionId(id);
-        remoteSessions.put(sId, capabilities);  // Store in session map
-      }
-
-      return remoteSessions;
+      session.setCapability(SessionStore.SESSION_ID, sessionId);
     }
 
     /**
-     * Reads a Capabilities object from specified source
-     * 
-     * @param input the source to read from
-     * @return a Capabilities object
+     * Returns the IDs of the sessions the remote end has. The list is cached per remote end for
+     * the configured time-to-live, instead of being retrieved on every construction.
+     *
+     * @param reload to retrieve the list even if it is cached
+     * @return the IDs of the remote sessions
      */
-    private Capabilities readSession(InputStream input) {
-      Capabilities session = null;
-
-      try (ObjectInputStream reader = new ObjectInputStream(input)) {
-        // chrome issue
-//        Object rawSession = reader.readObject();
-//        if (rawSession instanceof Capabilities) {
-//          session = (Capabilities) rawSession;
-//        }
-
-        Object rawMap = reader.readObject();
-        if (!(rawMap instanceof HashMap)) {
-          throw new ClassNotFoundException();
-        }
-        HashMap<String, Object> map = (HashMap<String, Object>) rawMap;
-        DesiredCapabilities capabilities = new DesiredCapabilities();
-        for (Entry<String, Object> entry : map.entrySet()) {
-          capabilities.setCapability(entry.getKey(), entry.getValue());
-        }
-        session = capabilities;
-      } catch (IOException ioe) {
-//        System.err.println("SessionReader has encountered an IOException!");
-//        System.err.println("[Cause] " + ioe.getCause());
-//        System.err.println("[Message] " + ioe.getMessage());
-      } catch (ClassNotFoundException cnfe) {
-        System.err.println("The session file may have been corrupted.");
+    private Set<SessionId> getRemoteSessions(boolean reload) {
+      String remoteEnd = executor instanceof HttpCommandExecutor
+          ? String.valueOf(((HttpCommandExecutor) executor).getAddressOfRemoteServer())
+          : executor.getClass().getName();
+      if (reload) {
+        remoteSessionCache.invalidate(remoteEnd);
       }
-
-      return session;
-    }
-
-    private Capabilities readSessionFromFile(File sessionFile) {
-      Capabilities session = null;
-      InputStream source = null;
-
       try {
-        source = new BufferedInputStream(new FileInputStream(sessionFile));
-        session = readSession(source);
-      } catch (FileNotFoundException e) {
-      } finally {
-        if (source != null) {
-          try {
-            source.close();
-          } catch (IOException ignored) {}
-        }
-      }
-
-      return session;
-    }
-
-    /**
-     * Saves the session to specified storage
-     * 
-     * @param session to save
-     * @param output the location to save the session
-     * @return true if the session is saved successful
-     */
-    private boolean saveSession(Capabilities session, OutputStream output) {
-      boolean saved = false;
-
-      try (
-          ObjectOutputStream writer = new ObjectOutputStream(output);
-      ) {
-        // chrome issue
-//        writer.writeObject(session);
-        Map<String, Object> sessionMap = new HashMap<String, Object>();
-        System.err.println("[BasilWebDriver.Reusable>saveSession] session == null: " + (session == null));
-        for (Entry<String, ?> entry : session.asMap().entrySet()) {
-          sessionMap.put(entry.getKey(), entry.getValue());
-        }
-        writer.writeObject(sessionMap);
-        saved = true;
-      } catch (IOException ioe) {
-//        System.err.println("SessionWriter has encountered an IOException!");
-//        System.err.println("[Cause] " + ioe.getCause());
-//        System.err.println("[Message] " + ioe.getMessage());
-        saved = false;
-      }
-
-      return saved;
-    }
-
-    private boolean saveSessionToFile(Capabilities session, File file) {
-      boolean saved = false;
-      BufferedOutputStream target = null;
-
-      try {
-        target = new BufferedOutputStream(new FileOutputStream(file));
-        saved = saveSession(session, target);
-      } catch (FileNotFoundException e) {
-      } finally {
-        if (target != null) {
-          try {
-            target.close();
-          } catch (IOException ignored) {}
-        }
+        return remoteSessionCache.get(remoteEnd, new Callable<Set<SessionId>>() {
+          @Override
+          public Set<SessionId> call() {
+            Response response = execute(DriverCommand.GET_ALL_SESSIONS);
+            List<Map<String, Object>> sessionList =
+                (List<Map<String, Object>>) response.getValue();
+
+            ImmutableSet.Builder<SessionId> remoteSessions = ImmutableSet.builder();
+            for (Map<String, Object> session : sessionList) {
+              remoteSessions.add(new SessionId((String) session.get("id")));
+            }
+            return remoteSessions.build();
+          }
+        });
+      } catch (ExecutionException | UncheckedExecutionException e) {
+        throw Throwables.propagate(e.getCause());
       }
-
-      return saved;
-    }
-
-    private boolean deleteSessionFile(File sessionFile) {
-      return sessionFile.delete();
     }
 
     private void reuseSession(Capabilities previousSession) {
@@ -800,65 +768,84 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
     protected void startSession(
       Capabilities desiredCapabilities, Capabilities requiredCapabilities) {
 
-      // Best scenario: There is a match between a local session and a remote
-      // session
+      // Best scenario: a stored session that is still alive and isn't leased by anyone else, the
+      // (possibly cached) remote session list is trusted only after the session answers.
 
-      if (remoteSessions.containsKey(localSessionId)) {
-        String message = "Previous session: \"" + localSessionId + "\""
-            + " found.\nContinuing tests with the existing session.";
-        System.err.println(message);
-
-        reuseSession(localSession);
-
-        return;
+      Capabilities previousSession;
+      while ((previousSession = store.lease(getRemoteSessions(false))) != null) {
+        SessionId previousSessionId = getSessionId(previousSession);
+        try {
+          String title = getSessionInfo(previousSessionId, DriverCommand.GET_TITLE);
+          logger.info("Continuing tests in the previous session \"" + previousSessionId
+              + "\" (" + title + ").");
+          reuseSession(previousSession);
+          return;
+        } catch (WebDriverException wde) {
+          logger.info("The previous session \"" + previousSessionId + "\" has expired.");
+          store.remove(previousSessionId);
+          getRemoteSessions(true);
+        }
       }
+      store.removeExpired(getRemoteSessions(false));
+
+      // Create and store a new session when there is none to reuse
 
-      // There isn't a match between the local session and any remote session
+      super.startSession(desiredCapabilities, requiredCapabilities);
+      DesiredCapabilities session = new DesiredCapabilities(super.capabilities);
+      setSessionId(session, super.sessionId.toString());
+      store.add(session);
+      remoteSessionCache.invalidateAll();
 
-      if (localSession != null) {
-        String message =  "The previous session \"" + localSessionId
-            + "\" has expired.";
-        System.err.println(message);
+      logger.info("The newly-created session \"" + super.sessionId + "\" is stored for reuse.");
+    }
 
-        deleteSessionFile(localSessionFile);
+    /**
+     * A lost session is removed from the store, so no other driver tries to continue in it.
+     */
+    @Override
+    protected void sessionLost() {
+      if (super.sessionId != null) {
+        store.remove(super.sessionId);
       }
+    }
 
-      if (remoteSessions.isEmpty()) {
-        // Create and save the new session when remote has no sessions
-        super.startSession(desiredCapabilities, requiredCapabilities);
-        saveSessionToFile(super.capabilities, localSessionFile);
-
-        String message = "The newly-created session: \"" + super.sessionId
-            +"\" is saved to \"" + localSessionFile + "\".";
-        System.err.println(message);
-      } else {
-        System.err.println("/------------------------------------------------------------------------------/");
-        System.err.println("/----------------- Session-reusable RemoteWebDriver by Li Wan -----------------/");
-        System.err.println("/---------------------------- randyryan@gmail.com -----------------------------/");
-        System.err.println("/------------------------------------------------------------------------------/");
-        System.err.println("Continuing tests in:\n");
-        // Allow user to select a session from remote and save locally
-        int sessionOrder = 1;
-        for (Entry<SessionId, Capabilities> entry : remoteSessions.entrySet()) {
-          System.err.printf("[Session #%d]%n", sessionOrder);
-          System.err.println("Browser: " + entry.getValue().getBrowserName());
-          System.err.println("Session: " + entry.getKey());
-          System.err.println("Webpage: " + getSessionInfo(entry.getKey(), DriverCommand.GET_TITLE));
-          System.err.println("Address: " + getSessionInfo(entry.getKey(), DriverCommand.GET_CURRENT_URL));
-
-          sessionOrder++;
-
-          super.sessionId = entry.getKey();
-          super.capabilities = entry.getValue();
+    @Override
+    public void quit() {
+      SessionId quitSessionId = super.sessionId;
+      try {
+        super.quit();
+      } finally {
+        if (quitSessionId != null) {
+          store.remove(quitSessionId);
         }
-        System.err.println("/------------------------------------------------------------------------------/");
-        System.err.println("/---------------------------- Happy debugging! :D -----------------------------/");
-        System.err.println("/------------------------------------------------------------------------------/");
+      }
+    }
 
-        saveSessionToFile(super.capabilities, localSessionFile);
+    /**
+     * Releases the lease of the session without quitting it, another Reusable driver (of this JVM
+     * or, with a FileSessionStore, of another one) can continue in it from now on. The driver isn't
+     * to be used until it has leased its session again, see leaseSession().
+     */
+    public void releaseSession() {
+      if (super.sessionId != null) {
+        store.release(super.sessionId);
       }
     }
 
+    /**
+     * Leases the session of the driver again, after releaseSession().
+     *
+     * @return false if another driver has leased the session in the meantime
+     */
+    public boolean leaseSession() {
+      return super.sessionId != null
+          && store.lease(ImmutableSet.of(super.sessionId)) != null;
+    }
+
+    /**
+     * Returns the information of the session, a dead session answers with an error (or doesn't
+     * answer at all) and fails with a WebDriverException.
+     */
     private String getSessionInfo(SessionId sessionId, String driverCommand) {
       Command command = new Command(sessionId, driverCommand);
 
@@ -868,7 +855,7 @@ public class BasilWebDriver extends RemoteWebDriver implements WebDriver, Javasc
       } catch (IOException ioe) {}
 
       Object value = null;
-      if (response != null) {
+      if (response != null && Integer.valueOf(ErrorCodes.SUCCESS).equals(response.getStatus())) {
         value = converter.apply(response.getValue());
       }
 
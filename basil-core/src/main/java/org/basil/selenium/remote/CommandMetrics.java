@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+/**
+ * Command Metrics - Counts, errors and latency histograms of the commands executed by
+ * BasilWebDriver, keyed by DriverCommand name. The recorders are lock-free, a command is recorded
+ * with a few atomic increments. Every driver (session) has its own metrics, and the commands of
+ * all sessions are recorded in the global metrics as well, which DriverFactory dumps when the JVM
+ * exits.
+ * Metrics are read through snapshots, the difference of two snapshots covers the commands in
+ * between, for example those of a single test.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 9:24:40 PM
+ */
+public final class CommandMetrics {
+
+  private static final Logger logger = LoggerFactory.getLogger(CommandMetrics.class);
+
+  private static final CommandMetrics global = new CommandMetrics();
+
+  /**
+   * Returns the metrics of the commands of all sessions.
+   */
+  public static CommandMetrics global() {
+    return global;
+  }
+
+  private final ConcurrentMap<String, Recorder> recorders;
+
+  public CommandMetrics() {
+    recorders = new ConcurrentHashMap<String, Recorder>();
+  }
+
+  void record(String command, long latencyNanos, boolean failed) {
+    Recorder recorder = recorders.get(command);
+    if (recorder == null) {
+      Recorder existing = recorders.putIfAbsent(command, recorder = new Recorder());
+      if (existing != null) {
+        recorder = existing;
+      }
+    }
+    recorder.record(latencyNanos, failed);
+  }
+
+  public Snapshot snapshot() {
+    ImmutableMap.Builder<String, CommandStatistics> commands = ImmutableMap.builder();
+    for (Map.Entry<String, Recorder> recorder : recorders.entrySet()) {
+      commands.put(recorder.getKey(), recorder.getValue().snapshot(recorder.getKey()));
+    }
+    return new Snapshot(commands.build());
+  }
+
+  /**
+   * Logs the metrics when the JVM exits, for example at the end of a test suite.
+   */
+  public void dumpOnShutdown(final String title) {
+    Runtime.getRuntime().addShutdownHook(new Thread("basil-command-metrics-dump") {
+      @Override
+      public void run() {
+        Snapshot snapshot = snapshot();
+        if (!snapshot.isEmpty()) {
+          logger.info(title + System.lineSeparator() + snapshot);
+        }
+      }
+    });
+  }
+
+  /**
+   * Lock-free recorder of a command. Latencies are recorded in microseconds into log-linear
+   * buckets, 8 per power of two, so a percentile is accurate within 12.5%.
+   */
+  private static class Recorder {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLongArray buckets = new AtomicLongArray(Buckets.COUNT);
+
+    private void record(long latencyNanos, boolean failed) {
+      count.increment();
+      if (failed) {
+        errors.increment();
+      }
+      totalNanos.add(latencyNanos);
+      buckets.incrementAndGet(Buckets.index(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    private CommandStatistics snapshot(String command) {
+      long[] counts = new long[Buckets.COUNT];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = buckets.get(i);
+      }
+      return new CommandStatistics(command, count.sum(), errors.sum(), totalNanos.sum(), counts);
+    }
+
+  }
+
+  /**
+   * Log-linear bucketing of values: values below 16 have a bucket each, larger values have 8
+   * buckets per power of two.
+   */
+  static final class Buckets {
+    private Buckets() {}
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+
+    static final int COUNT = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    static int index(long value) {
+      if (value < LINEAR_BUCKETS) {
+        return (int) Math.max(value, 0);
+      }
+      int magnitude = 63 - Long.numberOfLeadingZeros(value);
+      int subBucket = (int) ((value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+      return LINEAR_BUCKETS + (magnitude - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowerBound(int index) {
+      if (index < LINEAR_BUCKETS) {
+        return index;
+      }
+      int magnitude = (index - LINEAR_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+      int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+      return (long) (SUB_BUCKETS + subBucket) << (magnitude - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int index) {
+      return index + 1 < COUNT ? lowerBound(index + 1) - 1 : Long.MAX_VALUE;
+    }
+
+  }
+
+  /**
+   * The statistics of a command at the time of a snapshot.
+   */
+  public static final class CommandStatistics {
+
+    private final String command;
+    private final long count;
+    private final long errors;
+    private final long totalNanos;
+    private final long[] buckets;
+
+    CommandStatistics(String command, long count, long errors, long totalNanos, long[] buckets) {
+      this.command = command;
+      this.count = count;
+      this.errors = errors;
+      this.totalNanos = totalNanos;
+      this.buckets = buckets;
+    }
+
+    public String getCommand() {
+      return command;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+      return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public double getMeanMillis() {
+      return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    /**
+     * Returns the latency (in milliseconds) below which the given percentage of the commands
+     * completed, for example getPercentileMillis(95) for the p95.
+     */
+    public double getPercentileMillis(double percentile) {
+      long total = 0;
+      for (long bucket : buckets) {
+        total += bucket;
+      }
+      if (total == 0) {
+        return 0;
+      }
+      long rank = (long) Math.ceil(percentile / 100 * total);
+      long cumulative = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        cumulative += buckets[i];
+        if (cumulative >= Math.max(rank, 1)) {
+          return Buckets.upperBound(i) / 1e3;
+        }
+      }
+      return Buckets.upperBound(buckets.length - 1) / 1e3;
+    }
+
+    /**
+     * Returns the statistics of the commands recorded since the given earlier statistics.
+     */
+    public CommandStatistics minus(CommandStatistics earlier) {
+      long[] counts = buckets.clone();
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] -= earlier.buckets[i];
+      }
+      return new CommandStatistics(command, count - earlier.count, errors - earlier.errors,
+          totalNanos - earlier.totalNanos, counts);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%-28s %8d %6d %10d %8.1f %8.1f %8.1f %8.1f", command, count, errors,
+          getTotalTime(TimeUnit.MILLISECONDS), getMeanMillis(), getPercentileMillis(50),
+          getPercentileMillis(95), getPercentileMillis(99));
+    }
+
+  }
+
+  /**
+   * The statistics of every command at the time of the snapshot.
+   */
+  public static final class Snapshot {
+
+    private final ImmutableMap<String, CommandStatistics> commands;
+
+    Snapshot(ImmutableMap<String, CommandStatistics> commands) {
+      this.commands = commands;
+    }
+
+    public ImmutableMap<String, CommandStatistics> getCommands() {
+      return commands;
+    }
+
+    /**
+     * Returns the statistics of the command, or null if it hasn't been executed.
+     */
+    public CommandStatistics getCommand(String command) {
+      return commands.get(command);
+    }
+
+    public boolean isEmpty() {
+      return commands.isEmpty();
+    }
+
+    /**
+     * Returns the snapshot of the commands executed since the given earlier snapshot.
+     */
+    public Snapshot minus(Snapshot earlier) {
+      ImmutableMap.Builder<String, CommandStatistics> difference = ImmutableMap.builder();
+      for (CommandStatistics statistics : commands.values()) {
+        CommandStatistics earlierStatistics = earlier.getCommand(statistics.getCommand());
+        CommandStatistics since =
+            earlierStatistics == null ? statistics : statistics.minus(earlierStatistics);
+        if (since.getCount() > 0) {
+          difference.put(since.getCommand(), since);
+        }
+      }
+      return new Snapshot(difference.build());
+    }
+
+    /**
+     * Returns a table of the commands, the most time-consuming first.
+     */
+    @Override
+    public String toString() {
+      List<CommandStatistics> statistics = Lists.newArrayList(commands.values());
+      Collections.sort(statistics, new Comparator<CommandStatistics>() {
+        @Override
+        public int compare(CommandStatistics statistics1, CommandStatistics statistics2) {
+          return Long.compare(statistics2.totalNanos, statistics1.totalNanos);
+        }
+      });
+      StringBuilder table = new StringBuilder(String.format(
+          "%-28s %8s %6s %10s %8s %8s %8s %8s", "Command", "Count", "Errors", "Total (ms)",
+          "Mean", "p50", "p95", "p99"));
+      for (CommandStatistics command : statistics) {
+        table.append(System.lineSeparator()).append(command);
+      }
+      return table.toString();
+    }
+
+  }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.BeanToJsonConverter;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.JsonToBeanConverter;
+import org.openqa.selenium.remote.SessionId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * File Session Store - Keeps every session in a JSON file of its own in a directory, the sessions
+ * outlive the JVM. A session is leased by locking its lock file, so the sessions are leased to one
+ * thread of one JVM at a time, and the lease ends at the latest when the JVM exits.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 8:20:48 PM
+ */
+public class FileSessionStore implements SessionStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(FileSessionStore.class);
+
+  private static final String SESSION_EXTENSION = ".session";
+  private static final String LOCK_EXTENSION = ".lock";
+
+  private final File directory;
+  private final Map<SessionId, FileLock> locks; // The leases of this JVM
+
+  public FileSessionStore(File directory) {
+    this.directory = directory;
+    this.locks = new ConcurrentHashMap<SessionId, FileLock>();
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      logger.warn("Unable to create the session directory " + directory);
+    }
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  @Override
+  public Capabilities lease(Set<SessionId> liveSessions) {
+    for (File sessionFile : sessionFiles()) {
+      SessionId sessionId = sessionId(sessionFile);
+      if (!liveSessions.contains(sessionId) || !lock(sessionId)) {
+        continue;
+      }
+      Capabilities session = read(sessionFile);
+      if (session != null) {
+        return session;
+      }
+      release(sessionId); // Removed in the meantime
+    }
+    return null;
+  }
+
+  @Override
+  public void add(Capabilities session) {
+    SessionId sessionId = new SessionId((String) session.getCapability(SESSION_ID));
+    lock(sessionId);
+    write(session, sessionFile(sessionId));
+  }
+
+  @Override
+  public void release(SessionId sessionId) {
+    FileLock lock = locks.remove(sessionId);
+    if (lock == null) {
+      return;
+    }
+    try {
+      lock.release();
+      lock.channel().close();
+    } catch (IOException ioe) {
+      logger.warn("Unable to release the lock of the session " + sessionId, ioe);
+    }
+  }
+
+  /**
+   * Deletes the lock file while still holding the lock, unlike after releasing it, when another
+   * JVM could lock the old file while a third one creates a new one. A JVM that has opened the old
+   * file before it was deleted locks it in vain, the session file is gone already.
+   */
+  @Override
+  public void remove(SessionId sessionId) {
+    sessionFile(sessionId).delete();
+    if (locks.containsKey(sessionId)) {
+      lockFile(sessionId).delete();
+    }
+    release(sessionId);
+  }
+
+  @Override
+  public void removeExpired(Set<SessionId> liveSessions) {
+    for (File sessionFile : sessionFiles()) {
+      SessionId sessionId = sessionId(sessionFile);
+      if (!liveSessions.contains(sessionId) && lock(sessionId)) {
+        logger.info("The stored session " + sessionId + " has expired.");
+        remove(sessionId);
+      }
+    }
+  }
+
+  // Locking
+
+  /**
+   * Locks the lock file of the session, unless this or another JVM holds the lock already.
+   */
+  private synchronized boolean lock(SessionId sessionId) {
+    if (locks.containsKey(sessionId)) {
+      return false;
+    }
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(lockFile(sessionId).toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock lock = channel.tryLock();
+      if (lock != null) {
+        locks.put(sessionId, lock);
+        return true;
+      }
+    } catch (IOException | OverlappingFileLockException e) {
+      logger.debug("Unable to lock the session " + sessionId + ": " + e.getMessage());
+    }
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException ignored) {}
+    }
+    return false;
+  }
+
+  // Files
+
+  private File[] sessionFiles() {
+    File[] sessionFiles = directory.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File directory, String name) {
+        return name.endsWith(SESSION_EXTENSION);
+      }
+    });
+    return sessionFiles != null ? sessionFiles : new File[0];
+  }
+
+  private File sessionFile(SessionId sessionId) {
+    return new File(directory, sessionId + SESSION_EXTENSION);
+  }
+
+  private File lockFile(SessionId sessionId) {
+    return new File(directory, sessionId + LOCK_EXTENSION);
+  }
+
+  private static SessionId sessionId(File sessionFile) {
+    String name = sessionFile.getName();
+    return new SessionId(name.substring(0, name.length() - SESSION_EXTENSION.length()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Capabilities read(File sessionFile) {
+    try {
+      String json = new String(Files.readAllBytes(sessionFile.toPath()), StandardCharsets.UTF_8);
+      return new DesiredCapabilities(new JsonToBeanConverter().convert(Map.class, json));
+    } catch (IOException ioe) {
+      return null;
+    } catch (RuntimeException re) {
+      logger.warn("The session file " + sessionFile + " may have been corrupted.");
+      return null;
+    }
+  }
+
+  /**
+   * Writes to a temporary file first, so that a reader never sees a partially written session.
+   */
+  private void write(Capabilities session, File sessionFile) {
+    try {
+      File temporaryFile = File.createTempFile("session", ".tmp", directory);
+      String json = new BeanToJsonConverter().convert(session.asMap());
+      Files.write(temporaryFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+      Files.move(temporaryFile.toPath(), sessionFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ioe) {
+      logger.warn("Unable to save the session to " + sessionFile, ioe);
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.internal.JsonToWebElementConverter;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * Interning Element Converter - Converts the element references of a response to the canonical
+ * element of the ID, the same element is returned as the same instance for as long as it's
+ * referenced, so identity-based caches work and repeated finds allocate no elements. The elements
+ * are weakly held and scoped to the session of the driver, they are dropped when the session
+ * changes.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 11:02:39 PM
+ */
+public class InterningElementConverter extends JsonToWebElementConverter {
+
+  private static final String ELEMENT = "ELEMENT";
+  private static final String W3C_ELEMENT = "element-6066-11e4-a52e-4f735466cecf";
+
+  private final RemoteWebDriver driver;
+  private final ConcurrentMap<String, RemoteWebElement> elements;
+  private volatile SessionId sessionId;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public InterningElementConverter(RemoteWebDriver driver) {
+    super(driver);
+    this.driver = driver;
+    this.elements = new MapMaker().weakValues().makeMap();
+  }
+
+  @Override
+  public Object apply(Object result) {
+    if (result instanceof Map<?, ?>) {
+      Map<?, ?> map = (Map<?, ?>) result;
+      Object id = map.containsKey(ELEMENT) ? map.get(ELEMENT) : map.get(W3C_ELEMENT);
+      if (id != null) {
+        return intern(String.valueOf(id));
+      }
+    }
+    return super.apply(result); // Converts the elements of collections and maps through apply()
+  }
+
+  private RemoteWebElement intern(String id) {
+    SessionId currentSessionId = driver.getSessionId();
+    if (currentSessionId != null && !currentSessionId.equals(sessionId)) {
+      elements.clear(); // The IDs of the previous session mean nothing to the current one
+      sessionId = currentSessionId;
+    }
+    RemoteWebElement element = elements.get(id);
+    if (element != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+      RemoteWebElement newElement = newRemoteWebElement();
+      newElement.setId(id);
+      element = elements.putIfAbsent(id, newElement);
+      if (element == null) {
+        element = newElement;
+      }
+    }
+    element.setFileDetector(driver.getFileDetector());
+    return element;
+  }
+
+  /**
+   * Returns the number of element references converted to an already interned element.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of element references converted to a new element.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public double getHitRate() {
+    long hits = getHits();
+    long total = hits + getMisses();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Returns the number of interned elements that are still referenced.
+   */
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("InterningElementConverter {hits=%d, misses=%d, hit rate=%.1f%%}",
+        getHits(), getMisses(), getHitRate() * 100);
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.SessionId;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Memory Session Store - Keeps the sessions for the lifetime of the JVM, the sessions are leased
+ * to one thread at a time.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 8:12:06 PM
+ */
+public class MemorySessionStore implements SessionStore {
+
+  private final Map<SessionId, Capabilities> sessions;
+  private final Set<SessionId> leasedSessions;
+
+  public MemorySessionStore() {
+    sessions = new ConcurrentHashMap<SessionId, Capabilities>();
+    leasedSessions = Sets.newConcurrentHashSet();
+  }
+
+  @Override
+  public Capabilities lease(Set<SessionId> liveSessions) {
+    for (Map.Entry<SessionId, Capabilities> session : sessions.entrySet()) {
+      if (liveSessions.contains(session.getKey()) && leasedSessions.add(session.getKey())) {
+        return session.getValue();
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void add(Capabilities session) {
+    SessionId sessionId = new SessionId((String) session.getCapability(SESSION_ID));
+    leasedSessions.add(sessionId);
+    sessions.put(sessionId, session);
+  }
+
+  @Override
+  public void release(SessionId sessionId) {
+    leasedSessions.remove(sessionId);
+  }
+
+  @Override
+  public void remove(SessionId sessionId) {
+    sessions.remove(sessionId);
+    leasedSessions.remove(sessionId);
+  }
+
+  @Override
+  public void removeExpired(Set<SessionId> liveSessions) {
+    for (SessionId sessionId : sessions.keySet()) {
+      if (!liveSessions.contains(sessionId) && !leasedSessions.contains(sessionId)) {
+        sessions.remove(sessionId);
+      }
+    }
+  }
+
+}
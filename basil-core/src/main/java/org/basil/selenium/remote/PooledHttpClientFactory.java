@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.basil.Config;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.internal.ApacheHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pooled HTTP Client Factory - The clients share a bounded pool of persistent connections, so the
+ * commands of all drivers reuse the connections to the remote ends instead of setting up their
+ * own. Responses are gzip compressed if the remote end supports it.
+ *
+ * Unlike the clients of Selenium, closing a client (on quitting a driver) doesn't close the idle
+ * connections of the other drivers, idle connections are closed after the keep-alive time.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 10:08:26 PM
+ */
+public final class PooledHttpClientFactory implements HttpClient.Factory {
+
+  private static final Logger logger = LoggerFactory.getLogger(PooledHttpClientFactory.class);
+
+  private static PooledHttpClientFactory defaultFactory;
+
+  /**
+   * Returns the factory configured by "web.driver.http", shared by the drivers of the JVM.
+   */
+  public static synchronized PooledHttpClientFactory getDefault() {
+    if (defaultFactory == null) {
+      defaultFactory = new PooledHttpClientFactory(
+          (int) Config.WEB_DRIVER_HTTP_CONNECTIONS_TOTAL,
+          (int) Config.WEB_DRIVER_HTTP_CONNECTIONS_HOST,
+          TimeUnit.SECONDS.toMillis(Config.WEB_DRIVER_HTTP_TIMEOUT_CONNECT),
+          TimeUnit.SECONDS.toMillis(Config.WEB_DRIVER_HTTP_TIMEOUT_READ),
+          TimeUnit.SECONDS.toMillis(Config.WEB_DRIVER_HTTP_KEEPALIVE));
+    }
+    return defaultFactory;
+  }
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient client;
+
+  /**
+   * @param maxConnections the maximum number of connections to all hosts
+   * @param maxConnectionsPerHost the maximum number of connections to a host
+   * @param connectTimeout the milliseconds to wait for a connection, either from the pool or to
+   *        the host
+   * @param readTimeout the milliseconds to wait for a response
+   * @param keepAlive the milliseconds to keep an idle connection, unless the host says otherwise
+   */
+  public PooledHttpClientFactory(int maxConnections, int maxConnectionsPerHost,
+      long connectTimeout, long readTimeout, final long keepAlive) {
+    connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+    connectionManager.setDefaultSocketConfig(SocketConfig.custom()
+        .setTcpNoDelay(true)
+        .setSoTimeout((int) readTimeout)
+        .build());
+
+    client = HttpClientBuilder.create()
+        .setConnectionManager(connectionManager)
+        .setConnectionManagerShared(true) // Kept open when a client is closed
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout((int) connectTimeout)
+            .setConnectTimeout((int) connectTimeout)
+            .setSocketTimeout((int) readTimeout)
+            .build())
+        .setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+          @Override
+          public long getKeepAliveDuration(org.apache.http.HttpResponse response,
+              HttpContext context) {
+            HeaderElementIterator iterator =
+                new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (iterator.hasNext()) {
+              HeaderElement element = iterator.nextElement();
+              if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                  return Math.min(Long.parseLong(element.getValue()) * 1000, keepAlive);
+                } catch (NumberFormatException ignored) {}
+              }
+            }
+            return keepAlive;
+          }
+        })
+        .evictExpiredConnections()
+        .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  @Override
+  public HttpClient createClient(URL url) {
+    if (url.getUserInfo() != null) {
+      // The pooled client has no credentials, a URL with credentials gets a client of its own
+      return new ApacheHttpClient.Factory().createClient(url);
+    }
+    return new PooledHttpClient(new ApacheHttpClient(client, url));
+  }
+
+  /**
+   * Returns the number of leased, available and pending connections of all hosts.
+   */
+  public PoolStats getStats() {
+    return connectionManager.getTotalStats();
+  }
+
+  /**
+   * Closes all connections, the clients can't be used afterwards.
+   */
+  public void shutdown() {
+    try {
+      client.close();
+    } catch (IOException ioe) {
+      logger.warn("Unable to close the HTTP client.", ioe);
+    }
+    connectionManager.shutdown();
+  }
+
+  @Override
+  public String toString() {
+    return "PooledHttpClientFactory " + getStats();
+  }
+
+  /**
+   * A client sharing the connections, closing it leaves the connections to the pool.
+   */
+  private static class PooledHttpClient implements HttpClient {
+
+    private final HttpClient client;
+
+    private PooledHttpClient(HttpClient client) {
+      this.client = client;
+    }
+
+    @Override
+    public HttpResponse execute(HttpRequest request, boolean followRedirects)
+        throws IOException {
+      return client.execute(request, followRedirects);
+    }
+
+    @Override
+    public void close() {}
+
+  }
+
+}
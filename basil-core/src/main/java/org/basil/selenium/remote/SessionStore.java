@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.Set;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.SessionId;
+
+/**
+ * Session Store - Keeps the sessions of BasilWebDriver.Reusable for later reuse. A stored session
+ * is leased to one driver at a time, across threads and, depending on the store, across JVMs.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 8:05:33 PM
+ */
+public interface SessionStore {
+
+  /**
+   * The capability holding the session ID of a stored session.
+   */
+  String SESSION_ID = "webdriver.remote.sessionid";
+
+  /**
+   * Leases a stored session that is among the live sessions and isn't leased already.
+   *
+   * @param liveSessions the sessions the remote end has
+   * @return the capabilities of the leased session, or null if there isn't one to lease
+   */
+  Capabilities lease(Set<SessionId> liveSessions);
+
+  /**
+   * Stores a new session, which is leased to the caller.
+   */
+  void add(Capabilities session);
+
+  /**
+   * Releases the lease of the session, another driver can lease it from now on.
+   */
+  void release(SessionId sessionId);
+
+  /**
+   * Removes the session, which is expired or has been quit.
+   */
+  void remove(SessionId sessionId);
+
+  /**
+   * Removes the stored sessions that are not among the live sessions and aren't leased.
+   */
+  void removeExpired(Set<SessionId> liveSessions);
+
+}
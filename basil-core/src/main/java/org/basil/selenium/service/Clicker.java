@@ -3,6 +3,7 @@
  */
 package org.basil.selenium.service;
 
+import org.basil.selenium.ui.Deadline;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
@@ -91,7 +92,8 @@ public interface Clicker {
   }
 
   /**
-   * Click repetitively until the incoming condition is satisfied or timed out.
+   * Click repetitively until the incoming condition is satisfied or timed out, or the deadline it's
+   * nested in passes.
    *
    * The method signature is weird but works with both ExpectedCondition and ExtendedCondition.
    */
@@ -127,7 +129,10 @@ public interface Clicker {
           } else if (result != null) {
             break;
           }
-          Sleeper.sleepSilently(interval);
+          if (Deadline.isPassed()) {
+            break; // The wait it's nested in has given up already
+          }
+          Sleeper.sleepSilently(Deadline.clip(interval));
         }
       }
     };
@@ -0,0 +1,509 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Location Path - The parsed form of an XPath location path like "//div[@id='main']/span[2]", an
+ * immutable list of steps, where "//" is the step "descendant-or-self::node()" as the XPath
+ * specification defines it. The questions about a locator, like whether it contains a specific ID,
+ * are answered by the steps and their predicates instead of by searching the expression.
+ *
+ * Only location paths are parsed, other expressions like unions and filter expressions are not.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 11:48:12 PM
+ */
+public final class LocationPath {
+
+  private static final ImmutableSet<String> AXES = ImmutableSet.of("ancestor", "ancestor-or-self",
+      "attribute", "child", "descendant", "descendant-or-self", "following", "following-sibling",
+      "namespace", "parent", "preceding", "preceding-sibling", "self");
+
+  private static final ImmutableSet<String> NODE_TYPES =
+      ImmutableSet.of("node", "text", "comment", "processing-instruction");
+
+  private static final Step DESCENDANT_OR_SELF =
+      new Step("descendant-or-self", "node()", ImmutableList.<Predicate>of(), false);
+  private static final Step SELF = new Step("self", "node()", ImmutableList.<Predicate>of(), false);
+  private static final Step PARENT =
+      new Step("parent", "node()", ImmutableList.<Predicate>of(), false);
+  private static final Step HTML = new Step("child", "html", ImmutableList.<Predicate>of(), false);
+
+  private static final Cache<String, Optional<LocationPath>> paths =
+      CacheBuilder.newBuilder().maximumSize(10000).build();
+
+  /**
+   * Returns the parsed location path of the expression, the same instance for the same expression,
+   * or null if the expression isn't a location path.
+   */
+  public static LocationPath of(String expression) {
+    Optional<LocationPath> path = paths.getIfPresent(expression);
+    if (path == null) {
+      try {
+        path = Optional.of(parse(expression));
+      } catch (IllegalArgumentException iae) {
+        path = Optional.absent();
+      }
+      paths.put(expression, path);
+    }
+    return path.orNull();
+  }
+
+  /**
+   * Parses the location path.
+   *
+   * @throws IllegalArgumentException if the expression isn't a location path
+   */
+  public static LocationPath parse(String expression) {
+    return new Parser(expression).parse();
+  }
+
+  private final String expression;
+  private final boolean absolute;
+  private final ImmutableList<Step> steps;
+
+  private LocationPath(String expression, boolean absolute, ImmutableList<Step> steps) {
+    this.expression = expression;
+    this.absolute = absolute;
+    this.steps = steps;
+  }
+
+  public boolean isAbsolute() {
+    return absolute;
+  }
+
+  public ImmutableList<Step> getSteps() {
+    return steps;
+  }
+
+  /**
+   * Returns true if the first step names its axis, like "preceding-sibling::a".
+   */
+  public boolean hasExplicitAxis() {
+    return !absolute && !steps.isEmpty() && steps.get(0).explicitAxis;
+  }
+
+  /**
+   * Returns true if a step is restricted to elements with a specific value of the attribute, like
+   * "[@id='main']", as opposed to "[@id]" or "[contains(@id, 'main')]".
+   */
+  public boolean hasAttribute(String name) {
+    for (Step step : steps) {
+      for (Predicate predicate : step.predicates) {
+        if (predicate.attributes.containsKey(name)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the location path selects the document element, like "/html", "//html" and
+   * ".//html" do.
+   */
+  public boolean isDocumentElement() {
+    if (absolute) {
+      return steps.equals(ImmutableList.of(HTML))
+          || steps.equals(ImmutableList.of(DESCENDANT_OR_SELF, HTML));
+    }
+    return steps.equals(ImmutableList.of(SELF, DESCENDANT_OR_SELF, HTML));
+  }
+
+  /**
+   * Returns true if the steps of this location path begin with all the steps of the other one.
+   */
+  public boolean startsWith(LocationPath prefix) {
+    return absolute == prefix.absolute
+        && !prefix.steps.isEmpty()
+        && steps.size() >= prefix.steps.size()
+        && steps.subList(0, prefix.steps.size()).equals(prefix.steps);
+  }
+
+  /**
+   * Returns the location path in the abbreviated syntax, like "@id" for "attribute::id", ".." for
+   * "parent::node()" and "//" for "/descendant-or-self::node()/".
+   */
+  public String abbreviate() {
+    StringBuilder sb = new StringBuilder(absolute ? "/" : "");
+    for (int i = 0; i < steps.size(); i++) {
+      Step step = steps.get(i);
+      boolean separated = sb.length() == 0 || sb.charAt(sb.length() - 1) == '/';
+      if (step.equals(DESCENDANT_OR_SELF) && i + 1 < steps.size()) {
+        sb.append(separated ? "/" : "//");
+      } else {
+        sb.append(separated ? "" : "/").append(step.abbreviate());
+      }
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(absolute, steps);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof LocationPath) {
+      LocationPath path = (LocationPath) object;
+      return absolute == path.absolute && steps.equals(path.steps);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+
+  /**
+   * A step, the axis, the node test and the predicates.
+   */
+  public static final class Step {
+
+    private final String axis;
+    private final String nodeTest;
+    private final ImmutableList<Predicate> predicates;
+    private final boolean explicitAxis;
+
+    private Step(String axis, String nodeTest, ImmutableList<Predicate> predicates,
+        boolean explicitAxis) {
+      this.axis = axis;
+      this.nodeTest = nodeTest;
+      this.predicates = predicates;
+      this.explicitAxis = explicitAxis;
+    }
+
+    public String getAxis() {
+      return axis;
+    }
+
+    public String getNodeTest() {
+      return nodeTest;
+    }
+
+    public ImmutableList<Predicate> getPredicates() {
+      return predicates;
+    }
+
+    public String abbreviate() {
+      StringBuilder sb = new StringBuilder();
+      if (predicates.isEmpty() && nodeTest.equals("node()") && axis.equals("self")) {
+        return ".";
+      } else if (predicates.isEmpty() && nodeTest.equals("node()") && axis.equals("parent")) {
+        return "..";
+      } else if (axis.equals("child")) {
+        sb.append(nodeTest);
+      } else if (axis.equals("attribute")) {
+        sb.append("@").append(nodeTest);
+      } else {
+        sb.append(axis).append("::").append(nodeTest);
+      }
+      for (Predicate predicate : predicates) {
+        sb.append("[").append(predicate).append("]");
+      }
+      return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(axis, nodeTest, predicates);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (object == this) {
+        return true;
+      }
+      if (object instanceof Step) {
+        Step step = (Step) object;
+        return axis.equals(step.axis) && nodeTest.equals(step.nodeTest)
+            && predicates.equals(step.predicates);
+      }
+      return false;
+    }
+
+    @Override
+    public String toString() {
+      return abbreviate();
+    }
+
+  }
+
+  /**
+   * A predicate, which keeps the expression as it is, along with the attribute values it requires,
+   * like "@id='main'" or "@id='main' and @name='main'" do.
+   */
+  public static final class Predicate {
+
+    private static final Pattern ATTRIBUTE_EQUALS =
+        Pattern.compile("@([\\w.:-]+)\\s*=\\s*('[^']*'|\"[^\"]*\")");
+    private static final Pattern EQUALS_ATTRIBUTE =
+        Pattern.compile("('[^']*'|\"[^\"]*\")\\s*=\\s*@([\\w.:-]+)");
+
+    private final String expression;
+    private final ImmutableMap<String, String> attributes;
+
+    private Predicate(String expression) {
+      this.expression = expression.trim();
+      Map<String, String> attributes = Maps.newLinkedHashMap();
+      for (String conjunct : Parser.splitConjuncts(this.expression)) {
+        Matcher matcher = ATTRIBUTE_EQUALS.matcher(conjunct);
+        if (matcher.matches()) {
+          attributes.put(matcher.group(1), unquote(matcher.group(2)));
+          continue;
+        }
+        matcher = EQUALS_ATTRIBUTE.matcher(conjunct);
+        if (matcher.matches()) {
+          attributes.put(matcher.group(2), unquote(matcher.group(1)));
+        }
+      }
+      this.attributes = ImmutableMap.copyOf(attributes);
+    }
+
+    private static String unquote(String literal) {
+      return literal.substring(1, literal.length() - 1);
+    }
+
+    /**
+     * Returns the attribute values the predicate requires, by attribute name.
+     */
+    public ImmutableMap<String, String> getAttributes() {
+      return attributes;
+    }
+
+    @Override
+    public int hashCode() {
+      return expression.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      return object instanceof Predicate && expression.equals(((Predicate) object).expression);
+    }
+
+    @Override
+    public String toString() {
+      return expression;
+    }
+
+  }
+
+  /**
+   * A recursive descent parser of the location paths of XPath 1.0. The predicates are not parsed
+   * beyond the attribute values they require.
+   */
+  private static class Parser {
+
+    private final String expression;
+    private int position;
+
+    private Parser(String expression) {
+      this.expression = expression.trim();
+    }
+
+    private LocationPath parse() {
+      boolean absolute = false;
+      List<Step> steps = Lists.newArrayList();
+      if (consume("//")) {
+        absolute = true;
+        steps.add(DESCENDANT_OR_SELF);
+      } else if (consume("/")) {
+        absolute = true;
+        if (atEnd()) {
+          return new LocationPath(expression, true, ImmutableList.<Step>of()); // The root
+        }
+      }
+      steps.add(step());
+      while (!atEnd()) {
+        if (consume("//")) {
+          steps.add(DESCENDANT_OR_SELF);
+        } else if (!consume("/")) {
+          throw error("'/' expected");
+        }
+        steps.add(step());
+      }
+      return new LocationPath(expression, absolute, ImmutableList.copyOf(steps));
+    }
+
+    private Step step() {
+      skipWhitespace();
+      if (consume("..")) {
+        return PARENT;
+      }
+      if (consume(".")) {
+        return SELF;
+      }
+
+      String axis = "child";
+      boolean explicitAxis = false;
+      if (consume("@")) {
+        axis = "attribute";
+      } else {
+        int start = position;
+        String name = name();
+        skipWhitespace();
+        if (AXES.contains(name) && consume("::")) {
+          axis = name;
+          explicitAxis = true;
+        } else {
+          position = start;
+        }
+      }
+
+      String nodeTest = nodeTest();
+      ImmutableList.Builder<Predicate> predicates = ImmutableList.builder();
+      skipWhitespace();
+      while (consume("[")) {
+        predicates.add(new Predicate(predicate()));
+        skipWhitespace();
+      }
+      return new Step(axis, nodeTest, predicates.build(), explicitAxis);
+    }
+
+    private String nodeTest() {
+      skipWhitespace();
+      if (consume("*")) {
+        return "*";
+      }
+      String name = name();
+      if (name.isEmpty()) {
+        throw error("node test expected");
+      }
+      if (lookingAt(":") && !lookingAt("::")) {
+        position++;
+        return name + ":" + (consume("*") ? "*" : name());
+      }
+      int start = position;
+      skipWhitespace();
+      if (NODE_TYPES.contains(name) && consume("(")) {
+        int end = expression.indexOf(')', position);
+        if (end < 0) {
+          throw error("')' expected");
+        }
+        String argument = expression.substring(position, end).trim();
+        position = end + 1;
+        return name + "(" + argument + ")";
+      }
+      position = start;
+      return name;
+    }
+
+    /**
+     * Returns the expression of the predicate, the opening bracket has been consumed.
+     */
+    private String predicate() {
+      int start = position;
+      int depth = 0;
+      char quote = 0;
+      for (; position < expression.length(); position++) {
+        char c = expression.charAt(position);
+        if (quote != 0) {
+          quote = c == quote ? 0 : quote;
+        } else if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (c == '[') {
+          depth++;
+        } else if (c == ']' && depth-- == 0) {
+          return expression.substring(start, position++);
+        }
+      }
+      throw error("']' expected");
+    }
+
+    private String name() {
+      int start = position;
+      while (position < expression.length()) {
+        char c = expression.charAt(position);
+        if (Character.isLetterOrDigit(c) || c == '_' || c == '-'
+            || (c == '.' && position > start)) {
+          position++;
+        } else {
+          break;
+        }
+      }
+      return expression.substring(start, position);
+    }
+
+    /**
+     * Splits the expression at the top-level "and" operators.
+     */
+    private static List<String> splitConjuncts(String expression) {
+      List<String> conjuncts = Lists.newArrayList();
+      int start = 0;
+      int depth = 0;
+      char quote = 0;
+      for (int i = 0; i < expression.length(); i++) {
+        char c = expression.charAt(i);
+        if (quote != 0) {
+          quote = c == quote ? 0 : quote;
+        } else if (c == '\'' || c == '"') {
+          quote = c;
+        } else if (c == '[' || c == '(') {
+          depth++;
+        } else if (c == ']' || c == ')') {
+          depth--;
+        } else if (depth == 0 && Character.isWhitespace(c)
+            && expression.startsWith("and", i + 1) && i + 4 < expression.length()
+            && Character.isWhitespace(expression.charAt(i + 4))) {
+          conjuncts.add(expression.substring(start, i).trim());
+          start = i + 4;
+        }
+      }
+      conjuncts.add(expression.substring(start).trim());
+      return conjuncts;
+    }
+
+    private boolean consume(String token) {
+      if (lookingAt(token)) {
+        position += token.length();
+        return true;
+      }
+      return false;
+    }
+
+    private boolean lookingAt(String token) {
+      return expression.startsWith(token, position);
+    }
+
+    private boolean atEnd() {
+      skipWhitespace();
+      return position >= expression.length();
+    }
+
+    private void skipWhitespace() {
+      while (position < expression.length()
+          && Character.isWhitespace(expression.charAt(position))) {
+        position++;
+      }
+    }
+
+    private IllegalArgumentException error(String message) {
+      return new IllegalArgumentException("Not a location path, " + message + " at " + position
+          + ": " + expression);
+    }
+
+  }
+
+}
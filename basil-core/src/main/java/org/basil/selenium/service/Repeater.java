@@ -4,10 +4,19 @@
 
 package org.basil.selenium.service;
 
+import static org.basil.Config.WAIT_POLLING;
+
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Set;
-
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.base.DriverUtil;
+import org.basil.selenium.base.SessionErrors;
+import org.basil.selenium.ui.Deadline;
+import org.basil.selenium.ui.PollingSchedule;
+import org.basil.selenium.ui.PollingStrategies;
+import org.basil.selenium.ui.PollingStrategy;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.interactions.Action;
@@ -39,6 +48,8 @@ public class Repeater {
   private Duration timeout;
   private Duration interval;
 
+  private PollingStrategy polling;
+
   private Set<Class<? extends Throwable>> ignoredExceptions = Sets.newHashSet();
 
   public Repeater(Action action) {
@@ -78,6 +89,20 @@ public class Repeater {
     return this;
   }
 
+  /**
+   * Sets the strategy that tells how long to sleep between the repetitions, the interval is what
+   * the strategy scales, see PollingStrategies. Defaults to the one of "wait.polling" with a
+   * timeout, and to the fixed one with times, so the action is repeated every interval.
+   */
+  public Repeater polling(PollingStrategy polling) {
+    this.polling = Preconditions.checkNotNull(polling);
+    return this;
+  }
+
+  /**
+   * Ignores the exception while repeating, except for the ones telling the session is lost, see
+   * SessionErrors.
+   */
   public Repeater ignore(Class<? extends Throwable> ignoredException) {
     ignoredExceptions.add(ignoredException);
     return this;
@@ -106,17 +131,39 @@ public class Repeater {
     return until(condition, input);
   }
 
+  /**
+   * Repeats until the condition is satisfied, the times are up or the timeout elapses, which is
+   * clipped to the deadline the repeater is nested in. The waits nested in the condition (and the
+   * action) are clipped to the timeout, or to the deadline with times.
+   */
   public <S extends SearchContext, V> V until(Function<S, V> condition, S input) {
     Scheduler scheduler = new Scheduler();
+    Deadline deadline = Deadline.open(String.valueOf(condition),
+        scheduler.budget == null ? Long.MAX_VALUE : scheduler.budget.toMillis(),
+        TimeUnit.MILLISECONDS);
+    try {
+      return until(condition, input, scheduler);
+    } finally {
+      deadline.close();
+    }
+  }
+
+  private <S extends SearchContext, V> V until(Function<S, V> condition, S input,
+      Scheduler scheduler) {
+    PollingSchedule schedule = new PollingSchedule(
+        polling != null ? polling : timeout != null ? WAIT_POLLING : PollingStrategies.fixed(),
+        condition, scheduler.budget == null ? 0 : scheduler.budget.toMillis());
     Throwable lastException = null;
     while (true) {
       try {
         V value = condition.apply(input);
         if (value instanceof Boolean) {
           if (value.equals(Boolean.TRUE)) {
+            schedule.satisfied();
             return value;
           }
         } else if (value != null) {
+          schedule.satisfied();
           return value;
         }
 
@@ -127,6 +174,10 @@ public class Repeater {
               "The input %s cannot be used with condition %s, Please specify a condition does not " +
               "use input or specify a valid input for this condition.", input, condition));
         }
+        if (throwable instanceof RuntimeException && SessionErrors.isFatal(throwable)) {
+          throw SessionErrors.abort((RuntimeException) throwable, DriverUtil.getDriver(context),
+              scheduler.getRemainingMillis());
+        }
         lastException = propagateIfUnignored(throwable);
       }
 
@@ -136,21 +187,27 @@ public class Repeater {
         break;
       }
 
-      Sleeper.sleepSilently(interval); // The action should be performed in the end because
-      action.perform(); // it has already performed once before the creation of this Repeater.
+      // The action should be performed in the end because it has already performed once before
+      // the creation of this Repeater.
+      Sleeper.sleepSilently(Duration.ofMillis(schedule.next(interval.toMillis())));
+      action.perform();
     }
+    schedule.timedOut();
     throw new TimeoutException(lastException);
   }
 
   public class Scheduler {
 
     private Instant start;
+    private Duration budget;
     private Counter count;
+    private int repetitions;
 
     private Scheduler() {
       checkState();
       if (timeout != null) {
         start = Instant.now();
+        budget = Duration.ofMillis(Deadline.clip(timeout.toMillis()));
       } else {
         count = Counter.countTo(times);
       }
@@ -165,16 +222,27 @@ public class Repeater {
     }
 
     public void interruptIfTimesOut() throws InterruptedException {
-      if ((start != null && Instant.now().isAfter(start.plus(timeout))) ||
-          (count != null && count.isOnTarget())) {
+      if ((start != null && Instant.now().isAfter(start.plus(budget))) ||
+          (count != null && count.isOnTarget()) || Deadline.isPassed()) {
         throw new InterruptedException();
       } else {
         if (count != null) {
           count.count();
+          repetitions++;
         }
       }
     }
 
+    /**
+     * Returns the time left of the timeout, or of the repetitions left with times.
+     */
+    long getRemainingMillis() {
+      if (start != null) {
+        return budget.toMillis() - Duration.between(start, Instant.now()).toMillis();
+      }
+      return (times - repetitions) * interval.toMillis();
+    }
+
   }
 
 }
@@ -6,6 +6,7 @@ package org.basil.selenium.service;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.basil.selenium.base.BaseContext;
 import org.basil.selenium.base.DriverFactory;
@@ -16,6 +17,8 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import com.google.common.collect.Maps;
+
 /**
  * ServiceContext - [Architectural experiment] - provides WebDriver, WebDriverWait,
  * JavascriptExecutor, and ElementLookup objects for service/utility classes.
@@ -25,32 +28,31 @@ import org.openqa.selenium.support.ui.WebDriverWait;
  */
 public abstract class ServiceContext extends BaseContext {
 
-  protected static final WebDriver driver;
-  protected static final WebDriverWait wait;
-  protected static final JavascriptExecutor jsExecutor;
-  protected static final ElementLookup lookup;
+  private static final ThreadLocal<Map.Entry<WebDriver, ElementLookup>> lookups =
+      new ThreadLocal<Map.Entry<WebDriver, ElementLookup>>();
 
-  static {
-    driver = DriverFactory.getWebDriver();
-    wait = DriverFactory.getWebDriverWait();
-    jsExecutor = (JavascriptExecutor) driver;
-    lookup = ElementLookup.create(getDriver(), getWait());
-  }
+  // The driver and the objects depending on it are those of the current thread
 
   public static WebDriver getDriver() {
-    return driver;
+    return DriverFactory.getWebDriver();
   }
 
   public static WebDriverWait getWait() {
-    return wait;
+    return DriverFactory.getWebDriverWait();
   }
 
   public static JavascriptExecutor getJsExecutor() {
-    return jsExecutor;
+    return (JavascriptExecutor) getDriver();
   }
 
   public static ElementLookup getLookup() {
-    return lookup;
+    WebDriver driver = getDriver();
+    Map.Entry<WebDriver, ElementLookup> lookup = lookups.get();
+    if (lookup == null || lookup.getKey() != driver) {
+      lookup = Maps.immutableEntry(driver, ElementLookup.create(driver, getWait()));
+      lookups.set(lookup);
+    }
+    return lookup.getValue();
   }
 
   @Deprecated
@@ -38,7 +38,7 @@ public final class WebElementUtil {
   // Find element services
 
   public static WebElement findElement(By locator) {
-    return service.findElement(locator, context);
+    return service.findElement(locator, context());
   }
 
   public static WebElement findElement(By locator, SearchContext context) {
@@ -46,7 +46,7 @@ public final class WebElementUtil {
   }
 
   public static List<WebElement> findElements(By locator) {
-    return service.findElements(locator, context);
+    return service.findElements(locator, context());
   }
 
   public static List<WebElement> findElements(By locator, SearchContext context) {
@@ -54,7 +54,7 @@ public final class WebElementUtil {
   }
 
   public static WebElement findElementByXPath(String xpathExpression) {
-    return service.findElementByXPath(xpathExpression, context);
+    return service.findElementByXPath(xpathExpression, context());
   }
 
   public static WebElement findElementByXPath(String xpathExpression, SearchContext context) {
@@ -62,7 +62,7 @@ public final class WebElementUtil {
   }
 
   public static List<WebElement> findElementsByXPath(String xpathExpression) {
-    return service.findElementsByXPath(xpathExpression, context);
+    return service.findElementsByXPath(xpathExpression, context());
   }
 
   public static List<WebElement> findElementsByXPath(String xpathExpression, SearchContext context) {
@@ -70,7 +70,7 @@ public final class WebElementUtil {
   }
 
   public static WebElement findElementById(String id) {
-    return service.findElementByXPath("//*[@id='" + id + "']", context);
+    return service.findElementByXPath("//*[@id='" + id + "']", context());
   }
 
   public static WebElement findElementById(String id, SearchContext context) {
@@ -78,7 +78,7 @@ public final class WebElementUtil {
   }
 
   public static WebElement findElementByText(String text) {
-    return service.findElementByXPath("//*[text()='" + text + "']", context);
+    return service.findElementByXPath("//*[text()='" + text + "']", context());
   }
 
   public static WebElement findElementByText(String text, SearchContext context) {
@@ -86,7 +86,7 @@ public final class WebElementUtil {
   }
 
   public static List<WebElement> findElementsByText(String text) {
-    return service.findElementsByXPath("//*[text()='" + text + "']", context);
+    return service.findElementsByXPath("//*[text()='" + text + "']", context());
   }
 
   public static List<WebElement> findElementsByText(String text, SearchContext context) {
@@ -94,7 +94,7 @@ public final class WebElementUtil {
   }
 
   public static WebElement findElementByLabel(String label) {
-    return service.findElementByXPath("//*[@id=//label[text()='" + label + "']/@for]", context);
+    return service.findElementByXPath("//*[@id=//label[text()='" + label + "']/@for]", context());
   }
 
   public static WebElement findElementByLabel(String label, SearchContext context) {
@@ -112,7 +112,7 @@ public final class WebElementUtil {
   }
 
   public static List<WebElement> findElementsByLabel(String label) {
-    return service.findElementsByXPath("//label[text()='" + label + "']", context);
+    return service.findElementsByXPath("//label[text()='" + label + "']", context());
   }
 
   public static List<WebElement> findElementsByLabel(String label, SearchContext context) {
@@ -137,7 +137,7 @@ public final class WebElementUtil {
   }
 
   public static WebElement findLabel(String label) {
-    return service.findElementByXPath("//label[text()='" + label + "']", context);
+    return service.findElementByXPath("//label[text()='" + label + "']", context());
   }
 
   public static WebElement findLabel(String label, SearchContext context) {
@@ -168,7 +168,7 @@ public final class WebElementUtil {
       public void perform() {
         clicker.click(element);
       }
-    }, context);
+    }, context());
   }
 
   public static void click(WebElement element, Clicker clicker) {
@@ -176,7 +176,7 @@ public final class WebElementUtil {
   }
 
   public static void clickByJs(WebElement element) {
-    service.click(element, Clicker.javascript((JavascriptExecutor) context));
+    service.click(element, Clicker.javascript((JavascriptExecutor) context()));
   }
 
   public static void clickByJs(WebElement element, JavascriptExecutor executor) {
@@ -184,11 +184,11 @@ public final class WebElementUtil {
   }
 
   public static void clickByActions(WebElement element) {
-    service.click(element, Clicker.actions((WebDriver) context));
+    service.click(element, Clicker.actions((WebDriver) context()));
   }
 
   public static void clickByActionsHover(WebElement element) {
-    service.click(element, Clicker.actionsHover((WebDriver) context));
+    service.click(element, Clicker.actionsHover((WebDriver) context()));
   }
 
   @Deprecated
@@ -242,7 +242,7 @@ public final class WebElementUtil {
   //   WebDriverUtil.executeScript("arguments[0].focus()", element);
 
   public static void focus(WebElement element) {
-    focus(element, (JavascriptExecutor) context);
+    focus(element, (JavascriptExecutor) context());
   }
 
   public static void focus(WebElement element, JavascriptExecutor executor) {
@@ -250,7 +250,7 @@ public final class WebElementUtil {
   }
 
   public static void blur(WebElement element) {
-    blur(element, (JavascriptExecutor) context);
+    blur(element, (JavascriptExecutor) context());
   }
 
   public static void blur(WebElement element, JavascriptExecutor executor) {
@@ -258,7 +258,7 @@ public final class WebElementUtil {
   }
 
   public static void scrollIntoView(WebElement element) {
-    scrollIntoView(element, (JavascriptExecutor) context);
+    scrollIntoView(element, (JavascriptExecutor) context());
   }
 
   public static void scrollIntoView(WebElement element, JavascriptExecutor executor) {
@@ -479,6 +479,8 @@ public final class WebElementUtil {
 
   private static final WebElementService service = new WebElementServiceImpl();
 
-  private static final SearchContext context = DriverFactory.getWebDriver();
+  private static SearchContext context() {
+    return DriverFactory.getWebDriver(); // The current thread's driver
+  }
 
 }
@@ -4,16 +4,33 @@
 
 package org.basil.selenium.service;
 
+import org.basil.selenium.Basil;
+
 /**
- * XPathBuilder
+ * XPathBuilder - Builds a location path step by step, an axis method sets the axis of the next
+ * step, a node test method writes the step, and the predicate methods that follow apply to it:
+ * <pre>
+ * builder.tag("table").withId("users").child().tag("tbody").child().tag("tr").index(2).build()
+ * </pre>
+ * builds <code>//table[@id='users']/tbody/tr[2]</code>. A step without an axis is a descendant
+ * step, the way XPathUtil.append() joins expressions. String values are written as XPath literals,
+ * values containing both kinds of quotes included.
  *
  * @author ryan131
  * @since Oct 14, 2016, 3:15:25 PM
  */
 public interface XPathBuilder {
 
+  // Axes
+
+  /**
+   * @deprecated Use {@link #ancestor()}
+   */
+  @Deprecated
   XPathBuilder ancester();
 
+  XPathBuilder ancestor();
+
   XPathBuilder ancestor_or_self();
 
   XPathBuilder attribute();
@@ -36,4 +53,56 @@ public interface XPathBuilder {
 
   XPathBuilder self();
 
+  // Node tests
+
+  /**
+   * Writes a step selecting the nodes of the name, the tag name of an element, or the name of an
+   * attribute on the attribute axis.
+   */
+  XPathBuilder tag(String name);
+
+  /**
+   * Writes a step selecting the nodes of any name.
+   */
+  XPathBuilder any();
+
+  // Predicates
+
+  XPathBuilder withId(String id);
+
+  XPathBuilder withAttribute(String name);
+
+  XPathBuilder withAttribute(String name, String value);
+
+  /**
+   * Selects the elements having the class among their classes.
+   */
+  XPathBuilder withClass(String className);
+
+  XPathBuilder withText(String text);
+
+  XPathBuilder containsText(String text);
+
+  /**
+   * Selects the node at the 1-based position of the nodes the step selects.
+   */
+  XPathBuilder index(int position);
+
+  // Results
+
+  String toXPath();
+
+  /**
+   * Returns a CSS selector selecting the same elements, or null if the path has steps or
+   * predicates CSS can't express, such as the reverse axes and text predicates.
+   */
+  String toCssSelector();
+
+  Basil build();
+
+  /**
+   * Clears the path, keeping the buffer for the next path.
+   */
+  XPathBuilder reset();
+
 }
@@ -4,72 +4,368 @@
 
 package org.basil.selenium.service;
 
+import org.basil.selenium.Basil;
+
+import com.google.common.base.Preconditions;
+
 /**
- * XPathBuilderImpl
+ * XPathBuilderImpl - Writes the path into a single buffer as the methods are called, the CSS
+ * selector is written alongside for as long as the steps and predicates have a CSS equivalent.
+ * Reset and reuse a builder to build paths without allocating anything but the results.
+ *
+ * Descendant steps are written abbreviated (//), so the index of a descendant step is the position
+ * among the siblings, like the index of a child step.
+ *
+ * Not thread safe.
  *
  * @author ryan131
  * @since Oct 14, 2016, 4:26:36 PM
  */
 public class XPathBuilderImpl implements XPathBuilder {
 
+  private enum Axis {
+
+    ANCESTOR("ancestor::", null),
+    ANCESTOR_OR_SELF("ancestor-or-self::", null),
+    ATTRIBUTE("@", null),
+    CHILD("", " > "),
+    DESCENDANT("", " "),
+    DESCENDANT_OR_SELF("descendant-or-self::", null),
+    FOLLOWING("following::", null),
+    FOLLOWING_SIBLING("following-sibling::", " ~ "),
+    PARENT("parent::", null),
+    PRECEDING("preceding::", null),
+    PRECEDING_SIBLING("preceding-sibling::", null),
+    SELF("self::", null);
+
+    private final String prefix;
+    private final String combinator; // The CSS combinator, null if CSS has no such combinator
+
+    private Axis(String prefix, String combinator) {
+      this.prefix = prefix;
+      this.combinator = combinator;
+    }
+
+  }
+
+  private final StringBuilder xpath = new StringBuilder(64);
+  private final StringBuilder css = new StringBuilder(64);
+  private boolean cssExpressible = true;
+
+  private Axis axis; // The axis of the next step
+  private Axis stepAxis; // The axis of the last step
+  private boolean stepAny;
+  private int stepPredicates;
+  private int steps;
+
+  // Axes
+
+  @Deprecated
   @Override
   public XPathBuilder ancester() {
-    return null;
+    return ancestor();
+  }
+
+  @Override
+  public XPathBuilder ancestor() {
+    return axis(Axis.ANCESTOR);
   }
 
   @Override
   public XPathBuilder ancestor_or_self() {
-    return null;
+    return axis(Axis.ANCESTOR_OR_SELF);
   }
 
   @Override
   public XPathBuilder attribute() {
-    return null;
+    return axis(Axis.ATTRIBUTE);
   }
 
   @Override
   public XPathBuilder child() {
-    return null;
+    return axis(Axis.CHILD);
   }
 
   @Override
   public XPathBuilder descendant() {
-    return null;
+    return axis(Axis.DESCENDANT);
   }
 
   @Override
   public XPathBuilder descendant_or_self() {
-    return null;
+    return axis(Axis.DESCENDANT_OR_SELF);
   }
 
   @Override
   public XPathBuilder following() {
-    return null;
+    return axis(Axis.FOLLOWING);
   }
 
   @Override
   public XPathBuilder following_sibling() {
-    return null;
+    return axis(Axis.FOLLOWING_SIBLING);
   }
 
   @Override
   public XPathBuilder parent() {
-    return null;
+    return axis(Axis.PARENT);
   }
 
   @Override
   public XPathBuilder preceding() {
-    return null;
+    return axis(Axis.PRECEDING);
   }
 
   @Override
   public XPathBuilder preceding_sibling() {
-    return null;
+    return axis(Axis.PRECEDING_SIBLING);
   }
 
   @Override
   public XPathBuilder self() {
-    return null;
+    return axis(Axis.SELF);
+  }
+
+  private XPathBuilder axis(Axis axis) {
+    Preconditions.checkState(this.axis == null, "The %s step has no node test.", this.axis);
+    this.axis = axis;
+    return this;
+  }
+
+  // Node tests
+
+  @Override
+  public XPathBuilder tag(String name) {
+    Preconditions.checkArgument(name != null && !name.isEmpty(), "The name is empty.");
+    return step(name);
+  }
+
+  @Override
+  public XPathBuilder any() {
+    return step("*");
+  }
+
+  private XPathBuilder step(String name) {
+    Axis axis = this.axis != null ? this.axis : Axis.DESCENDANT;
+    if (axis == Axis.DESCENDANT) {
+      xpath.append("//");
+    } else if (steps > 0 || axis == Axis.CHILD) {
+      xpath.append('/');
+    }
+    xpath.append(axis.prefix).append(name);
+
+    boolean any = "*".equals(name);
+    if (cssExpressible) {
+      if (axis.combinator == null || (steps == 0 && axis != Axis.DESCENDANT)
+          || (!any && !isIdentifier(name))) {
+        cssExpressible = false;
+      } else {
+        if (steps > 0) {
+          css.append(axis.combinator);
+        }
+        css.append(name);
+      }
+    }
+
+    this.axis = null;
+    stepAxis = axis;
+    stepAny = any;
+    stepPredicates = 0;
+    steps++;
+    return this;
+  }
+
+  // Predicates
+
+  @Override
+  public XPathBuilder withId(String id) {
+    predicate().append("[@id=");
+    appendLiteral(xpath, id).append(']');
+    if (cssExpressible) {
+      if (isIdentifier(id)) {
+        css.append('#').append(id);
+      } else {
+        appendCssString(css.append("[id="), id).append(']');
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public XPathBuilder withAttribute(String name) {
+    predicate().append("[@").append(name).append(']');
+    if (cssExpressible) {
+      if (isIdentifier(name)) {
+        css.append('[').append(name).append(']');
+      } else {
+        cssExpressible = false;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public XPathBuilder withAttribute(String name, String value) {
+    predicate().append("[@").append(name).append('=');
+    appendLiteral(xpath, value).append(']');
+    if (cssExpressible) {
+      if (isIdentifier(name)) {
+        appendCssString(css.append('[').append(name).append('='), value).append(']');
+      } else {
+        cssExpressible = false;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public XPathBuilder withClass(String className) {
+    predicate().append("[contains(concat(' ', normalize-space(@class), ' '), ");
+    appendLiteral(xpath, " " + className + " ").append(")]");
+    if (cssExpressible) {
+      if (isIdentifier(className)) {
+        css.append('.').append(className);
+      } else {
+        appendCssString(css.append("[class~="), className).append(']');
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public XPathBuilder withText(String text) {
+    predicate().append("[text()=");
+    appendLiteral(xpath, text).append(']');
+    cssExpressible = false;
+    return this;
+  }
+
+  @Override
+  public XPathBuilder containsText(String text) {
+    predicate().append("[contains(text(), ");
+    appendLiteral(xpath, text).append(")]");
+    cssExpressible = false;
+    return this;
+  }
+
+  @Override
+  public XPathBuilder index(int position) {
+    Preconditions.checkArgument(position > 0, "The position %s isn't 1-based.", position);
+    // Only a leading index selects by the position among the siblings as CSS does
+    boolean siblingPosition =
+        stepPredicates == 0 && (stepAxis == Axis.CHILD || stepAxis == Axis.DESCENDANT);
+    predicate().append('[').append(position).append(']');
+    if (cssExpressible) {
+      if (siblingPosition) {
+        css.append(stepAny ? ":nth-child(" : ":nth-of-type(").append(position).append(')');
+      } else {
+        cssExpressible = false;
+      }
+    }
+    return this;
+  }
+
+  private StringBuilder predicate() {
+    Preconditions.checkState(steps > 0 && axis == null, "There's no step to apply the predicate.");
+    stepPredicates++;
+    return xpath;
+  }
+
+  // Results
+
+  @Override
+  public String toXPath() {
+    checkComplete();
+    return xpath.toString();
+  }
+
+  @Override
+  public String toCssSelector() {
+    checkComplete();
+    return cssExpressible ? css.toString() : null;
+  }
+
+  @Override
+  public Basil build() {
+    return Basil.xpath(toXPath());
+  }
+
+  @Override
+  public XPathBuilder reset() {
+    xpath.setLength(0);
+    css.setLength(0);
+    cssExpressible = true;
+    axis = null;
+    stepAxis = null;
+    stepAny = false;
+    stepPredicates = 0;
+    steps = 0;
+    return this;
+  }
+
+  private void checkComplete() {
+    Preconditions.checkState(steps > 0, "The path has no step.");
+    Preconditions.checkState(axis == null, "The %s step has no node test.", axis);
+  }
+
+  @Override
+  public String toString() {
+    return xpath.toString();
+  }
+
+  // Escaping
+
+  /**
+   * Appends the value as an XPath string literal, values containing both kinds of quotes are
+   * written as a concat() of the parts between the apostrophes.
+   */
+  static StringBuilder appendLiteral(StringBuilder sb, String value) {
+    if (value.indexOf('\'') < 0) {
+      return sb.append('\'').append(value).append('\'');
+    }
+    if (value.indexOf('"') < 0) {
+      return sb.append('"').append(value).append('"');
+    }
+    sb.append("concat('");
+    int start = 0;
+    for (int apostrophe; (apostrophe = value.indexOf('\'', start)) >= 0; ) {
+      sb.append(value, start, apostrophe).append("', \"'\", '");
+      start = apostrophe + 1;
+    }
+    return sb.append(value, start, value.length()).append("')");
+  }
+
+  private static StringBuilder appendCssString(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c == '\n') {
+        sb.append("\\a ");
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"');
+  }
+
+  /**
+   * Returns true if the name can be written as a CSS identifier as it is.
+   */
+  private static boolean isIdentifier(String name) {
+    if (name.isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c > 0x7F;
+      boolean digitOrHyphen = (c >= '0' && c <= '9') || c == '-';
+      if (!letter && (i == 0 || !digitOrHyphen)) {
+        return false;
+      }
+    }
+    return true;
   }
 
 }
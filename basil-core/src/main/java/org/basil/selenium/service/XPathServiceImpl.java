@@ -5,9 +5,12 @@
 package org.basil.selenium.service;
 
 import java.util.Arrays;
+import java.util.List;
 
 import org.basil.selenium.Basil;
+import org.basil.selenium.base.DriverUtil;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebElement;
 
 import com.google.common.base.Function;
@@ -22,6 +25,32 @@ import com.google.common.collect.Lists;
  */
 public class XPathServiceImpl implements XPathService {
 
+  /**
+   * Returns the expressions of the XPath of arguments[0], which XPathServiceImpl.append() joins:
+   * the "//tag[@id='id']" of the nearest ancestor-or-self with an ID (if any), followed by the
+   * "tag[index]" of every element below it, where the index counts the preceding siblings of the
+   * same tag like "preceding-sibling::tag" does.
+   */
+  private static final String XPATH_SCRIPT =
+      "var expressions = [];" +
+      "for (var node = arguments[0]; node && node.nodeType === 1; node = node.parentNode) {" +
+      "  var tag = node.tagName.toLowerCase(), id = node.getAttribute('id');" +
+      "  if (id) {" +
+      "    expressions.unshift('//' + tag + \"[@id='\" + id + \"']\");" +
+      "    break;" +
+      "  }" +
+      "  var index = 1;" +
+      "  for (var sibling = node.previousElementSibling; sibling;" +
+      "      sibling = sibling.previousElementSibling) {" +
+      "    if (sibling.tagName.toLowerCase() === tag) {" +
+      "      index++;" +
+      "    }" +
+      "  }" +
+      "  expressions.unshift(tag + '[' + index + ']');" +
+      "}" +
+      "return expressions;";
+
+  // For the expressions that aren't location paths, which LocationPath doesn't parse
   private boolean isLocationPath(String expression) {
     return expression.startsWith("ancestor::")           ||
            expression.startsWith("ancestor-or-self::")   ||
@@ -38,24 +67,35 @@ public class XPathServiceImpl implements XPathService {
            expression.startsWith("self::");
   }
 
-  private String abbreviate(String expression) {
-    return expression.equals("attribute::") ? "@"   :
-           expression.equals("descendant::") ? "//" :
-           expression.equals("parent::*") ? "/.."   :
-           expression.equals("self::*") ? "/."      :
-           expression;
-  }
-
   // XPath retrieval
 
+  /**
+   * Returns the XPath of the element, computed in the browser with a single script. It isn't
+   * memoized, as the index of an element changes whenever a sibling is inserted before it.
+   */
   @Override
   public String getXPath(WebElement element) {
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(element);
+    return executor != null ? getXPath(executor, element) : getXPathByAncestors(element);
+  }
+
+  @SuppressWarnings("unchecked")
+  private String getXPath(JavascriptExecutor executor, WebElement element) {
+    return append((List<String>) executor.executeScript(XPATH_SCRIPT, element));
+  }
+
+  /**
+   * Returns the XPath of the element by visiting its ancestors, which takes several remote calls
+   * per ancestor.
+   */
+  private String getXPathByAncestors(WebElement element) {
     String id = WebElementUtil.getId(element);
     String tag = WebElementUtil.getTag(element);
     if (Strings.isNullOrEmpty(id)) {
       int index = element.findElements(By.xpath("preceding-sibling::" + tag)).size() + 1;
       //return getXPath(element.findElement(By.xpath("parent::*"))) + "/" + tag + "[" + index + "]";
-      return append(getXPath(element.findElement(By.xpath("parent::*"))), tag + "[" + index + "]");
+      return append(getXPathByAncestors(element.findElement(By.xpath("parent::*"))),
+          tag + "[" + index + "]");
     }
     return "//" + tag + "[@id='" + id + "']";
   }
@@ -86,7 +126,10 @@ public class XPathServiceImpl implements XPathService {
   public String append(Iterable<String> xpathExpressions) {
     StringBuilder sb = new StringBuilder();
     for (String xpathExpression : xpathExpressions) {
-      if (isLocationPath(xpathExpression)) {
+      LocationPath path = LocationPath.of(xpathExpression);
+      if (path != null && path.hasExplicitAxis()) {
+        sb.append("/" + path.abbreviate());
+      } else if (path == null && isLocationPath(xpathExpression)) {
         sb.append("/" + xpathExpression);
       } else if (!xpathExpression.startsWith("/")) {
         sb.append("//" + xpathExpression);
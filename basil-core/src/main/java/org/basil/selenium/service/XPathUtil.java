@@ -63,6 +63,16 @@ public final class XPathUtil {
     return xpath;
   }
 
+  // Literals
+
+  /**
+   * Returns the value as an XPath string literal, values containing both kinds of quotes are
+   * written as a concat() of the parts between the apostrophes.
+   */
+  public static String literal(String value) {
+    return XPathBuilderImpl.appendLiteral(new StringBuilder(value.length() + 2), value).toString();
+  }
+
   // Concatenation
 
   public static String append(String... xpathExpressions) {
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.List;
+import java.util.Map;
+
+import org.basil.selenium.base.DomScripts;
+import org.basil.selenium.base.SessionErrors;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Function;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Composite Condition - All, one or none of the conditions to be satisfied. When every condition
+ * can tell its ScriptClause, the clauses are evaluated by a single script, so a poll takes one
+ * round trip instead of the few calls of every condition. Otherwise, or when the driver can't
+ * execute scripts, the conditions are applied in turn. Either way the conditions are evaluated in
+ * order and as few as needed, and a missing element fails the poll the way it fails the condition.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 5:14:41 AM
+ */
+class CompositeCondition implements ExpectedCondition<Boolean> {
+
+  private static final Logger logger = LoggerFactory.getLogger(CompositeCondition.class);
+
+  /**
+   * Evaluates the clauses of arguments[0] (each of the checks, elements, XPaths, names, values and
+   * outcomes of a missing element) until the mode of arguments[1] (all, one or none) is decided.
+   * Returns whether it's satisfied, or the index of the clause whose element is missing. The
+   * elements are read the way WebElement reads them, see DomScripts.
+   */
+  private static final String EVALUATE_SCRIPT =
+      "var clauses = arguments[0], mode = arguments[1];" +
+      DomScripts.DISPLAYED + DomScripts.ATTRIBUTE +
+      "function evaluate(i) {" +
+      "  var element = clauses[1][i], xpath = clauses[2][i];" +
+      "  var name = clauses[3][i], value = clauses[4][i];" +
+      "  if (xpath) {" +
+      "    element = document.evaluate(xpath, document, null," +
+      "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+      "  }" +
+      "  if (!element || !document.documentElement.contains(element)) {" +
+      "    return clauses[5][i];" +
+      "  }" +
+      "  switch (clauses[0][i]) {" +
+      "    case 'present': return true;" +
+      "    case 'visible': return displayed(element);" +
+      "    case 'invisible': return !displayed(element);" +
+      "    case 'attribute': return attribute(element, name) !== null;" +
+      "    case 'attributeContains':" +
+      "      var contained = attribute(element, name);" +
+      "      return contained !== null && contained.indexOf(value) >= 0;" +
+      "    case 'attributeNotContains':" +
+      "      var notContained = attribute(element, name);" +
+      "      return notContained === null || notContained.indexOf(value) < 0;" +
+      "    case 'attributeEquals': return attribute(element, name) === value;" +
+      "    case 'text': return (element.innerText || element.textContent || '').trim() !== '';" +
+      "    case 'textNotContains':" +
+      "      return (element.innerText || element.textContent || '').indexOf(value) < 0;" +
+      "  }" +
+      "  throw new Error('Unknown check: ' + clauses[0][i]);" +
+      "}" +
+      "for (var i = 0; i < clauses[0].length; i++) {" +
+      "  var satisfied = evaluate(i);" +
+      "  if (satisfied === 'throw') {" +
+      "    return {missing: i};" +
+      "  }" +
+      "  if (mode === 'all' ? !satisfied : satisfied) {" +
+      "    return {satisfied: mode === 'one'};" +
+      "  }" +
+      "}" +
+      "return {satisfied: mode !== 'one'};";
+
+  enum Mode {
+
+    all("ExpectedCondition(s) to be satisfied: "),
+    one("ExpectedCondition(s) to be satisfied at least one: "),
+    none("ExpectedCondition(s) to not be satisfied: ");
+
+    private final String message;
+
+    private Mode(String message) {
+      this.message = message;
+    }
+
+  }
+
+  private final Mode mode;
+  private final List<Function<? super WebDriver, ?>> conditions;
+  private final List<ScriptClause> clauses;
+  private int scripts;
+
+  CompositeCondition(Mode mode, List<? extends Function<? super WebDriver, ?>> conditions) {
+    this.mode = mode;
+    this.conditions = ImmutableList.copyOf(conditions);
+    this.clauses = getClauses(this.conditions);
+  }
+
+  /**
+   * Returns the clauses of all of the conditions, or null if any of them can't tell its clause.
+   */
+  private static List<ScriptClause> getClauses(List<Function<? super WebDriver, ?>> conditions) {
+    List<ScriptClause> clauses = Lists.newArrayListWithCapacity(conditions.size());
+    for (Function<? super WebDriver, ?> condition : conditions) {
+      ScriptClause clause = condition instanceof ScriptClause.Scriptable
+          ? ((ScriptClause.Scriptable) condition).clause() : null;
+      if (clause == null) {
+        return null;
+      }
+      clauses.add(clause);
+    }
+    return clauses;
+  }
+
+  boolean isScriptable() {
+    return clauses != null;
+  }
+
+  /**
+   * Returns the number of polls evaluated by the script.
+   */
+  int getScripts() {
+    return scripts;
+  }
+
+  @Override
+  public Boolean apply(WebDriver driver) {
+    if (clauses != null && driver instanceof JavascriptExecutor) {
+      try {
+        return evaluate((JavascriptExecutor) driver);
+      } catch (StaleElementReferenceException sere) {
+        // An element of the clauses has gone stale, the conditions tell what it means
+      } catch (NoSuchElementException nsee) {
+        throw nsee;
+      } catch (WebDriverException wde) {
+        if (SessionErrors.isFatal(wde)) {
+          throw wde; // Applying them in turn would fail the same way
+        }
+        logger.warn("Unable to evaluate the " + this + " by a script, applying them in turn.",
+            wde);
+      }
+    }
+    for (Function<? super WebDriver, ?> condition : conditions) {
+      if (isSatisfied(condition.apply(driver)) == (mode != Mode.all)) {
+        return mode == Mode.one;
+      }
+    }
+    return mode != Mode.one;
+  }
+
+  private Boolean evaluate(JavascriptExecutor executor) {
+    List<Object> checks = Lists.newArrayListWithCapacity(clauses.size());
+    List<Object> elements = Lists.newArrayListWithCapacity(clauses.size());
+    List<Object> xpaths = Lists.newArrayListWithCapacity(clauses.size());
+    List<Object> names = Lists.newArrayListWithCapacity(clauses.size());
+    List<Object> values = Lists.newArrayListWithCapacity(clauses.size());
+    List<Object> missings = Lists.newArrayListWithCapacity(clauses.size());
+    for (ScriptClause clause : clauses) { // Blank rather than null, which not every driver takes
+      checks.add(clause.check.name());
+      elements.add(clause.element != null ? clause.element : "");
+      xpaths.add(Strings.nullToEmpty(clause.xpath));
+      names.add(Strings.nullToEmpty(clause.name));
+      values.add(Strings.nullToEmpty(clause.value));
+      missings.add(clause.missing);
+    }
+    scripts++;
+    Map<?, ?> result = (Map<?, ?>) executor.executeScript(EVALUATE_SCRIPT,
+        Lists.newArrayList(checks, elements, xpaths, names, values, missings), mode.name());
+    Object missing = result.get("missing");
+    if (missing != null) {
+      ScriptClause clause = clauses.get(((Number) missing).intValue());
+      if (clause.locator != null) {
+        throw new NoSuchElementException("Cannot locate an element using " + clause.locator);
+      }
+      throw new StaleElementReferenceException("The element " + clause.element
+          + " is no longer attached to the DOM.");
+    }
+    return Boolean.TRUE.equals(result.get("satisfied"));
+  }
+
+  private static boolean isSatisfied(Object result) {
+    return result instanceof Boolean ? (Boolean) result : result != null;
+  }
+
+  @Override
+  public String toString() {
+    String message = mode.message;
+    for (Function<? super WebDriver, ?> condition : conditions) {
+      message += condition;
+    }
+    return message;
+  }
+
+}
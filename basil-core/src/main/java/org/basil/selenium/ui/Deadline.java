@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deadline - The time by which the outermost wait (or page object construction) of the thread
+ * gives up, so a wait nested in it never outlives its budget: a wait opens a deadline of its
+ * timeout, or of what's left of the deadline it's nested in if that's sooner, and the waits nested
+ * in it clip their timeouts to it in turn.
+ * <pre>
+ * Deadline deadline = Deadline.open("Dialog", 60, TimeUnit.SECONDS);
+ * try {
+ *   lookup.getVisibleElement(By.id("ok")); // Waits for 30 seconds, or less if 60 are almost up
+ * } finally {
+ *   deadline.close();
+ * }
+ * </pre>
+ * The waits whose timeouts were clipped, and the time they would have taken over the budget, are
+ * counted for all threads.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 6:02:18 AM
+ */
+public final class Deadline implements AutoCloseable {
+
+  private static final ThreadLocal<Deadline> current = new ThreadLocal<Deadline>();
+
+  private static final LongAdder clippedWaits = new LongAdder();
+  private static final LongAdder clippedMillis = new LongAdder();
+
+  private final String owner;
+  private final long expiry;
+  private final Deadline outer;
+
+  private Deadline(String owner, long expiry, Deadline outer) {
+    this.owner = owner;
+    this.expiry = expiry;
+    this.outer = outer;
+  }
+
+  /**
+   * Opens a deadline of the timeout on the current thread, or of the deadline it's nested in if
+   * that's sooner, it's in effect until it's closed.
+   */
+  public static Deadline open(String owner, long timeout, TimeUnit unit) {
+    Deadline outer = current.get();
+    long now = System.currentTimeMillis();
+    long millis = unit.toMillis(timeout);
+    long expiry = millis >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + millis;
+    Deadline deadline =
+        new Deadline(owner, outer != null ? Math.min(expiry, outer.expiry) : expiry, outer);
+    current.set(deadline);
+    return deadline;
+  }
+
+  /**
+   * Returns the deadline in effect on the current thread, or null if there is none.
+   */
+  public static Deadline current() {
+    return current.get();
+  }
+
+  /**
+   * Returns the timeout (in milliseconds) clipped to the time left of the deadline in effect.
+   */
+  public static long clip(long timeout) {
+    Deadline deadline = current.get();
+    if (deadline == null) {
+      return timeout;
+    }
+    long remaining = deadline.getRemainingMillis();
+    if (remaining >= timeout) {
+      return timeout;
+    }
+    if (timeout != Long.MAX_VALUE) {
+      clippedWaits.increment();
+      clippedMillis.add(timeout - remaining);
+    }
+    return remaining;
+  }
+
+  /**
+   * Returns true if the deadline in effect on the current thread has passed.
+   */
+  public static boolean isPassed() {
+    Deadline deadline = current.get();
+    return deadline != null && deadline.isExpired();
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public long getRemainingMillis() {
+    return Math.max(0, expiry - System.currentTimeMillis());
+  }
+
+  public boolean isExpired() {
+    return System.currentTimeMillis() >= expiry;
+  }
+
+  /**
+   * Closes the deadline, the one it was nested in is in effect again.
+   */
+  @Override
+  public void close() {
+    if (current.get() == this) {
+      if (outer != null) {
+        current.set(outer);
+      } else {
+        current.remove();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline {" + owner + ", " + (expiry == Long.MAX_VALUE
+        ? "none" : getRemainingMillis() + " ms left") + "}";
+  }
+
+  // Statistics
+
+  /**
+   * Returns the number of waits whose timeouts were clipped to a deadline.
+   */
+  public static long getClippedWaits() {
+    return clippedWaits.sum();
+  }
+
+  /**
+   * Returns the milliseconds the clipped waits would have waited past their deadlines.
+   */
+  public static long getClippedMillis() {
+    return clippedMillis.sum();
+  }
+
+  public static String getStatistics() {
+    return String.format("Deadline {clipped waits=%d, clipped time=%d ms}", getClippedWaits(),
+        getClippedMillis());
+  }
+
+}
@@ -7,6 +7,7 @@ package org.basil.selenium.ui;
 import java.util.List;
 
 import org.basil.Config;
+import org.basil.selenium.ui.ScriptClause.Check;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
@@ -17,6 +18,9 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+
 /**
  * A superset of the <code>ExpectedConditions</code>.
  *
@@ -47,7 +51,9 @@ public final class ExtendedConditions {
 
   public static ExpectedCondition<Boolean> ariaStateToBeTrue(
       final WebElement element, final ARIAs.Attribute ariaAttribute) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ariaAttribute.isProperty()
+        ? null : ScriptClause.of(element, Check.attributeEquals, ariaAttribute.attribute(), "true",
+            ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElement =
           attributeToBePresentInElement(element, ariaAttribute.attribute());
 
@@ -70,7 +76,9 @@ public final class ExtendedConditions {
 
   public static ExpectedCondition<Boolean> ariaStateToBeFalse(
       final WebElement element, final ARIAs.Attribute ariaAttribute) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ariaAttribute.isProperty()
+        ? null : ScriptClause.of(element, Check.attributeEquals, ariaAttribute.attribute(), "false",
+            ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElement =
           attributeToBePresentInElement(element, ariaAttribute.attribute());
 
@@ -106,7 +114,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeToPresentInElementLocated(
       final By locator, final String attribute) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(
+        ScriptClause.of(locator, Check.attribute, attribute, null, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElementLocated =
           attributeToBePresentInElementLocated(locator, attribute);
 
@@ -135,7 +144,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeToPresentInElement(
       final WebElement element, final String attribute) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(
+        ScriptClause.of(element, Check.attribute, attribute, null, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElement =
           attributeToBePresentInElement(element, attribute);
 
@@ -164,7 +174,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<String> attributeToBePresentInElementLocated(
       final By locator, final String attribute) {
-    ExpectedCondition<String> ec = new ExpectedCondition<String>() {
+    ExpectedCondition<String> ec = new ScriptClause.Expected<String>(
+        ScriptClause.of(locator, Check.attribute, attribute, null, ScriptClause.THROW)) {
       @Override
       public String apply(WebDriver driver) {
         String attributeValue = findElement(driver, locator).getAttribute(attribute);
@@ -195,7 +206,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<String> attributeToBePresentInElement(
       final WebElement element, final String attribute) {
-    ExpectedCondition<String> ec = new ExpectedCondition<String>() {
+    ExpectedCondition<String> ec = new ScriptClause.Expected<String>(
+        ScriptClause.of(element, Check.attribute, attribute, null, ScriptClause.THROW)) {
       @Override
       public String apply(WebDriver driver) {
         String attributeValue = element.getAttribute(attribute);
@@ -227,7 +239,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeValueToPresentInElementLocated(
       final By locator, final String attribute, final String value) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ScriptClause.of(
+        locator, Check.attributeContains, attribute, value, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElementLocated =
           attributeToBePresentInElementLocated(locator, attribute);
 
@@ -263,7 +276,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeValueToPresentInElement(
       final WebElement element, final String attribute, final String value) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ScriptClause.of(
+        element, Check.attributeContains, attribute, value, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElement =
           attributeToBePresentInElement(element, attribute);
 
@@ -300,7 +314,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeValueToAbsentInElementLocated(
       final By locator, final String attribute, final String value) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ScriptClause.of(
+        locator, Check.attributeNotContains, attribute, value, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElementLocated =
           attributeToBePresentInElementLocated(locator, attribute);
 
@@ -336,7 +351,8 @@ public final class ExtendedConditions {
    */
   public static ExpectedCondition<Boolean> attributeValueToAbsentInElement(
       final WebElement element, final String attribute, final String value) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
+    ExpectedCondition<Boolean> ec = new ScriptClause.Expected<Boolean>(ScriptClause.of(
+        element, Check.attributeNotContains, attribute, value, ScriptClause.THROW)) {
       public ExpectedCondition<String> attributeToBePresentInElement =
           attributeToBePresentInElement(element, attribute);
 
@@ -368,7 +384,8 @@ public final class ExtendedConditions {
    * @return the text presented in the element
    */
   public static ExpectedCondition<String> textToPresentInElement(final WebElement element) {
-    return new ExpectedCondition<String>() {
+    return new ScriptClause.Expected<String>(
+        ScriptClause.of(element, Check.text, null, null, false)) {
       @Override
       public String apply(WebDriver driver) {
         try {
@@ -392,7 +409,8 @@ public final class ExtendedConditions {
 
   public static ExtendedCondition<String> textToAbsentInElement(
       final WebElement element, final String text) {
-    return new ExtendedCondition<String>() {
+    return new ScriptClause.Extended<String>(
+        ScriptClause.of(element, Check.textNotContains, null, text, true)) {
       @Override
       public String apply(SearchContext input) {
         try {
@@ -586,120 +604,59 @@ public final class ExtendedConditions {
   }
 
   /**
-   * An expectation for checking none of the specified conditions are satisfied.
+   * An expectation for checking none of the specified conditions are satisfied. The conditions are
+   * evaluated by a single script per poll when all of them can be, see CompositeCondition.
    *
-   * @param conditions ExpectedConditions not to be satisfied at all
+   * @param conditions ExpectedConditions (or ExtendedConditions) not to be satisfied at all
    * @return true if none of the specified conditions are satisfied
    * @since Selenium WebDriver 2.52.0
    */
-  public static ExpectedCondition<Boolean> satisfiesNone(final ExpectedCondition<?>... conditions) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
-      @Override
-      public Boolean apply(WebDriver driver) {
-        for (ExpectedCondition<?> condition : conditions) {
-          Object result = condition.apply(driver);
-          if (result instanceof Boolean) {
-            if ((Boolean) result) {
-              return Boolean.FALSE;
-            }
-          } else {
-            if (result != null) {
-              return Boolean.FALSE;
-            }
-          }
-        }
-        return Boolean.TRUE;
-      }
-
-      @Override
-      public String toString() {
-        String message = "ExpectedCondition(s) to not be satisfied: ";
-        for (ExpectedCondition<?> condition : conditions) {
-          message += condition;
-        }
-        return message;
-      }
-    };
-
-    return ec;
+  @SafeVarargs
+  public static ExpectedCondition<Boolean> satisfiesNone(
+      final Function<? super WebDriver, ?>... conditions) {
+    return satisfies(CompositeCondition.Mode.none, conditions);
   }
 
   /**
-   * An expectation for checking at least one of the specified conditions is satisfied.
+   * An expectation for checking at least one of the specified conditions is satisfied. The
+   * conditions are evaluated by a single script per poll when all of them can be, see
+   * CompositeCondition.
    *
-   * @param conditions ExpectedConditions to be satisfied for at least one
+   * @param conditions ExpectedConditions (or ExtendedConditions) to be satisfied for at least one
    * @return true once one of specified conditions is satisfied
    * @since Selenium WebDriver 2.52.0
    */
-  public static ExpectedCondition<Boolean> satisfiesOne(final ExpectedCondition<?>... conditions) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
-      @Override
-      public Boolean apply(WebDriver driver) {
-        for (ExpectedCondition<?> condition : conditions) {
-          Object result = condition.apply(driver);
-          if (result instanceof Boolean) {
-            if ((Boolean) result) {
-              return Boolean.TRUE;
-            }
-          } else {
-            if (result != null) {
-              return Boolean.TRUE;
-            }
-          }
-        }
-        return Boolean.FALSE;
-      }
-
-      @Override
-      public String toString() {
-        String message = "ExpectedCondition(s) to be satisfied at least one: ";
-        for (ExpectedCondition<?> condition : conditions) {
-          message += condition;
-        }
-        return message;
-      }
-    };
-
-    return ec;
+  @SafeVarargs
+  public static ExpectedCondition<Boolean> satisfiesOne(
+      final Function<? super WebDriver, ?>... conditions) {
+    return satisfies(CompositeCondition.Mode.one, conditions);
   }
 
   /**
-   * An expectation for checking all of the specified conditions are satisfied.
+   * An expectation for checking all of the specified conditions are satisfied. The conditions are
+   * evaluated by a single script per poll when all of them can be, see CompositeCondition.
    *
-   * @param conditions ExpectedConditions to be satisfied for all
+   * @param conditions ExpectedConditions (or ExtendedConditions) to be satisfied for all
    * @return true once all of the specified conditions are satisfied
    * @since Selenium WebDriver 2.52.0
    */
-  public static ExpectedCondition<Boolean> satisfiesAll(final ExpectedCondition<?>... conditions) {
-    ExpectedCondition<Boolean> ec = new ExpectedCondition<Boolean>() {
-      @Override
-      public Boolean apply(WebDriver driver) {
-        for (ExpectedCondition<?> condition : conditions) {
-          Object result = condition.apply(driver);
-          if (result instanceof Boolean) {
-            if (!(Boolean) result) {
-              return Boolean.FALSE;
-            }
-          } else {
-            if (result == null) {
-              return Boolean.FALSE;
-            }
-          }
-        }
-        return Boolean.TRUE;
-      }
-
-      @Override
-      public String toString() {
-        String message = "ExpectedCondition(s) to be satisfied: ";
-        for (ExpectedCondition<?> condition : conditions) {
-          message += condition;
-        }
-        return message;
-      }
-    };
+  @SafeVarargs
+  public static ExpectedCondition<Boolean> satisfiesAll(
+      final Function<? super WebDriver, ?>... conditions) {
+    return satisfies(CompositeCondition.Mode.all, conditions);
+  }
 
-    return ec;
+  /**
+   * Copies the conditions one by one, so the array of the varargs call doesn't escape.
+   */
+  @SafeVarargs
+  private static ExpectedCondition<Boolean> satisfies(CompositeCondition.Mode mode,
+      Function<? super WebDriver, ?>... conditions) {
+    List<Function<? super WebDriver, ?>> copy = Lists.newArrayListWithCapacity(conditions.length);
+    for (Function<? super WebDriver, ?> condition : conditions) {
+      copy.add(condition);
+    }
+    return new CompositeCondition(mode, copy);
   }
 
   /**
@@ -742,7 +699,8 @@ public final class ExtendedConditions {
    * @return the WebElement once it is located
    */
   public static ExtendedCondition<WebElement> presenceOfElementLocated(final By locator) {
-    ExtendedCondition<WebElement> ec = new ExtendedCondition<WebElement>() {
+    ExtendedCondition<WebElement> ec = new ScriptClause.Extended<WebElement>(
+        ScriptClause.of(locator, Check.present, null, null, false)) {
       @Override
       public WebElement apply(SearchContext searchContext) {
         try {
@@ -770,7 +728,8 @@ public final class ExtendedConditions {
    * @since Selenium WebDriver 2.48.0
    */
   public static ExtendedCondition<WebElement> visibilityOf(final WebElement element) {
-    ExtendedCondition<WebElement> ec = new ExtendedCondition<WebElement>() {
+    ExtendedCondition<WebElement> ec = new ScriptClause.Extended<WebElement>(
+        ScriptClause.of(element, Check.visible, null, null, false)) {
       @Override
       public WebElement apply(SearchContext searchContext) {
         try {
@@ -797,7 +756,8 @@ public final class ExtendedConditions {
    * @since Selenium WebDriver 2.48.0
    */
   public static ExtendedCondition<WebElement> invisibilityOf(final WebElement element) {
-    ExtendedCondition<WebElement> ec = new ExtendedCondition<WebElement>() {
+    ExtendedCondition<WebElement> ec = new ScriptClause.Extended<WebElement>(
+        ScriptClause.of(element, Check.invisible, null, null, true)) {
       @Override
       public WebElement apply(SearchContext searchContext) {
         try {
@@ -826,7 +786,8 @@ public final class ExtendedConditions {
    * @since Selenium WebDriver 2.48.0
    */
   public static ExtendedCondition<WebElement> visibilityOfElementLocated(final By locator) {
-    ExtendedCondition<WebElement> ec = new ExtendedCondition<WebElement>() {
+    ExtendedCondition<WebElement> ec = new ScriptClause.Extended<WebElement>(
+        ScriptClause.of(locator, Check.visible, null, null, ScriptClause.THROW)) {
       private SearchContext searchContext;
 
       @Override
@@ -858,7 +819,8 @@ public final class ExtendedConditions {
    * @since Selenium WebDriver 3.3.1
    */
   public static ExtendedCondition<Boolean> invisibilityOfElementLocated(final By locator) {
-    ExtendedCondition<Boolean> ec = new ExtendedCondition<Boolean>() {
+    ExtendedCondition<Boolean> ec = new ScriptClause.Extended<Boolean>(
+        ScriptClause.of(locator, Check.invisible, null, null, true)) {
       private SearchContext searchContext;
 
       @Override
@@ -918,4 +880,14 @@ public final class ExtendedConditions {
     return ec;
   }
 
+  /**
+   * An expectation for the page to have no XHR or fetch request (nor short timer) pending for the
+   * "wait.network.quiet" milliseconds, see NetworkIdle.
+   *
+   * @return true once the page is idle
+   */
+  public static ExtendedCondition<Boolean> networkToBeIdle() {
+    return new NetworkIdle();
+  }
+
 }
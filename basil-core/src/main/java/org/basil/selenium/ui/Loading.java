@@ -5,6 +5,8 @@
 package org.basil.selenium.ui;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.basil.Config.WAIT_NETWORK_BOUND;
+import static org.basil.Config.WAIT_NETWORK_IDLE;
 import static org.basil.Config.WEB_ELEMENT_LOADING_UNAVAILABLE_AS_IDLE;
 
 import java.util.NoSuchElementException;
@@ -12,34 +14,50 @@ import java.util.concurrent.TimeUnit;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Loading - represents a loading indicator.
+ * Loading - represents a loading indicator, its begin and finish are waited for with a
+ * MutationWait, which polls (every 50 and 500 milliseconds) only when it can't observe the DOM.
+ * The implicit waits wait for the NetworkIdle first when the driver can execute scripts (unless
+ * "wait.network.idle" is false), instead of sleeping for the loading to begin, and then for the
+ * indicator only if it's still in progress. The network is waited for no longer than the seconds
+ * they would have slept, or the "wait.network.bound" milliseconds when they wouldn't.
  *
  * @author ryan131
  * @since Dec 6, 2016, 4:35:24 PM
  */
 public class Loading {
 
+  private static final Logger logger = LoggerFactory.getLogger(Loading.class);
+
   protected By locator;
   protected WebElement loading;
 
   private Status status;
-  private SearchContextWait wait;
+  private MutationWait wait;
+  private SearchContext searchContext;
+  private long timeoutInSeconds;
 
   public Loading(SearchContext searchContext, By locator, long timeoutInSeconds) {
     this.locator = checkNotNull(locator);
 
     status = new Status();
-    wait = new SearchContextWait(checkNotNull(searchContext), timeoutInSeconds);
+    wait = new MutationWait(checkNotNull(searchContext), timeoutInSeconds);
+    this.searchContext = searchContext;
+    this.timeoutInSeconds = timeoutInSeconds;
   }
 
   public Loading(SearchContext searchContext, WebElement loading, long timeoutInSeconds) {
     this.loading = checkNotNull(loading);
  
     status = new Status();
-    wait = new SearchContextWait(checkNotNull(searchContext), timeoutInSeconds);
+    wait = new MutationWait(checkNotNull(searchContext), timeoutInSeconds);
+    this.searchContext = searchContext;
+    this.timeoutInSeconds = timeoutInSeconds;
   }
 
   /**
@@ -49,32 +67,53 @@ public class Loading {
     this.locator = anotherLoading.locator;
     this.loading = anotherLoading.loading;
     this.wait = anotherLoading.wait;
+    this.searchContext = anotherLoading.searchContext;
+    this.timeoutInSeconds = anotherLoading.timeoutInSeconds;
   }
 
   // Wait methods
 
   public void setTimeout(long timeoutInSeconds) {
     wait.withTimeout(timeoutInSeconds, TimeUnit.SECONDS);
+    this.timeoutInSeconds = timeoutInSeconds;
+  }
+
+  /**
+   * Waits up to the milliseconds for the network of the page to be idle, a page that doesn't get
+   * idle in time (e.g. one polling its server) is left to the indicator.
+   */
+  private void waitUntilNetworkIdle(long timeoutInMillis) {
+    NetworkIdle networkIdle = new NetworkIdle();
+    SearchContextWait idleWait = new SearchContextWait(searchContext, timeoutInSeconds, 50);
+    idleWait.withTimeout(Math.min(timeoutInMillis, TimeUnit.SECONDS.toMillis(timeoutInSeconds)),
+        TimeUnit.MILLISECONDS);
+    try {
+      idleWait.until(networkIdle);
+    } catch (TimeoutException te) {
+      logger.debug(String.format("The network wasn't idle in %d ms (%d requests and %d timers "
+          + "pending), waiting for the loading.", timeoutInMillis, networkIdle.getPending(),
+          networkIdle.getTimers()));
+    }
   }
 
   private WebElement waitUntilBegin() {
     wait.pollingEvery(50, TimeUnit.MILLISECONDS);
     if (status.isUnavailable()) {
       if (WEB_ELEMENT_LOADING_UNAVAILABLE_AS_IDLE) {
-        return loading = wait.until(ExtendedConditions.visibilityOfElementLocated(locator));
+        return loading = wait.untilVisible(locator);
       } else {
         throw new NoSuchElementException("The loading is unavailable.");
       }
     }
     if (status.isIdle()) {
-      return wait.until(ExtendedConditions.visibilityOf(loading));
+      return wait.untilVisible(loading);
     }
     // status.isInProgress
     return loading;
   }
 
   private WebElement waitUntilFinish() {
-    return wait.pollingEvery(500, TimeUnit.MILLISECONDS).until(ExtendedConditions.invisibilityOf(loading));
+    return wait.pollingEvery(500, TimeUnit.MILLISECONDS).untilInvisible(loading);
   }
 
   // Smart waits
@@ -86,18 +125,26 @@ public class Loading {
     return waitImplicitlyInSeconds(0);
   }
 
+  /**
+   * Waits for the network to be idle (for the seconds at most, or the "wait.network.bound"
+   * milliseconds when there are none), or for the seconds when it can't be tracked, then for the
+   * loading to finish if it's still in progress.
+   */
   public WebElement waitImplicitlyInSeconds(int seconds) {
+    if (status.isUnavailable() && !WEB_ELEMENT_LOADING_UNAVAILABLE_AS_IDLE) {
+      throw new NoSuchElementException("The loading is unavailable.");
+    }
+    boolean trackable = WAIT_NETWORK_IDLE && NetworkIdle.isTrackable(searchContext);
+    if (trackable) {
+      waitUntilNetworkIdle(seconds > 0 ? seconds * 1000L : WAIT_NETWORK_BOUND);
+    }
     if (status.isUnavailable()) {
-      if (WEB_ELEMENT_LOADING_UNAVAILABLE_AS_IDLE) {
-        return null;
-      } else {
-        throw new NoSuchElementException("The loading is unavailable.");
-      }
+      return null;
     }
     // status.isInProgress
-    if (seconds > 0) {
+    if (!trackable && seconds > 0) {
       try {
-        Thread.sleep(seconds * 1000);
+        Thread.sleep(Deadline.clip(seconds * 1000L));
       } catch (InterruptedException ie) {}
     }
     if (status.isIdle()) {
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import static org.basil.Config.WAIT_INTERVAL;
+import static org.basil.Config.WAIT_MUTATION_OBSERVER;
+import static org.basil.Config.WAIT_MUTATION_SCRIPT;
+import static org.basil.Config.WAIT_MUTATION_SLICE;
+import static org.basil.Config.WAIT_TIMEOUT;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.Basil;
+import org.basil.selenium.BasilContext;
+import org.basil.selenium.base.DomScripts;
+import org.basil.selenium.base.DriverUtil;
+import org.basil.selenium.base.SessionErrors;
+import org.basil.selenium.service.XPathUtil;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mutation Wait - Waits for an element to be present, visible or invisible with a MutationObserver
+ * injected by an asynchronous script, which calls back as soon as the DOM satisfies the condition.
+ * Unlike polling, a wait takes one script (per slice), besides raising and restoring the script
+ * timeout, and returns without the latency of up to one interval. Falls back to polling the
+ * ExtendedConditions when the driver can't execute scripts, or the locator can't be evaluated in
+ * the browser (a CSS selector, or a locator a BasilContext would concatenate with the locators of
+ * its parents).
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 3:02:44 AM
+ */
+public class MutationWait {
+
+  private static final Logger logger = LoggerFactory.getLogger(MutationWait.class);
+
+  /**
+   * Checks the condition on every mutation of the document (and every 100 ms, for the changes of
+   * styles a MutationObserver doesn't see, like the ones of media queries and animations) until
+   * it's satisfied or the slice of arguments[4] milliseconds has elapsed. The element is either the
+   * first one of the XPath of arguments[1], relative to arguments[0] or the document, or the one
+   * of arguments[2]. The condition of arguments[3] is present, visible or invisible.
+   */
+  private static final String WAIT_SCRIPT =
+      "var root = arguments[0], xpath = arguments[1], target = arguments[2]," +
+      "    condition = arguments[3], slice = arguments[4]," +
+      "    callback = arguments[arguments.length - 1];" +
+      "function find() {" +
+      "  var element = xpath ? document.evaluate(xpath, root || document, null," +
+      "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue : target;" +
+      "  return element && document.documentElement.contains(element) ? element : null;" +
+      "}" +
+      DomScripts.DISPLAYED +
+      "function check() {" +
+      "  var element = find();" +
+      "  var visible = !!element && displayed(element);" +
+      "  var satisfied = condition === 'present' ? !!element :" +
+      "      condition === 'visible' ? visible : !visible;" +
+      "  return satisfied ? {satisfied: true, element: element || target} : null;" +
+      "}" +
+      "var result = check();" +
+      "if (result) {" +
+      "  callback(result);" +
+      "} else {" +
+      "  var done = false, observer, poller, timer;" +
+      "  var finish = function(result) {" +
+      "    if (!done && result) {" +
+      "      done = true;" +
+      "      observer.disconnect();" +
+      "      clearInterval(poller);" +
+      "      clearTimeout(timer);" +
+      "      callback(result);" +
+      "    }" +
+      "  };" +
+      "  observer = new MutationObserver(function() { finish(check()); });" +
+      "  observer.observe(document, {childList: true, subtree: true, attributes: true," +
+      "      characterData: true});" +
+      "  poller = setInterval(function() { finish(check()); }, 100);" +
+      "  timer = setTimeout(function() { finish({satisfied: false}); }, slice);" +
+      "}";
+
+  private static final long SCRIPT_TIMEOUT_MARGIN = 5000;
+
+  private final SearchContext context;
+  private long timeout;
+  private long interval;
+  private long slice = WAIT_MUTATION_SLICE;
+  private boolean observer = WAIT_MUTATION_OBSERVER;
+
+  private int scripts;
+
+  public MutationWait(SearchContext context) {
+    this(context, WAIT_TIMEOUT);
+  }
+
+  public MutationWait(SearchContext context, long timeoutInSeconds) {
+    this.context = context;
+    this.timeout = TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+    this.interval = WAIT_INTERVAL;
+  }
+
+  public MutationWait withTimeout(long duration, TimeUnit unit) {
+    this.timeout = unit.toMillis(duration);
+    return this;
+  }
+
+  /**
+   * Sets the interval of polling, when the wait has to fall back to polling.
+   */
+  public MutationWait pollingEvery(long duration, TimeUnit unit) {
+    this.interval = unit.toMillis(duration);
+    return this;
+  }
+
+  /**
+   * Observes the mutations (when the driver can execute scripts) or polls, overriding the
+   * "wait.mutation.observer".
+   */
+  public MutationWait observing(boolean observer) {
+    this.observer = observer;
+    return this;
+  }
+
+  MutationWait withSlice(long slice) {
+    this.slice = slice;
+    return this;
+  }
+
+  /**
+   * Returns the number of scripts the waits have executed.
+   */
+  public int getScripts() {
+    return scripts;
+  }
+
+  // Conditions
+
+  public WebElement untilPresent(By locator) {
+    return (WebElement) until(Condition.present, locator, null,
+        ExtendedConditions.presenceOfElementLocated(locator));
+  }
+
+  public WebElement untilVisible(By locator) {
+    return (WebElement) until(Condition.visible, locator, null,
+        ExtendedConditions.visibilityOfElementLocated(locator));
+  }
+
+  /**
+   * Waits until the element of the locator is invisible or absent.
+   */
+  public boolean untilInvisible(By locator) {
+    until(Condition.invisible, locator, null,
+        ExtendedConditions.invisibilityOfElementLocated(locator));
+    return true;
+  }
+
+  public WebElement untilVisible(WebElement element) {
+    return (WebElement) until(Condition.visible, null, element,
+        ExtendedConditions.visibilityOf(element));
+  }
+
+  /**
+   * Waits until the element is invisible or detached from the document.
+   */
+  public WebElement untilInvisible(WebElement element) {
+    until(Condition.invisible, null, element, ExtendedConditions.invisibilityOf(element));
+    return element;
+  }
+
+  private Object until(Condition condition, By locator, WebElement element,
+      ExtendedCondition<?> fallback) {
+    JavascriptExecutor executor = observer ? DriverUtil.getJsExecutor(context) : null;
+    Object root = null;
+    String xpath = null;
+    if (locator != null) {
+      Basil basil = Basil.from(locator);
+      if (!basil.hasXPath() || (context instanceof BasilContext && !basil.isConfident())) {
+        executor = null;
+      } else if (context instanceof WebElement && !basil.isConfident()) {
+        root = context;
+        xpath = basil.getXPath().startsWith(".") ? basil.getXPath()
+            : "." + XPathUtil.append(Collections.singletonList(basil.getXPath()));
+      } else {
+        xpath = basil.getXPath();
+      }
+    }
+    if (executor == null) {
+      return poll(fallback, timeout);
+    }
+
+    long budget = Deadline.clip(timeout); // The polling fallback clips its own
+    long deadline = System.currentTimeMillis() + budget;
+    WebDriver driver = DriverUtil.getDriver(context);
+    try {
+      raiseScriptTimeout(driver);
+      long remaining = budget;
+      do {
+        scripts++;
+        Map<?, ?> result = (Map<?, ?>) executor.executeAsyncScript(WAIT_SCRIPT, root, xpath,
+            element, condition.name(), Math.min(remaining, slice));
+        if (Boolean.TRUE.equals(result.get("satisfied"))) {
+          return condition == Condition.invisible && locator != null
+              ? Boolean.TRUE : result.get("element");
+        }
+        remaining = deadline - System.currentTimeMillis();
+      } while (remaining > 0);
+    } catch (StaleElementReferenceException sere) {
+      if (condition == Condition.invisible) {
+        return element; // A detached element is invisible
+      }
+      return poll(fallback, deadline - System.currentTimeMillis());
+    } catch (WebDriverException wde) {
+      if (SessionErrors.isFatal(wde)) {
+        throw SessionErrors.abort(wde, driver,
+            deadline - System.currentTimeMillis());
+      }
+      logger.warn("Unable to wait for the " + fallback + " with a MutationObserver, polling.",
+          wde);
+      return poll(fallback, deadline - System.currentTimeMillis());
+    } finally {
+      restoreScriptTimeout(driver);
+    }
+    throw new TimeoutException(String.format("Expected condition failed: waiting for %s "
+        + "(observed for %d ms with %d scripts)", fallback, budget, scripts));
+  }
+
+  private Object poll(ExtendedCondition<?> condition, long timeout) {
+    return new SearchContextWait(context)
+        .withTimeout(Math.max(timeout, 0), TimeUnit.MILLISECONDS)
+        .pollingEvery(interval, TimeUnit.MILLISECONDS)
+        .until(condition);
+  }
+
+  /**
+   * Raises the script timeout of the driver to cover a slice, for the duration of the wait.
+   */
+  private void raiseScriptTimeout(WebDriver driver) {
+    if (driver != null) {
+      driver.manage().timeouts().setScriptTimeout(
+          slice + SCRIPT_TIMEOUT_MARGIN, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Restores the script timeout of the driver to the "wait.mutation.script" milliseconds, the
+   * WebDriver API has no way to tell the one it had before the wait. A lost session is left alone.
+   */
+  private void restoreScriptTimeout(WebDriver driver) {
+    if (driver == null || SessionErrors.isPoisoned(driver)) {
+      return;
+    }
+    try {
+      driver.manage().timeouts().setScriptTimeout(WAIT_MUTATION_SCRIPT, TimeUnit.MILLISECONDS);
+    } catch (WebDriverException wde) {
+      logger.warn("Unable to restore the script timeout after waiting with a MutationObserver.",
+          wde);
+    }
+  }
+
+  private enum Condition {
+
+    present,
+    visible,
+    invisible;
+
+  }
+
+}
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import static org.basil.Config.WAIT_NETWORK_QUIET;
+import static org.basil.Config.WAIT_NETWORK_TIMERS;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.basil.selenium.base.DriverUtil;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Network Idle - The page to have nothing pending for a quiet period: no XHR or fetch request, and
+ * no timer of up to a delay (a short timer is usually the app deferring its work). The pending
+ * ones are counted by a tracker injected by the first poll on every document, which is why a wait
+ * takes the quiet period at least, and a request sent before the tracker was injected goes unseen.
+ *
+ * The requests sent without XHR or fetch (e.g. JSONP or iframe transports) are counted by hooks,
+ * scripts run once when the tracker is injected, with the tracker as "tracker", which call its
+ * begin() and end(), see addHook(). A driver that can't execute scripts can't tell, the page is
+ * considered idle then.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 7:05:42 AM
+ */
+public class NetworkIdle implements ExtendedCondition<Boolean> {
+
+  /**
+   * Injects the tracker unless it's there already, tracking the timers of up to arguments[0]
+   * milliseconds, and returns the number of the pending requests and timers, and the milliseconds
+   * since the last of them began or ended.
+   */
+  private static final String TRACK_SCRIPT_HEAD =
+      "var maxDelay = arguments[0], tracker = window.__basilNetwork;" +
+      "if (tracker) {" +
+      "  return {pending: tracker.pending, timers: tracker.timerCount," +
+      "      quiet: Date.now() - tracker.last};" +
+      "}" +
+      "tracker = window.__basilNetwork =" +
+      "    {pending: 0, timers: {}, timerCount: 0, last: Date.now()};" +
+      "tracker.begin = function () {" +
+      "  tracker.pending++;" +
+      "  tracker.last = Date.now();" +
+      "};" +
+      "tracker.end = function () {" +
+      "  tracker.pending = Math.max(0, tracker.pending - 1);" +
+      "  tracker.last = Date.now();" +
+      "};" +
+      "tracker.untrack = function (id) {" +
+      "  if (tracker.timers[id]) {" +
+      "    delete tracker.timers[id];" +
+      "    tracker.timerCount--;" +
+      "    tracker.last = Date.now();" +
+      "  }" +
+      "};" +
+      "var originalSend = XMLHttpRequest.prototype.send;" +
+      "XMLHttpRequest.prototype.send = function () {" +
+      "  var done = false;" +
+      "  function finish() {" +
+      "    if (!done) {" +
+      "      done = true;" +
+      "      tracker.end();" +
+      "    }" +
+      "  }" +
+      "  tracker.begin();" +
+      "  this.addEventListener('loadend', finish);" +
+      "  try {" +
+      "    return originalSend.apply(this, arguments);" +
+      "  } catch (e) {" +
+      "    finish();" +
+      "    throw e;" +
+      "  }" +
+      "};" +
+      "if (typeof window.fetch === 'function') {" +
+      "  var originalFetch = window.fetch;" +
+      "  window.fetch = function () {" +
+      "    tracker.begin();" +
+      "    try {" +
+      "      return originalFetch.apply(this, arguments).then(function (response) {" +
+      "        tracker.end();" +
+      "        return response;" +
+      "      }, function (error) {" +
+      "        tracker.end();" +
+      "        throw error;" +
+      "      });" +
+      "    } catch (e) {" +
+      "      tracker.end();" +
+      "      throw e;" +
+      "    }" +
+      "  };" +
+      "}" +
+      "if (maxDelay > 0) {" +
+      "  var originalSetTimeout = window.setTimeout;" +
+      "  var originalClearTimeout = window.clearTimeout;" +
+      "  window.setTimeout = function (callback, delay) {" +
+      "    if (typeof callback !== 'function' || (delay || 0) > maxDelay) {" +
+      "      return originalSetTimeout.apply(window, arguments);" +
+      "    }" +
+      "    var args = Array.prototype.slice.call(arguments, 2);" +
+      "    var id = originalSetTimeout.call(window, function () {" +
+      "      tracker.untrack(id);" +
+      "      callback.apply(window, args);" +
+      "    }, delay);" +
+      "    tracker.timers[id] = true;" +
+      "    tracker.timerCount++;" +
+      "    tracker.last = Date.now();" +
+      "    return id;" +
+      "  };" +
+      "  window.clearTimeout = function (id) {" +
+      "    tracker.untrack(id);" +
+      "    return originalClearTimeout.apply(window, arguments);" +
+      "  };" +
+      "}";
+
+  private static final String TRACK_SCRIPT_TAIL =
+      "return {pending: tracker.pending, timers: tracker.timerCount, quiet: 0};";
+
+  private static final List<String> hooks = new CopyOnWriteArrayList<String>();
+
+  /**
+   * Adds a hook to the trackers injected from now on, a script which calls tracker.begin() and
+   * tracker.end() as the requests the tracker can't see begin and end.
+   */
+  public static void addHook(String hook) {
+    Preconditions.checkNotNull(hook);
+    if (!hooks.contains(hook)) {
+      hooks.add(hook);
+    }
+  }
+
+  /**
+   * Removes the hook from the trackers injected from now on, for the tests to leave no hook behind.
+   */
+  static void removeHook(String hook) {
+    hooks.remove(hook);
+  }
+
+  /**
+   * Returns true if the network of the page behind the search context can be tracked.
+   */
+  public static boolean isTrackable(SearchContext context) {
+    return DriverUtil.getJsExecutor(context) != null;
+  }
+
+  private static String getScript() {
+    StringBuilder script = new StringBuilder(TRACK_SCRIPT_HEAD);
+    for (String hook : hooks) {
+      script.append("try {").append("(function (tracker) {").append(hook).append("})(tracker);")
+          .append("} catch (e) {}");
+    }
+    return script.append(TRACK_SCRIPT_TAIL).toString();
+  }
+
+  private final long quietPeriod;
+  private final long timerDelay;
+  private long pending;
+  private long timers;
+
+  /**
+   * The page to be idle for the "wait.network.quiet" milliseconds, counting the timers of up to the
+   * "wait.network.timers" milliseconds.
+   */
+  public NetworkIdle() {
+    this(WAIT_NETWORK_QUIET, WAIT_NETWORK_TIMERS);
+  }
+
+  /**
+   * @param quietPeriod the milliseconds to have nothing pending for
+   * @param timerDelay the longest delay (in milliseconds) of the timers counted, 0 for none
+   */
+  public NetworkIdle(long quietPeriod, long timerDelay) {
+    Preconditions.checkArgument(quietPeriod >= 0 && timerDelay >= 0);
+    this.quietPeriod = quietPeriod;
+    this.timerDelay = timerDelay;
+  }
+
+  @Override
+  public Boolean apply(SearchContext context) {
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(context);
+    if (executor == null) {
+      return Boolean.TRUE;
+    }
+    Map<?, ?> state = (Map<?, ?>) executor.executeScript(getScript(), timerDelay);
+    pending = ((Number) state.get("pending")).longValue();
+    timers = ((Number) state.get("timers")).longValue();
+    long quiet = ((Number) state.get("quiet")).longValue();
+    return pending == 0 && timers == 0 && quiet >= quietPeriod;
+  }
+
+  /**
+   * Returns the number of the requests pending at the last poll.
+   */
+  public long getPending() {
+    return pending;
+  }
+
+  /**
+   * Returns the number of the timers pending at the last poll.
+   */
+  public long getTimers() {
+    return timers;
+  }
+
+  @Override
+  public String toString() {
+    return "network to be idle for " + quietPeriod + " ms";
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Polling Schedule - The polls of a single wait for a condition, it asks the polling strategy how
+ * long to sleep before each poll, and records the outcome of the wait in the PollingStatistics.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 4:26:58 AM
+ */
+public final class PollingSchedule {
+
+  private final PollingStrategy strategy;
+  private final PollingStatistics.ConditionStatistics condition;
+  private final long start;
+  private final long deadline;
+  private int polls = 1; // The wait polls once before it sleeps
+  private boolean finished;
+
+  /**
+   * @param timeout the timeout of the wait in milliseconds, the sleeps don't go past it, 0 if the
+   *        wait doesn't time out
+   */
+  public PollingSchedule(PollingStrategy strategy, Object condition, long timeout) {
+    this.strategy = Preconditions.checkNotNull(strategy);
+    this.condition = PollingStatistics.of(condition);
+    this.start = System.currentTimeMillis();
+    this.deadline = timeout > 0 ? start + timeout : Long.MAX_VALUE;
+  }
+
+  /**
+   * Returns the milliseconds to sleep before the next poll, given the interval of the wait.
+   */
+  public long next(long interval) {
+    long sleep = strategy.nextInterval(condition, polls, elapsed(), interval);
+    polls++;
+    return Math.max(0, Math.min(sleep, deadline - System.currentTimeMillis()));
+  }
+
+  public int getPolls() {
+    return polls;
+  }
+
+  public void satisfied() {
+    finish(true);
+  }
+
+  public void timedOut() {
+    finish(false);
+  }
+
+  private void finish(boolean satisfied) {
+    if (!finished) {
+      finished = true;
+      condition.record(polls, elapsed(), satisfied);
+    }
+  }
+
+  private long elapsed() {
+    return System.currentTimeMillis() - start;
+  }
+
+}
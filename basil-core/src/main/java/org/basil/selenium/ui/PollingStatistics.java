@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Polling Statistics - The waits, polls, timeouts and the times it took to satisfy the conditions
+ * the waits polled across the run, keyed by the description (toString()) of a condition or its
+ * class. The adaptive polling strategy learns from the times to satisfy, of which the latest
+ * SAMPLES are kept, so it follows a condition getting slower or faster over the run.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 4:18:30 AM
+ */
+public final class PollingStatistics {
+  private PollingStatistics() {}
+
+  /**
+   * Beyond this many conditions (locators made up on the fly for instance), the conditions are
+   * keyed by their class.
+   */
+  private static final int MAX_CONDITIONS = 1024;
+
+  private static final ConcurrentMap<String, ConditionStatistics> conditions =
+      Maps.newConcurrentMap();
+
+  /**
+   * Returns the statistics of the condition, a Function or Predicate of a wait.
+   */
+  public static ConditionStatistics of(Object condition) {
+    String key = key(condition);
+    ConditionStatistics statistics = conditions.get(key);
+    if (statistics == null) {
+      if (conditions.size() >= MAX_CONDITIONS) {
+        key = condition.getClass().getName();
+      }
+      ConditionStatistics newStatistics = new ConditionStatistics(key);
+      statistics = conditions.putIfAbsent(key, newStatistics);
+      if (statistics == null) {
+        statistics = newStatistics;
+      }
+    }
+    return statistics;
+  }
+
+  private static String key(Object condition) {
+    String key = String.valueOf(condition);
+    if (key.startsWith(condition.getClass().getName() + "@")) {
+      return condition.getClass().getName(); // No toString()
+    }
+    // The ExtendedConditions describe the search context they were last applied to
+    int in = key.lastIndexOf(" in ");
+    return in > 0 ? key.substring(0, in) : key;
+  }
+
+  public static List<ConditionStatistics> getConditions() {
+    List<ConditionStatistics> sorted = Lists.newArrayList(conditions.values());
+    Collections.sort(sorted, new Comparator<ConditionStatistics>() {
+      @Override
+      public int compare(ConditionStatistics one, ConditionStatistics another) {
+        return one.condition.compareTo(another.condition);
+      }
+    });
+    return sorted;
+  }
+
+  public static String getStatistics() {
+    StringBuilder builder = new StringBuilder("PollingStatistics {");
+    for (ConditionStatistics condition : getConditions()) {
+      builder.append(System.lineSeparator()).append("  ").append(condition);
+    }
+    return builder.append(conditions.isEmpty() ? "}" : System.lineSeparator() + "}").toString();
+  }
+
+  static void reset() {
+    conditions.clear();
+  }
+
+  /**
+   * The statistics of a condition.
+   */
+  public static final class ConditionStatistics {
+
+    private static final int SAMPLES = 128;
+
+    private final String condition;
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder satisfied = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    // The latest times to satisfy in milliseconds, a ring buffer
+    private final long[] samples = new long[SAMPLES];
+    private int sampled;
+
+    private ConditionStatistics(String condition) {
+      this.condition = condition;
+    }
+
+    void record(int polls, long elapsed, boolean satisfied) {
+      waits.increment();
+      this.polls.add(polls);
+      if (satisfied) {
+        this.satisfied.increment();
+        synchronized (samples) {
+          samples[sampled++ % SAMPLES] = elapsed;
+        }
+      } else {
+        timeouts.increment();
+      }
+    }
+
+    public String getCondition() {
+      return condition;
+    }
+
+    public long getWaits() {
+      return waits.sum();
+    }
+
+    public long getPolls() {
+      return polls.sum();
+    }
+
+    public long getSatisfied() {
+      return satisfied.sum();
+    }
+
+    public long getTimeouts() {
+      return timeouts.sum();
+    }
+
+    public double getPollsPerWait() {
+      long waits = getWaits();
+      return waits == 0 ? 0 : (double) getPolls() / waits;
+    }
+
+    /**
+     * Returns the time (in milliseconds) within which the given percentage of the latest waits
+     * satisfied the condition, for example getPercentileMillis(90) for the p90.
+     */
+    public long getPercentileMillis(double percentile) {
+      long[] sorted;
+      synchronized (samples) {
+        sorted = Arrays.copyOf(samples, Math.min(sampled, SAMPLES));
+      }
+      if (sorted.length == 0) {
+        return 0;
+      }
+      Arrays.sort(sorted);
+      int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+      return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+    @Override
+    public String toString() {
+      List<String> percentiles = Lists.newArrayList();
+      for (int percentile : new int[] {50, 90, 99}) {
+        percentiles.add("p" + percentile + "=" + getPercentileMillis(percentile) + "ms");
+      }
+      return String.format("%s {waits=%d, timeouts=%d, polls/wait=%.1f, time to satisfy %s}",
+          condition, getWaits(), getTimeouts(), getPollsPerWait(), percentiles);
+    }
+
+  }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Polling Strategies - The polling strategies of the waits:
+ * <ul>
+ * <li>fixed: polls every interval, the way FluentWait does.</li>
+ * <li>backoff: polls after an eighth of the interval and sleeps 1.5 times longer on every poll up
+ *     to two intervals, with a jitter of 20% so the waits of parallel tests don't poll in lockstep.
+ *     Fast conditions are satisfied sooner, slow ones are polled fewer times.</li>
+ * <li>adaptive: learns the typical time it takes to satisfy a condition across the run, sleeps
+ *     through the time the condition is unlikely to be satisfied and polls densely around it. It
+ *     backs off until the condition has been satisfied a few times, and past its usual time.</li>
+ * </ul>
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 4:09:47 AM
+ */
+public final class PollingStrategies {
+  private PollingStrategies() {}
+
+  /**
+   * The shortest sleep of the backoff and adaptive strategies, in milliseconds.
+   */
+  static final long MIN_INTERVAL = 10;
+
+  private static final PollingStrategy FIXED = new PollingStrategy() {
+    @Override
+    public long nextInterval(PollingStatistics.ConditionStatistics condition, int polls,
+        long elapsed, long interval) {
+      return interval;
+    }
+
+    @Override
+    public String toString() {
+      return "fixed";
+    }
+  };
+
+  private static final PollingStrategy BACKOFF = backoff(8, 1.5, 2, 0.2);
+
+  private static final PollingStrategy ADAPTIVE = adaptive(3, BACKOFF);
+
+  public static PollingStrategy fixed() {
+    return FIXED;
+  }
+
+  public static PollingStrategy backoff() {
+    return BACKOFF;
+  }
+
+  /**
+   * Returns an exponential backoff, its first sleep is the interval divided by the divisor, every
+   * sleep is the previous one times the multiplier, up to the interval times the max, give or take
+   * the jitter (a fraction of the sleep).
+   */
+  public static PollingStrategy backoff(final int divisor, final double multiplier,
+      final int max, final double jitter) {
+    Preconditions.checkArgument(divisor > 0 && multiplier >= 1 && max > 0);
+    Preconditions.checkArgument(jitter >= 0 && jitter < 1);
+    return new PollingStrategy() {
+      @Override
+      public long nextInterval(PollingStatistics.ConditionStatistics condition, int polls,
+          long elapsed, long interval) {
+        double sleep = Math.max(MIN_INTERVAL, (double) interval / divisor)
+            * Math.pow(multiplier, polls - 1);
+        sleep = Math.min(sleep, (double) interval * max);
+        if (jitter > 0) {
+          sleep *= 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        }
+        return Math.max(MIN_INTERVAL, Math.round(sleep));
+      }
+
+      @Override
+      public String toString() {
+        return String.format("backoff {1/%d, x%s, max %d, jitter %s}", divisor, multiplier, max,
+            jitter);
+      }
+    };
+  }
+
+  public static PollingStrategy adaptive() {
+    return ADAPTIVE;
+  }
+
+  /**
+   * Returns an adaptive strategy, which falls back to the given strategy until the condition has
+   * been satisfied the given number of times, and once the usual time of it has passed.
+   */
+  public static PollingStrategy adaptive(final int warmup, final PollingStrategy fallback) {
+    Preconditions.checkArgument(warmup > 0);
+    Preconditions.checkNotNull(fallback);
+    return new PollingStrategy() {
+      @Override
+      public long nextInterval(PollingStatistics.ConditionStatistics condition, int polls,
+          long elapsed, long interval) {
+        if (condition.getSatisfied() < warmup) {
+          return fallback.nextInterval(condition, polls, elapsed, interval);
+        }
+        long median = condition.getPercentileMillis(50);
+        long late = Math.max(condition.getPercentileMillis(90), 2 * median);
+        long dense = Math.min(Math.max(MIN_INTERVAL, median / 10), interval);
+        long window = median * 3 / 4;
+        if (elapsed + dense < window) {
+          // Unlikely to be satisfied yet, though not sleeping longer than a few intervals
+          return Math.min(window - elapsed, 4 * interval);
+        }
+        if (elapsed <= late) {
+          return dense;
+        }
+        return fallback.nextInterval(condition, polls, elapsed, interval);
+      }
+
+      @Override
+      public String toString() {
+        return "adaptive {warmup " + warmup + ", " + fallback + "}";
+      }
+    };
+  }
+
+  public static PollingStrategy fromString(String string) {
+    switch (string.toLowerCase()) {
+      case "fixed":
+        return fixed();
+      case "backoff":
+        return backoff();
+      case "adaptive":
+        return adaptive();
+      default:
+        throw new IllegalArgumentException(
+            "PollingStrategy cannot be parsed from: \"" + string + "\".");
+    }
+  }
+
+}
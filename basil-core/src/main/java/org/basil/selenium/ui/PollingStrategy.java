@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+/**
+ * Polling Strategy - Tells how long a wait sleeps before it polls its condition again, given the
+ * interval the wait is configured with and what it has learned about the condition so far. See
+ * PollingStrategies for the fixed, exponential backoff and adaptive strategies.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 4:05:12 AM
+ */
+public interface PollingStrategy {
+
+  /**
+   * Returns the milliseconds to sleep before the next poll.
+   *
+   * @param condition the statistics of the condition across the run
+   * @param polls the number of polls of this wait so far, at least 1
+   * @param elapsed the milliseconds since this wait began
+   * @param interval the interval (in milliseconds) the wait is configured with
+   */
+  long nextInterval(PollingStatistics.ConditionStatistics condition, int polls, long elapsed,
+      long interval);
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import org.basil.selenium.Basil;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * Script Clause - What a condition checks, told in terms the composite conditions can evaluate in
+ * the browser: the element (or the XPath of the locator of it), the check and its arguments, and
+ * the outcome when the element is missing (absent, or detached when it's a WebElement).
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 5:03:26 AM
+ */
+final class ScriptClause {
+
+  enum Check {
+
+    present,
+    visible,
+    invisible,
+    attribute,
+    attributeContains,
+    attributeNotContains,
+    attributeEquals,
+    text,
+    textNotContains;
+
+  }
+
+  /**
+   * The outcome of a clause whose element is missing, where "throw" stands for the exception the
+   * condition would have thrown.
+   */
+  static final String THROW = "throw";
+
+  final Check check;
+  final WebElement element;
+  final By locator;
+  final String xpath;
+  final String name;
+  final String value;
+  final Object missing;
+
+  private ScriptClause(Check check, WebElement element, By locator, String xpath, String name,
+      String value, Object missing) {
+    this.check = check;
+    this.element = element;
+    this.locator = locator;
+    this.xpath = xpath;
+    this.name = name;
+    this.value = value;
+    this.missing = missing;
+  }
+
+  /**
+   * Returns the clause of a check on the element, or null if the element is missing.
+   */
+  static ScriptClause of(WebElement element, Check check, String name, String value,
+      Object missing) {
+    return element == null ? null : new ScriptClause(check, element, null, null, name, value,
+        missing);
+  }
+
+  /**
+   * Returns the clause of a check on the element located by the locator (in the document), or null
+   * if the locator has no XPath to evaluate.
+   */
+  static ScriptClause of(By locator, Check check, String name, String value, Object missing) {
+    Basil basil = Basil.from(locator);
+    return basil.hasXPath() ? new ScriptClause(check, null, locator, basil.getXPath(), name, value,
+        missing) : null;
+  }
+
+  /**
+   * A condition that can tell its clause, null if it can't be evaluated in the browser.
+   */
+  interface Scriptable {
+
+    ScriptClause clause();
+
+  }
+
+  abstract static class Expected<T> implements ExpectedCondition<T>, Scriptable {
+
+    private final ScriptClause clause;
+
+    Expected(ScriptClause clause) {
+      this.clause = clause;
+    }
+
+    @Override
+    public ScriptClause clause() {
+      return clause;
+    }
+
+  }
+
+  abstract static class Extended<T> implements ExtendedCondition<T>, Scriptable {
+
+    private final ScriptClause clause;
+
+    Extended(ScriptClause clause) {
+      this.clause = clause;
+    }
+
+    @Override
+    public ScriptClause clause() {
+      return clause;
+    }
+
+  }
+
+}
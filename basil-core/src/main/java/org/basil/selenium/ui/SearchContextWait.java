@@ -4,16 +4,23 @@
 
 package org.basil.selenium.ui;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static org.basil.Config.WAIT_INTERVAL;
 import static org.basil.Config.WAIT_NOT_FOUND;
+import static org.basil.Config.WAIT_POLLING;
 import static org.basil.Config.WAIT_TIMEOUT;
 import static org.basil.selenium.ui.SearchContextWait.FluentWaitAdapter.adapt;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.basil.selenium.base.DriverUtil;
+import org.basil.selenium.base.SessionErrors;
+import org.openqa.selenium.NoSuchSessionException;
 import org.openqa.selenium.NotFoundException;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.Clock;
 import org.openqa.selenium.support.ui.Duration;
 import org.openqa.selenium.support.ui.FluentWait;
@@ -21,16 +28,23 @@ import org.openqa.selenium.support.ui.Sleeper;
 import org.openqa.selenium.support.ui.SystemClock;
 import org.spearmint.Spearmint;
 
+import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 
 /**
- * A specialization of {@link FluentWait} that uses SearchContext instances.
+ * A specialization of {@link FluentWait} that uses SearchContext instances, and polls on the
+ * schedule of a {@link PollingStrategy} (the one of "wait.polling" by default).
  *
  * @author ryan131
  * @since Dec 16, 2015, 8:05:07 PM
  */
 public class SearchContextWait extends FluentWait<SearchContext> {
 
+  private final SearchContext context;
+  private final SchedulingSleeper sleeper;
+  private PollingStrategy polling = WAIT_POLLING;
+  private long timeoutInMillis = 500; // The default of FluentWait, not to shadow its timeout
+
   // searchContext
   // searchContext,                 timeout (seconds)
   // searchContext,                 timeout (seconds), interval (milliseconds)
@@ -50,11 +64,17 @@ public class SearchContextWait extends FluentWait<SearchContext> {
   }
 
   public SearchContextWait(SearchContext context, Clock clock, Sleeper sleeper) {
+    this(context, clock, new SchedulingSleeper(sleeper));
+  }
+
+  private SearchContextWait(SearchContext context, Clock clock, SchedulingSleeper sleeper) {
     super(context, clock, sleeper);
+    this.context = context;
+    this.sleeper = sleeper;
   }
 
   public SearchContextWait(SearchContext context, Clock clock, Sleeper sleeper, long timeout, long interval) {
-    super(context, clock, sleeper);
+    this(context, clock, sleeper);
     withTimeout(timeout, TimeUnit.SECONDS);
     pollingEvery(interval, TimeUnit.MILLISECONDS);
     if (WAIT_NOT_FOUND.equals(NotFound.IGNORE)) {
@@ -67,10 +87,13 @@ public class SearchContextWait extends FluentWait<SearchContext> {
    * specified {@link SearchContext} object. <b>EXPERIMENTAL</b>.
    */
   public SearchContextWait(SearchContext context, FluentWait<? extends SearchContext> wait) {
-    super(context, adapt(wait).clock(), adapt(wait).sleeper());
+    this(context, adapt(wait).clock(), adapt(wait).sleeper());
     withTimeout(adapt(wait).timeout().in(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS).
     pollingEvery(adapt(wait).interval().in(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS).
     ignoreAll(adapt(wait).ignoredExceptions()).withMessage(adapt(wait).messageSupplier());
+    if (wait instanceof SearchContextWait) {
+      polling(((SearchContextWait) wait).polling);
+    }
   }
 
   /**
@@ -80,6 +103,134 @@ public class SearchContextWait extends FluentWait<SearchContext> {
     this(adapt(wait).input(), wait);
   }
 
+  /**
+   * Sets the strategy that tells how long to sleep between the polls, the interval is what the
+   * strategy scales, see PollingStrategies.
+   */
+  public SearchContextWait polling(PollingStrategy polling) {
+    this.polling = checkNotNull(polling);
+    return this;
+  }
+
+  @Override
+  public FluentWait<SearchContext> withTimeout(long duration, TimeUnit unit) {
+    timeoutInMillis = unit.toMillis(duration);
+    return super.withTimeout(duration, unit);
+  }
+
+  /**
+   * Polls the condition on the schedule of the polling strategy, and records the polls and the
+   * time it took to satisfy it in the PollingStatistics. The timeout is clipped to the Deadline
+   * this wait is nested in, and is the deadline of the waits nested in the condition. The wait
+   * gives up at once when the session of its driver is lost, even on the exceptions it ignores,
+   * see SessionErrors.
+   */
+  @Override
+  public <V> V until(Function<? super SearchContext, V> isTrue) {
+    WebDriver driver = DriverUtil.getDriver(context);
+    long start = System.currentTimeMillis();
+    long budget = Deadline.clip(timeoutInMillis);
+    if (budget != timeoutInMillis) {
+      super.withTimeout(budget, TimeUnit.MILLISECONDS);
+    }
+    Deadline deadline = Deadline.open(String.valueOf(isTrue), budget, TimeUnit.MILLISECONDS);
+    PollingSchedule outer = sleeper.schedule; // A wait in the condition of this wait
+    PollingSchedule schedule = sleeper.schedule = new PollingSchedule(polling, isTrue, budget);
+    try {
+      V value = super.until(new SessionGuard<V>(isTrue, driver));
+      schedule.satisfied();
+      return value;
+    } catch (TimeoutException te) {
+      schedule.timedOut();
+      throw te;
+    } catch (SessionLost sl) {
+      throw SessionErrors.abort(sl.fatal, driver,
+          budget - (System.currentTimeMillis() - start));
+    } finally {
+      sleeper.schedule = outer;
+      deadline.close();
+      if (budget != timeoutInMillis) {
+        super.withTimeout(timeoutInMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Applies the condition, unless the session of the driver is lost. A fatal error is thrown as a
+   * SessionLost, which FluentWait can't ignore.
+   */
+  private static class SessionGuard<V> implements Function<SearchContext, V> {
+
+    private final Function<? super SearchContext, V> condition;
+    private final WebDriver driver;
+
+    private SessionGuard(Function<? super SearchContext, V> condition, WebDriver driver) {
+      this.condition = condition;
+      this.driver = driver;
+    }
+
+    @Override
+    public V apply(SearchContext input) {
+      if (SessionErrors.isPoisoned(driver)) {
+        throw new SessionLost(new NoSuchSessionException("The session of the driver is lost."));
+      }
+      try {
+        return condition.apply(input);
+      } catch (RuntimeException re) {
+        if (SessionErrors.isFatal(re)) {
+          throw new SessionLost(re);
+        }
+        throw re;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(condition);
+    }
+
+  }
+
+  /**
+   * Carries a fatal error out of FluentWait.until(), it never escapes this wait.
+   */
+  private static class SessionLost extends Error {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RuntimeException fatal;
+
+    private SessionLost(RuntimeException fatal) {
+      super(null, fatal, false, false);
+      this.fatal = fatal;
+    }
+
+  }
+
+  /**
+   * Sleeps for the interval the schedule of the current wait tells.
+   */
+  private static class SchedulingSleeper implements Sleeper {
+
+    private final Sleeper sleeper;
+    private PollingSchedule schedule;
+
+    private SchedulingSleeper(Sleeper sleeper) {
+      this.sleeper = sleeper instanceof SchedulingSleeper
+          ? ((SchedulingSleeper) sleeper).sleeper : checkNotNull(sleeper);
+    }
+
+    @Override
+    public void sleep(Duration duration) throws InterruptedException {
+      if (schedule != null) {
+        duration = new Duration(schedule.next(duration.in(TimeUnit.MILLISECONDS)),
+            TimeUnit.MILLISECONDS);
+      }
+      sleeper.sleep(duration);
+    }
+
+  }
+
   static class FluentWaitAdapter<T> {
     private FluentWait<T> wait;
     FluentWaitAdapter(FluentWait<T> wait) {
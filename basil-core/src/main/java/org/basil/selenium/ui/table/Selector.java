@@ -21,6 +21,7 @@ public abstract class Selector {
 
   private OuterCondition outerCondition;
   private Selector joinedSelector;
+  private boolean negated;
 
   Selector(Type type) {
     this.type = type;
@@ -54,6 +55,14 @@ public abstract class Selector {
     return joinedSelector;
   }
 
+  /**
+   * Whether the condition itself is negated, which is kept apart from the outer condition so that
+   * joining a negated selector doesn't lose its negation.
+   */
+  boolean negated() {
+    return negated;
+  }
+
   /**
    * Joins another condition like: condition1 && condition2
    */
@@ -90,11 +99,10 @@ public abstract class Selector {
    * Use the condition like: !condition, !!condition, or !!!condition, and so on
    */
   public Selector not() {
-    if (outerCondition.equals(OuterCondition.NOT)) {
-      outerCondition = OuterCondition.NOT_NOT;
-    }
-    if (outerCondition.equals(OuterCondition.NOT_NOT)) {
-      outerCondition = OuterCondition.NOT;
+    negated = !negated;
+    if (outerCondition.equals(OuterCondition.NOT)
+        || outerCondition.equals(OuterCondition.NOT_NOT)) {
+      outerCondition = negated ? OuterCondition.NOT : OuterCondition.NOT_NOT;
     }
     return this;
   }
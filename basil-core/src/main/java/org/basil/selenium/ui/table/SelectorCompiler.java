@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.Locale;
+
+import org.basil.selenium.service.XPathUtil;
+import org.basil.selenium.ui.table.Selector.OuterCondition;
+import org.basil.selenium.ui.table.Selectors.KeySelector;
+import org.basil.selenium.ui.table.Selectors.KeyValueSelector;
+import org.basil.selenium.ui.table.Selectors.StringValueSelector;
+
+import com.google.common.base.Function;
+
+/**
+ * SelectorCompiler - Compiles a Selector tree into a single XPath predicate on the rows (tr) of a
+ * table, so that the rows are filtered by the browser instead of by pulling every cell first.
+ *
+ * A key selector selects the row at its index or key, a value selector compares the text of the
+ * cell at its column index or key. Joins nest to the right, a.and(b) with b.or(c) is compiled as
+ * (a and (b or c)). Case insensitive comparisons fold ASCII letters only, as XPath 1.0 has no
+ * lower-case().
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 5:12:40 PM
+ */
+final class SelectorCompiler {
+
+  private static final String UPPER_CASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final String LOWER_CASE = "abcdefghijklmnopqrstuvwxyz";
+
+  private final Function<String, Integer> rowIndexOfKey;
+  private final Function<String, Integer> columnIndexOfKey;
+
+  SelectorCompiler(Function<String, Integer> rowIndexOfKey,
+      Function<String, Integer> columnIndexOfKey) {
+    this.rowIndexOfKey = rowIndexOfKey;
+    this.columnIndexOfKey = columnIndexOfKey;
+  }
+
+  /**
+   * Returns the predicate, without brackets, that the rows selected by the selector satisfy.
+   */
+  String compile(Selector selector) {
+    StringBuilder predicate = new StringBuilder();
+    append(predicate, selector);
+    return predicate.toString();
+  }
+
+  private void append(StringBuilder predicate, Selector selector) {
+    String operator = operator(selector.outerCondition());
+    Selector joinedSelector = selector.joinedSelector();
+    boolean joined = operator != null && joinedSelector != null;
+
+    if (joined) {
+      predicate.append('(');
+    }
+    if (selector.negated()) {
+      predicate.append("not(");
+    }
+    appendCondition(predicate, selector);
+    if (selector.negated()) {
+      predicate.append(')');
+    }
+    if (joined) {
+      predicate.append(' ').append(operator).append(' ');
+      append(predicate, joinedSelector); // andNot() and orNot() have negated the joined selector
+      predicate.append(')');
+    }
+  }
+
+  private static String operator(OuterCondition outerCondition) {
+    switch (outerCondition) {
+      case AND:
+      case AND_NOT:
+        return "and";
+      case OR:
+      case OR_NOT:
+        return "or";
+      default:
+        return null;
+    }
+  }
+
+  private void appendCondition(StringBuilder predicate, Selector selector) {
+    if (selector instanceof KeySelector) {
+      Object key = ((KeySelector<?>) selector).key();
+      int rowIndex = key instanceof Integer ? (Integer) key : rowIndexOfKey.apply((String) key);
+      predicate.append("position() = ").append(rowIndex);
+      return;
+    }
+    if (!(selector instanceof KeyValueSelector)) {
+      throw new IllegalArgumentException("Unable to compile " + selector.getClass().getName());
+    }
+
+    KeyValueSelector<?, ?> valueSelector = (KeyValueSelector<?, ?>) selector;
+    if (valueSelector.condition() == null || valueSelector.value() == null) {
+      throw new IllegalStateException(
+          "No condition on the value of " + valueSelector.key() + " to compile.");
+    }
+
+    Object key = valueSelector.key();
+    int columnIndex =
+        key instanceof Integer ? (Integer) key : columnIndexOfKey.apply((String) key);
+    String cell = String.format("string(td[%d])", columnIndex);
+    String value = String.valueOf(valueSelector.value());
+    boolean ignoreCase = selector instanceof StringValueSelector
+        && !((StringValueSelector<?>) selector).caseSensitive();
+    if (ignoreCase) {
+      cell = String.format("translate(%s, '%s', '%s')", cell, UPPER_CASE, LOWER_CASE);
+      value = value.toLowerCase(Locale.ENGLISH);
+    }
+    String literal = literal(value);
+
+    switch (valueSelector.condition()) {
+      case EQUAL:
+        predicate.append(cell).append(" = ").append(literal);
+        break;
+      case NOT_EQUAL:
+        predicate.append(cell).append(" != ").append(literal);
+        break;
+      case LESS_THAN:
+        appendNumeric(predicate, cell, "<", literal);
+        break;
+      case LESS_OR_EQUAL:
+        appendNumeric(predicate, cell, "<=", literal);
+        break;
+      case GREATER_THAN:
+        appendNumeric(predicate, cell, ">", literal);
+        break;
+      case GREATER_OR_EQUAL:
+        appendNumeric(predicate, cell, ">=", literal);
+        break;
+      case CONTAINS:
+        predicate.append(String.format("contains(%s, %s)", cell, literal));
+        break;
+      case NOT_CONTAINS:
+        predicate.append(String.format("not(contains(%s, %s))", cell, literal));
+        break;
+      case STARTS_WITH:
+        predicate.append(String.format("starts-with(%s, %s)", cell, literal));
+        break;
+      case ENDS_WITH:
+        // XPath 1.0 has no ends-with()
+        predicate.append(String.format("substring(%s, string-length(%s) - %d) = %s",
+            cell, cell, value.length() - 1, literal));
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            "Unable to compile the condition " + valueSelector.condition());
+    }
+  }
+
+  private static void appendNumeric(StringBuilder predicate, String cell, String operator,
+      String literal) {
+    predicate.append(String.format("number(%s) %s number(%s)", cell, operator, literal));
+  }
+
+  /**
+   * Returns the value as an XPath string literal, see {@link XPathUtil#literal(String)}.
+   */
+  static String literal(String value) {
+    return XPathUtil.literal(value);
+  }
+
+}
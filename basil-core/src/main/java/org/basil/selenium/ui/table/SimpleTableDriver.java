@@ -4,8 +4,8 @@
 
 package org.basil.selenium.ui.table;
 
+import static org.basil.Config.TABLE_SNAPSHOT_BULK;
 import static org.spearmint.collect.Lists.keyList;
-import static org.spearmint.collect.Lists.valueList;
 import static org.spearmint.collect.Maps.indexToKeyMap;
 
 import java.lang.annotation.Documented;
@@ -13,12 +13,15 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 import org.basil.selenium.BasilElement;
+import org.basil.selenium.base.DriverUtil;
 import org.basil.selenium.service.XPathUtil;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
@@ -26,10 +29,14 @@ import org.slf4j.LoggerFactory;
 import org.spearmint.collect.AbstractTableDriver;
 import org.spearmint.collect.TableAccessException;
 
-import com.google.common.collect.HashBasedTable;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
 
 /**
  * Simple (Web) TableDriver implementation
@@ -41,9 +48,98 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
 
   private static final Logger logger = LoggerFactory.getLogger(SimpleTableDriver.class);
 
+  /**
+   * Defines readRows(xpath), which reads the text of every td of every tr under the node at the
+   * XPath. A cell spanning multiple columns is repeated in each of them, so the values line up with
+   * the column indexes counted by SimpleConfig.
+   */
+  private static final String ROWS_SCRIPT =
+      "function readRows(xpath) {" +
+      "  var root = document.evaluate(xpath, document, null," +
+      "      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+      "  var rows = [];" +
+      "  var children = root ? root.children : [];" +
+      "  for (var r = 0; r < children.length; r++) {" +
+      "    if (children[r].tagName.toLowerCase() !== 'tr') {" +
+      "      continue;" +
+      "    }" +
+      "    var row = [], cells = children[r].children;" +
+      "    for (var c = 0; c < cells.length; c++) {" +
+      "      if (cells[c].tagName.toLowerCase() !== 'td') {" +
+      "        continue;" +
+      "      }" +
+      "      var text = (cells[c].innerText || '').replace(/\\u00a0/g, ' ').trim();" +
+      "      var colspan = Math.max(1, parseInt(cells[c].getAttribute('colspan'), 10) || 1);" +
+      "      for (var s = 0; s < colspan; s++) {" +
+      "        row.push(text);" +
+      "      }" +
+      "    }" +
+      "    rows.push(row);" +
+      "  }" +
+      "  return rows;" +
+      "}";
+
+  /**
+   * Reads every row of the table at the XPath in arguments[0].
+   */
+  private static final String SNAPSHOT_SCRIPT = ROWS_SCRIPT +
+      "return readRows(arguments[0]);";
+
+  /**
+   * Hashes every row of the table at the XPath in arguments[0] the way SimpleSnapshot.rowHash()
+   * does (List.hashCode() over String.hashCode()), and returns the hashes along with the cells of
+   * the rows whose hash differs from the previous one in arguments[1].
+   */
+  private static final String REFRESH_SCRIPT = ROWS_SCRIPT +
+      "function hash(text) {" +
+      "  var h = 0;" +
+      "  for (var i = 0; i < text.length; i++) {" +
+      "    h = (31 * h + text.charCodeAt(i)) | 0;" +
+      "  }" +
+      "  return h;" +
+      "}" +
+      "var rows = readRows(arguments[0]), previous = arguments[1];" +
+      "var hashes = [], changed = [];" +
+      "for (var r = 0; r < rows.length; r++) {" +
+      "  var h = 1;" +
+      "  for (var c = 0; c < rows[r].length; c++) {" +
+      "    h = (31 * h + hash(rows[r][c])) | 0;" +
+      "  }" +
+      "  hashes.push(h);" +
+      "  if (r >= previous.length || previous[r] !== h) {" +
+      "    changed.push({index: r + 1, cells: rows[r]});" +
+      "  }" +
+      "}" +
+      "return {hashes: hashes, changed: changed};";
+
+  /**
+   * Returns the 1-based indexes of the rows of the table at the XPath in arguments[0] that match
+   * the relative XPath in arguments[1].
+   */
+  private static final String ROW_INDEX_SCRIPT =
+      "var root = document.evaluate(arguments[0], document, null," +
+      "    XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+      "var indexes = [];" +
+      "if (root) {" +
+      "  var rows = document.evaluate(arguments[1], root, null," +
+      "      XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+      "  for (var i = 0; i < rows.snapshotLength; i++) {" +
+      "    var index = 1;" +
+      "    var sibling = rows.snapshotItem(i).previousElementSibling;" +
+      "    for (; sibling; sibling = sibling.previousElementSibling) {" +
+      "      if (sibling.tagName.toLowerCase() === 'tr') {" +
+      "        index++;" +
+      "      }" +
+      "    }" +
+      "    indexes.push(index);" +
+      "  }" +
+      "}" +
+      "return indexes;";
+
   private SimpleTableModel table;
   private SimpleConfig config;
   private SimpleSnapshot snapshot;
+  private SelectorCompiler compiler;
 
   // Constructors
 
@@ -61,6 +157,17 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
     this.table = new SimpleTableModel(xpath);
     this.config = new SimpleConfig(table, xpath);
     this.snapshot = new SimpleSnapshot();
+    this.compiler = new SelectorCompiler(new Function<String, Integer>() {
+      @Override
+      public Integer apply(String rowKey) {
+        return config.rowIndex(rowKey);
+      }
+    }, new Function<String, Integer>() {
+      @Override
+      public Integer apply(String columnKey) {
+        return config.columnIndex(columnKey);
+      }
+    });
   }
 
   // XXX Row
@@ -78,7 +185,14 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
   }
 
   public SimpleRow row(String columnKey, String value) {
-    return table.row(config.columnIndex(columnKey), value);
+    return row(Selectors.valueOf(columnKey).equalz(value));
+  }
+
+  /**
+   * Returns the row selected by the selector, which is compiled into the XPath of the row.
+   */
+  public SimpleRow row(Selector selector) {
+    return table.row(String.format("/tr[%s]", compiler.compile(selector)));
   }
 
   public SimpleRow row(int columnIndex1, String value1, int columnIndex2, String value2) {
@@ -86,7 +200,9 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
   }
 
   public SimpleRow row(String columnKey1, String value1, String columnKey2, String value2) {
-    return table.row(config.columnIndex(columnKey1), value1, config.columnIndex(columnKey2), value2);
+    Selector selector = Selectors.valueOf(columnKey1).equalz(value1);
+    selector.and(Selectors.valueOf(columnKey2).equalz(value2));
+    return row(selector);
   }
 
   public List<SimpleRow> rows(int... rowIndexes) {
@@ -97,6 +213,43 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
     return null;
   }
 
+  /**
+   * Returns the rows selected by the selector, see rowIndexes(Selector).
+   */
+  public List<SimpleRow> rows(Selector selector) {
+    List<SimpleRow> rows = Lists.newArrayList();
+    for (int rowIndex : rowIndexes(selector)) {
+      rows.add(table.row(rowIndex));
+    }
+    return rows;
+  }
+
+  /**
+   * Returns the indexes of the rows selected by the selector. The selector is compiled into a
+   * single XPath predicate that the browser evaluates in one script call, so only the indexes of
+   * the matching rows are transferred.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Integer> rowIndexes(Selector selector) {
+    String rowXPath = String.format("tr[%s]", compiler.compile(selector));
+    JavascriptExecutor executor = DriverUtil.getJsExecutor(config().searchContext());
+    if (executor == null) {
+      List<Integer> rowIndexes = Lists.newArrayList(); // Falls back to finding the rows
+      for (WebElement row : table.element().findElements(By.xpath(rowXPath))) {
+        rowIndexes.add(row.findElements(By.xpath("preceding-sibling::tr")).size() + 1);
+      }
+      return rowIndexes;
+    }
+
+    List<Number> rowIndexes =
+        (List<Number>) executor.executeScript(ROW_INDEX_SCRIPT, table.xpath(), rowXPath);
+    List<Integer> indexes = Lists.newArrayListWithCapacity(rowIndexes.size());
+    for (Number rowIndex : rowIndexes) {
+      indexes.add(rowIndex.intValue());
+    }
+    return indexes;
+  }
+
   // XXX Column
 
   public SimpleColumn column(int columnIndex) {
@@ -134,11 +287,28 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
     return config().snapshotMode();
   }
 
+  /**
+   * Returns the snapshot, which is materialized from the table in a single round-trip on first
+   * access when bulk loading is enabled.
+   */
   @Override
   public Snapshot snapshot() {
+    boolean enabled = !snapshotMode().equals(Snapshot.Mode.DISABLE);
+    if (enabled && config().bulkLoad() && !snapshot.isLoaded()) {
+      snapshot.load();
+    }
     return snapshot;
   }
 
+  /**
+   * Brings the snapshot up to date with the table and returns what changed, only the rows whose
+   * content hash changed are transferred. Take a copy() of the snapshot beforehand to keep the
+   * previous state around.
+   */
+  public TableDiff refresh() {
+    return snapshot.refresh();
+  }
+
   @Override
   public SimpleTableModel model() {
     return table;
@@ -231,12 +401,15 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
 
     private SimpleRow(SimpleTableModel table, int columnIndex, String value) {
       this.rowIndex = -1;
-      this.rootXPath = String.format("%s/tr[td[%d][.='%s']]", table.xpath(), columnIndex, value);
+      this.rootXPath = String.format("%s/tr[td[%d][.=%s]]",
+          table.xpath(), columnIndex, SelectorCompiler.literal(value));
     }
 
     private SimpleRow(SimpleTableModel table, int columnIndex1, String value1, int columnIndex2, String value2) {
       this.rowIndex = -1;
-      this.rootXPath = String.format("%s/tr[td[%d][.='%s'] and td[%d][.='%s']]", table.xpath(), columnIndex1, value1, columnIndex2, value2);
+      this.rootXPath = String.format("%s/tr[td[%d][.=%s] and td[%d][.=%s]]", table.xpath(),
+          columnIndex1, SelectorCompiler.literal(value1),
+          columnIndex2, SelectorCompiler.literal(value2));
     }
 
     public SimpleRow(SimpleTableModel table, String xpath) {
@@ -485,6 +658,7 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
 
     private SearchContext searchContext; // A superior search context other than the table itself,
     // it is recommended to set this to the WebDriver instance to alleviate selenium server loads.
+    private boolean bulkLoad = TABLE_SNAPSHOT_BULK;
 
     public SimpleConfig(WebElement table, String xpath) {
       setSearchContext(table);
@@ -524,6 +698,20 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
       this.searchContext = searchContext;
     }
 
+    // Bulk loading
+
+    public boolean bulkLoad() {
+      return bulkLoad;
+    }
+
+    public void setBulkLoad(boolean bulkLoad) {
+      this.bulkLoad = bulkLoad;
+    }
+
+    void refreshRowCount(int rowCount) {
+      setRowCount(rowCount);
+    }
+
   }
 
   /**
@@ -534,7 +722,9 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
    */
   public class SimpleSnapshot extends AbstractSnapshot {
 
-    private com.google.common.collect.Table<Integer, Integer, String> table;
+    private StringGrid grid;
+    private int[] rowHashes; // Of rows 1 to n, null until computed or after a cell is set
+    private boolean loaded;
 
     // Constructor
 
@@ -542,70 +732,220 @@ public class SimpleTableDriver extends AbstractTableDriver<String, String, Strin
       invalidate();
     }
 
+    // Bulk loading
+
+    /**
+     * Replaces the snapshot with every cell of the table, read in a single script call. Rows and
+     * columns are indexed from 1 like the XPath of the rows and cells.
+     */
+    @SuppressWarnings("unchecked")
+    public void load() {
+      JavascriptExecutor executor = DriverUtil.getJsExecutor(config().searchContext());
+      if (executor == null) {
+        logger.warn("Unable to bulk load the table at " + model().xpath() + ", no script support.");
+        return;
+      }
+
+      long loadStart = System.currentTimeMillis();
+      List<List<String>> rows =
+          (List<List<String>>) executor.executeScript(SNAPSHOT_SCRIPT, model().xpath());
+
+      invalidate();
+      for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+        List<String> row = rows.get(rowIndex);
+        for (int columnIndex = 0; columnIndex < row.size(); columnIndex++) {
+          grid.set(rowIndex + 1, columnIndex + 1, row.get(columnIndex));
+        }
+      }
+      loaded = true;
+
+      logger.info(String.format("Table (%d rows) loaded in %d ms.",
+          rows.size(), System.currentTimeMillis() - loadStart));
+    }
+
+    public boolean isLoaded() {
+      return loaded;
+    }
+
+    // Incremental refresh
+
+    /**
+     * Brings the snapshot up to date with the table in a single script call that hashes every row
+     * in the browser and transfers only the rows whose hash differs from the snapshot's. Returns
+     * the cells added, removed and modified, rows the table no longer has are removed.
+     */
+    @SuppressWarnings("unchecked")
+    public TableDiff refresh() {
+      TableDiff diff = new TableDiff();
+      JavascriptExecutor executor = DriverUtil.getJsExecutor(config().searchContext());
+      if (executor == null) {
+        logger.warn("Unable to refresh the table at " + model().xpath() + ", no script support.");
+        return diff;
+      }
+
+      long refreshStart = System.currentTimeMillis();
+      Map<String, Object> result = (Map<String, Object>) executor.executeScript(
+          REFRESH_SCRIPT, model().xpath(), Ints.asList(rowHashes()));
+      List<Number> hashes = (List<Number>) result.get("hashes");
+      List<Map<String, Object>> changed = (List<Map<String, Object>>) result.get("changed");
+
+      for (Map<String, Object> row : changed) {
+        int rowIndex = ((Number) row.get("index")).intValue();
+        List<String> cells = (List<String>) row.get("cells");
+        int columnCount = Math.max(cells.size() + 1, grid.columnCount());
+        for (int columnIndex = 1; columnIndex < columnCount; columnIndex++) {
+          String value = columnIndex <= cells.size() ? cells.get(columnIndex - 1) : null;
+          diff.add(rowIndex, columnIndex, grid.get(rowIndex, columnIndex), value);
+          grid.set(rowIndex, columnIndex, value);
+        }
+      }
+      for (int rowIndex = hashes.size() + 1; rowIndex < grid.rowCount(); rowIndex++) {
+        for (int columnIndex = 1; columnIndex < grid.columnCount(); columnIndex++) {
+          diff.add(rowIndex, columnIndex, grid.get(rowIndex, columnIndex), null);
+        }
+      }
+      grid.truncate(hashes.size() + 1);
+
+      rowHashes = new int[hashes.size()];
+      for (int i = 0; i < rowHashes.length; i++) {
+        rowHashes[i] = hashes.get(i).intValue();
+      }
+      loaded = true;
+      config().refreshRowCount(hashes.size());
+
+      logger.info(String.format("Table (%d rows, %d changed) refreshed in %d ms: %s.",
+          hashes.size(), changed.size(), System.currentTimeMillis() - refreshStart, diff));
+      return diff;
+    }
+
+    /**
+     * Returns the content hash of every row from 1 to n, computed like List.hashCode() over the
+     * cells up to the last one in the snapshot so that it matches the hash computed in the browser.
+     */
+    int[] rowHashes() {
+      if (rowHashes == null) {
+        int[] hashes = new int[Math.max(grid.rowCount() - 1, 0)];
+        for (int rowIndex = 1; rowIndex < grid.rowCount(); rowIndex++) {
+          hashes[rowIndex - 1] = rowHash(rowIndex);
+        }
+        rowHashes = hashes;
+      }
+      return rowHashes;
+    }
+
+    private int rowHash(int rowIndex) {
+      int lastColumnIndex = grid.columnCount() - 1;
+      while (lastColumnIndex > 0 && grid.get(rowIndex, lastColumnIndex) == null) {
+        lastColumnIndex--;
+      }
+      int hash = 1;
+      for (int columnIndex = 1; columnIndex <= lastColumnIndex; columnIndex++) {
+        String value = grid.get(rowIndex, columnIndex);
+        hash = 31 * hash + (value == null ? 0 : value.hashCode());
+      }
+      return hash;
+    }
+
     // Cell
 
     @Override
     public String get(int rowIndex, int columnIndex) {
-      return table.get(rowIndex, columnIndex);
+      return grid.get(rowIndex, columnIndex);
     }
 
     @Override
     public void set(int rowIndex, int columnIndex, String value) {
-      table.put(rowIndex, columnIndex, value);
+      grid.set(rowIndex, columnIndex, Preconditions.checkNotNull(value));
+      rowHashes = null;
     }
 
     // Row
 
     @Override
     public ImmutableList<String> getRow(int rowIndex) {
-      return ImmutableList.copyOf(valueList(table.row(rowIndex)));
+      return ImmutableList.copyOf(Iterables.filter(grid.row(rowIndex), Predicates.notNull()));
+    }
+
+    /**
+     * Returns a read-only view of the row without copying it, cells that are not in the snapshot
+     * are null.
+     */
+    public List<String> getRowView(int rowIndex) {
+      return grid.row(rowIndex);
     }
 
     @Override
     public void setRow(int rowIndex, List<String> row) {
-      Map<Integer, String> indexMap = indexToKeyMap(row);
-      BasilTable.create(table).putRow(rowIndex, indexMap);
+      for (Map.Entry<Integer, String> cell : indexToKeyMap(row).entrySet()) {
+        set(rowIndex, cell.getKey(), cell.getValue());
+      }
     }
 
     // Column
 
     @Override
     public ImmutableList<String> getColumn(int columnIndex) {
-      return ImmutableList.copyOf(valueList(table.column(columnIndex)));
+      return ImmutableList.copyOf(Iterables.filter(grid.column(columnIndex), Predicates.notNull()));
+    }
+
+    /**
+     * Returns a read-only view of the column without copying it, cells that are not in the
+     * snapshot are null.
+     */
+    public List<String> getColumnView(int columnIndex) {
+      return grid.column(columnIndex);
     }
 
     @Override
     public void setColumn(int columnIndex, List<String> column) {
-      Map<Integer, String> indexToKeyMap = indexToKeyMap(column);
-      BasilTable.create(table).putColumn(columnIndex, indexToKeyMap);
+      for (Map.Entry<Integer, String> cell : indexToKeyMap(column).entrySet()) {
+        set(cell.getKey(), columnIndex, cell.getValue());
+      }
     }
 
     // invalidate and equals
 
     @Override
     public void invalidate() {
-      table = HashBasedTable.create(config().rowCount(), config().columnCount());
+      // Indexes start from 1 like the XPath of the rows and cells, hence the extra capacity.
+      grid = new StringGrid(config().rowCount() + 1, config().columnCount() + 1);
+      rowHashes = null;
+      loaded = false;
     }
 
+    /**
+     * Returns a copy that shares the cells with this snapshot until either of them is written.
+     */
     @Override
     public SimpleSnapshot copy() {
-      SimpleSnapshot shallowCopy = new SimpleSnapshot();
-      shallowCopy.table = HashBasedTable.create(table);
-      // String is immutable so it's safe to use shallow copy.
-      return shallowCopy;
+      SimpleSnapshot copy = new SimpleSnapshot();
+      copy.grid = grid.copy();
+      copy.rowHashes = rowHashes; // Never written in place
+      copy.loaded = loaded;
+      return copy;
     }
 
+    /**
+     * Snapshots whose row hashes differ are not equal without comparing their cells, the cells
+     * are only compared to rule out a hash collision.
+     */
     @Override
     public boolean equals(Object object) {
       if (this == object) {
         return true;
       }
       if (object instanceof SimpleSnapshot) {
-        return table.equals(((SimpleSnapshot) object).table);
+        SimpleSnapshot that = (SimpleSnapshot) object;
+        return Arrays.equals(rowHashes(), that.rowHashes()) && grid.equals(that.grid);
       }
       return false;
     }
 
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(rowHashes());
+    }
+
   }
 
   @Documented
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Objects;
+
+/**
+ * StringGrid - A dense, row-major storage of strings indexed by primitive row and column indexes,
+ * the compact replacement of a HashBasedTable&lt;Integer, Integer, String&gt; for table snapshots.
+ * The grid grows as cells are set beyond its capacity, copies share the storage until either of
+ * them is written (copy-on-write), and rows and columns are handed out as views.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 2:05:18 PM
+ */
+final class StringGrid {
+
+  private String[] cells;
+  private int rowCapacity;
+  private int columnCapacity;
+  private int rowCount;
+  private int columnCount;
+  private boolean shared;
+
+  StringGrid(int rowCapacity, int columnCapacity) {
+    this.rowCapacity = Math.max(rowCapacity, 1);
+    this.columnCapacity = Math.max(columnCapacity, 1);
+    this.cells = new String[this.rowCapacity * this.columnCapacity];
+  }
+
+  private StringGrid(StringGrid source) {
+    this.cells = source.cells;
+    this.rowCapacity = source.rowCapacity;
+    this.columnCapacity = source.columnCapacity;
+    this.rowCount = source.rowCount;
+    this.columnCount = source.columnCount;
+    this.shared = true;
+  }
+
+  // Cell
+
+  String get(int rowIndex, int columnIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount || columnIndex < 0 || columnIndex >= columnCount) {
+      return null;
+    }
+    return cells[rowIndex * columnCapacity + columnIndex];
+  }
+
+  void set(int rowIndex, int columnIndex, String value) {
+    if (rowIndex < 0 || columnIndex < 0) {
+      throw new IndexOutOfBoundsException(
+          String.format("Negative index (%d, %d).", rowIndex, columnIndex));
+    }
+    ensureCapacity(rowIndex + 1, columnIndex + 1);
+    beforeWrite();
+    cells[rowIndex * columnCapacity + columnIndex] = value;
+    rowCount = Math.max(rowCount, rowIndex + 1);
+    columnCount = Math.max(columnCount, columnIndex + 1);
+  }
+
+  /**
+   * Clears the rows from the given row count on, the grid then has at most that many rows.
+   */
+  void truncate(int rowCount) {
+    if (rowCount >= this.rowCount) {
+      return;
+    }
+    beforeWrite();
+    Arrays.fill(cells, Math.max(rowCount, 0) * columnCapacity, this.rowCount * columnCapacity, null);
+    this.rowCount = Math.max(rowCount, 0);
+  }
+
+  /**
+   * The number of rows up to the last one that has ever been set or kept by truncate().
+   */
+  int rowCount() {
+    return rowCount;
+  }
+
+  /**
+   * The number of columns up to the last one that has ever been set.
+   */
+  int columnCount() {
+    return columnCount;
+  }
+
+  // Row and column views
+
+  /**
+   * Returns a read-only view of the row, in which cells that are not set are null.
+   */
+  List<String> row(final int rowIndex) {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int columnIndex) {
+        checkIndex(columnIndex, columnCount);
+        return StringGrid.this.get(rowIndex, columnIndex);
+      }
+
+      @Override
+      public int size() {
+        return columnCount;
+      }
+    };
+  }
+
+  /**
+   * Returns a read-only view of the column, in which cells that are not set are null.
+   */
+  List<String> column(final int columnIndex) {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int rowIndex) {
+        checkIndex(rowIndex, rowCount);
+        return StringGrid.this.get(rowIndex, columnIndex);
+      }
+
+      @Override
+      public int size() {
+        return rowCount;
+      }
+    };
+  }
+
+  // Copy
+
+  /**
+   * Returns a copy that shares the storage with this grid until either of them is written.
+   */
+  StringGrid copy() {
+    shared = true;
+    return new StringGrid(this);
+  }
+
+  private void beforeWrite() {
+    if (shared) {
+      cells = cells.clone();
+      shared = false;
+    }
+  }
+
+  private void ensureCapacity(int rows, int columns) {
+    if (rows <= rowCapacity && columns <= columnCapacity) {
+      return;
+    }
+    int newRowCapacity = rows <= rowCapacity ? rowCapacity : Math.max(rows, rowCapacity * 2);
+    int newColumnCapacity =
+        columns <= columnCapacity ? columnCapacity : Math.max(columns, columnCapacity * 2);
+    String[] newCells = new String[newRowCapacity * newColumnCapacity];
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      System.arraycopy(cells, rowIndex * columnCapacity,
+          newCells, rowIndex * newColumnCapacity, columnCount);
+    }
+    cells = newCells;
+    rowCapacity = newRowCapacity;
+    columnCapacity = newColumnCapacity;
+    shared = false; // The storage is no longer the one that was shared
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+
+  // Object
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+        String value = cells[rowIndex * columnCapacity + columnIndex];
+        hashCode = 31 * hashCode + (value == null ? 0 : value.hashCode());
+      }
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof StringGrid)) {
+      return false;
+    }
+    StringGrid that = (StringGrid) object;
+    if (rowCount != that.rowCount || columnCount != that.columnCount) {
+      return false;
+    }
+    if (cells == that.cells) {
+      return true; // Copies that haven't been written
+    }
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+        if (!Objects.equal(get(rowIndex, columnIndex), that.get(rowIndex, columnIndex))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+      sb.append(Arrays.toString(row(rowIndex).toArray())).append(System.lineSeparator());
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.List;
+import java.util.SortedSet;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * TableDiff - The cells added, removed and modified between two snapshots of a table.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 4:02:37 PM
+ */
+public final class TableDiff {
+
+  private final List<Change> changes;
+
+  TableDiff() {
+    this.changes = Lists.newArrayList();
+  }
+
+  void add(int rowIndex, int columnIndex, String previous, String current) {
+    if (!Objects.equal(previous, current)) {
+      changes.add(new Change(rowIndex, columnIndex, previous, current));
+    }
+  }
+
+  public boolean isEmpty() {
+    return changes.isEmpty();
+  }
+
+  public ImmutableList<Change> changes() {
+    return ImmutableList.copyOf(changes);
+  }
+
+  public ImmutableList<Change> added() {
+    return changes(ChangeType.ADDED);
+  }
+
+  public ImmutableList<Change> removed() {
+    return changes(ChangeType.REMOVED);
+  }
+
+  public ImmutableList<Change> modified() {
+    return changes(ChangeType.MODIFIED);
+  }
+
+  /**
+   * Returns the indexes of the rows that have at least one changed cell.
+   */
+  public ImmutableSortedSet<Integer> changedRows() {
+    SortedSet<Integer> rowIndexes = Sets.newTreeSet();
+    for (Change change : changes) {
+      rowIndexes.add(change.rowIndex());
+    }
+    return ImmutableSortedSet.copyOf(rowIndexes);
+  }
+
+  private ImmutableList<Change> changes(ChangeType type) {
+    ImmutableList.Builder<Change> changes = ImmutableList.builder();
+    for (Change change : this.changes) {
+      if (change.type() == type) {
+        changes.add(change);
+      }
+    }
+    return changes.build();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d added, %d removed, %d modified",
+        added().size(), removed().size(), modified().size());
+  }
+
+  /**
+   * A changed cell, a null previous value is an added cell and a null current value a removed one.
+   */
+  public static final class Change {
+
+    private final int rowIndex;
+    private final int columnIndex;
+    private final String previous;
+    private final String current;
+
+    private Change(int rowIndex, int columnIndex, String previous, String current) {
+      this.rowIndex = rowIndex;
+      this.columnIndex = columnIndex;
+      this.previous = previous;
+      this.current = current;
+    }
+
+    public int rowIndex() {
+      return rowIndex;
+    }
+
+    public int columnIndex() {
+      return columnIndex;
+    }
+
+    public String previous() {
+      return previous;
+    }
+
+    public String current() {
+      return current;
+    }
+
+    public ChangeType type() {
+      if (previous == null) {
+        return ChangeType.ADDED;
+      }
+      if (current == null) {
+        return ChangeType.REMOVED;
+      }
+      return ChangeType.MODIFIED;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s (%d, %d): \"%s\" -> \"%s\"",
+          type(), rowIndex, columnIndex, previous, current);
+    }
+
+  }
+
+  public enum ChangeType {
+
+    ADDED,
+    REMOVED,
+    MODIFIED;
+
+  }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium;
+
+import java.util.List;
+
+import org.basil.selenium.base.DriverFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * ResolutionPlanTest - The plans are worked out in the contexts of a stub driver, which finds an
+ * element for every locator and keeps the locators it was given.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 9:06:28 AM
+ */
+public class ResolutionPlanTest {
+
+  private Stub driver;
+  private List<String> finds;
+
+  @Before
+  public void setUp() {
+    finds = Lists.newArrayList();
+    driver = Stub.driver(true).leased();
+    driver.on("findElement", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        finds.add(args[0].toString());
+        return driver.element().webElement();
+      }
+    }).returning("executeScript", Lists.newArrayList("//div[@id='main']"));
+  }
+
+  @After
+  public void tearDown() {
+    DriverFactory.releaseWebDriver();
+  }
+
+  @Test
+  public void testReuse() {
+    BasilElement main = BasilElement.create(driver.driver(), By.id("main"));
+    BasilElement next = BasilElement.create(main, By.xpath("a[@class='next']"));
+    long hits = ResolutionPlan.getHits();
+    long misses = ResolutionPlan.getMisses();
+
+    Basil generated = next.getGeneratedLocator();
+    Assert.assertTrue(generated.getXPath().endsWith("[@id='main']//a[@class='next']"));
+    Assert.assertEquals(misses + 1, ResolutionPlan.getMisses());
+    Assert.assertSame(generated, next.getGeneratedLocator());
+    Assert.assertSame(generated, next.getGeneratedLocator());
+    Assert.assertEquals(hits + 2, ResolutionPlan.getHits());
+    Assert.assertEquals(misses + 1, ResolutionPlan.getMisses());
+  }
+
+  @Test
+  public void testParentLocatorChanged() {
+    BasilElement main = BasilElement.create(driver.driver(), By.id("main"));
+    BasilElement next = BasilElement.create(main, By.xpath("a[@class='next']"));
+    next.getGeneratedLocator();
+    long invalidations = ResolutionPlan.getInvalidations();
+
+    main.setLocator(By.id("side"));
+    String xpath = next.getGeneratedLocator().getXPath();
+    Assert.assertTrue(xpath.endsWith("[@id='side']//a[@class='next']"));
+    Assert.assertFalse(xpath.contains("main")); // Not prefixed twice
+    Assert.assertEquals(invalidations + 1, ResolutionPlan.getInvalidations());
+  }
+
+  @Test
+  public void testParentContextChanged() {
+    BasilElement main = BasilElement.create(driver.driver(), By.id("main"));
+    BasilElement next = BasilElement.create(main, By.xpath("a[@class='next']"));
+    ResolutionPlan plan = new ResolutionPlan(next, next.getLocator(), false, 0);
+    Assert.assertTrue(plan.isValid());
+    Assert.assertSame(plan, ResolutionPlan.reuse(plan));
+
+    main.getWrappedElement(); // Resolved
+    Assert.assertFalse(plan.isValid());
+    long invalidations = ResolutionPlan.getInvalidations();
+    Assert.assertNull(ResolutionPlan.reuse(plan));
+    Assert.assertEquals(invalidations + 1, ResolutionPlan.getInvalidations());
+
+    plan = new ResolutionPlan(next, next.getLocator(), false, 0);
+    main.context().unset();
+    Assert.assertFalse(plan.isValid());
+  }
+
+  @Test
+  public void testCache() {
+    BasilElement main = BasilElement.create(driver.driver(), By.id("main"));
+    main.findElement(By.xpath("span"));
+    long hits = ResolutionPlan.getHits();
+
+    main.findElement(By.xpath("span"));
+    main.findElement(By.xpath("span"));
+    Assert.assertEquals(hits + 2, ResolutionPlan.getHits());
+    String span = By.xpath("//div[@id='main']//span").toString();
+    Assert.assertEquals(ImmutableList.of(By.id("main").toString(), span, span, span), finds);
+
+    long invalidations = ResolutionPlan.getInvalidations();
+    main.context().unset(); // Resolved again
+    main.findElement(By.xpath("span"));
+    // The plans of the generated locator of the context, and of the span
+    Assert.assertEquals(invalidations + 2, ResolutionPlan.getInvalidations());
+    Assert.assertEquals(hits + 2, ResolutionPlan.getHits());
+  }
+
+  @Test
+  public void testCacheSize() {
+    BasilElement main = BasilElement.create(driver.driver(), By.id("main"));
+    ResolutionPlan.Cache cache = new ResolutionPlan.Cache();
+    for (int row = 1; row <= 65; row++) {
+      Basil locator = Basil.xpath("tr[" + row + "]");
+      cache.put(locator, new ResolutionPlan(main, locator, false, 0));
+    }
+    Assert.assertEquals(64, cache.size());
+    Assert.assertNull(cache.lookup(Basil.xpath("tr[1]"))); // The least recently used
+    Assert.assertNotNull(cache.lookup(Basil.xpath("tr[65]")));
+  }
+
+}
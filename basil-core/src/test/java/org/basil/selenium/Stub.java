@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.basil.selenium.base.StubDriverPools;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.base.Defaults;
+import com.google.common.collect.Maps;
+
+/**
+ * Stub - A proxy of a WebDriver, a WebElement or any other interfaces, for the tests to run without
+ * a browser. A method answers what it's told to, or null (the default of a primitive), and the
+ * calls of the answered methods are counted as commands. The stubs of the elements of a driver
+ * count theirs along with the driver. The options of a driver (manage(), timeouts() and the like)
+ * and the driver of an element are local, they are answered by the stub itself and aren't
+ * commands.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 8:16:53 AM
+ */
+public class Stub implements InvocationHandler {
+
+  /**
+   * The answer of a method to its arguments (an empty array when it takes none).
+   */
+  public interface Answer {
+
+    Object answer(Object[] args) throws Exception;
+
+  }
+
+  /**
+   * A stub of a WebDriver, which can execute scripts or not.
+   */
+  public static Stub driver(boolean scriptable) {
+    return scriptable
+        ? new Stub(new AtomicInteger(), null, WebDriver.class, JavascriptExecutor.class)
+        : new Stub(new AtomicInteger(), null, WebDriver.class);
+  }
+
+  private final AtomicInteger commands;
+  private final Object wrappedDriver;
+  private final Map<String, Answer> answers = Maps.newConcurrentMap();
+  private final Map<String, Object[]> arguments = Maps.newConcurrentMap();
+  private final Object proxy;
+
+  public Stub(Class<?>... interfaces) {
+    this(new AtomicInteger(), null, interfaces);
+  }
+
+  private Stub(AtomicInteger commands, Object wrappedDriver, Class<?>... interfaces) {
+    this.commands = commands;
+    this.wrappedDriver = wrappedDriver;
+    this.proxy = Proxy.newProxyInstance(Stub.class.getClassLoader(), interfaces, this);
+  }
+
+  /**
+   * Makes the driver the one the DriverFactory leases to the current thread, the one of the
+   * BasilContexts created from now on. The driver leased to the thread before is released.
+   */
+  public Stub leased() {
+    StubDriverPools.lease(driver());
+    return this;
+  }
+
+  /**
+   * Returns a stub of a WebElement of this driver, whose commands are counted along with the ones
+   * of the driver.
+   */
+  public Stub element() {
+    return new Stub(commands, proxy, WebElement.class, WrapsDriver.class);
+  }
+
+  public Stub on(String method, Answer answer) {
+    answers.put(method, answer);
+    return this;
+  }
+
+  public Stub returning(String method, final Object value) {
+    return on(method, new Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        return value;
+      }
+    });
+  }
+
+  public Stub throwing(String method, final RuntimeException error) {
+    return on(method, new Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        throw error;
+      }
+    });
+  }
+
+  public <T> T as(Class<T> type) {
+    return type.cast(proxy);
+  }
+
+  public WebDriver driver() {
+    return as(WebDriver.class);
+  }
+
+  public WebElement webElement() {
+    return as(WebElement.class);
+  }
+
+  /**
+   * Returns the number of the commands, the calls of the answered methods.
+   */
+  public int getCommands() {
+    return commands.get();
+  }
+
+  /**
+   * Returns the arguments of the last call of the method, null if it hasn't been called.
+   */
+  public Object[] getArguments(String method) {
+    return arguments.get(method);
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+    String name = method.getName();
+    Answer answer = answers.get(name);
+    if (answer == null) {
+      switch (name) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+        case "getWrappedDriver":
+          return wrappedDriver;
+        default:
+          if (method.getReturnType().getEnclosingClass() == WebDriver.class) {
+            return Proxy.newProxyInstance(Stub.class.getClassLoader(),
+                new Class<?>[] {method.getReturnType()}, this); // manage(), timeouts() etc.
+          }
+          return Defaults.defaultValue(method.getReturnType());
+      }
+    }
+    commands.incrementAndGet();
+    args = args == null ? new Object[0] : args;
+    arguments.put(name, args);
+    return answer.answer(args);
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.base;
+
+import java.util.concurrent.TimeUnit;
+
+import org.basil.Config;
+import org.openqa.selenium.WebDriver;
+
+import com.google.common.base.Suppliers;
+
+/**
+ * StubDriverPools - Makes a stub the driver the DriverFactory leases to the current thread, by
+ * replacing the pool of the configured browser and driver types with a pool of the stub alone.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 10:31:07 AM
+ */
+public final class StubDriverPools {
+  private StubDriverPools() {}
+
+  /**
+   * Leases the driver to the current thread, the driver leased to it before is released.
+   */
+  public static void lease(WebDriver driver) {
+    DriverFactory.releaseWebDriver();
+    DriverFactory.setDriverPool(Config.BROWSER_TYPE, Config.WEB_DRIVER_TYPE,
+        new DriverPool(Suppliers.ofInstance(driver), 1, 0, 1, TimeUnit.SECONDS));
+  }
+
+}
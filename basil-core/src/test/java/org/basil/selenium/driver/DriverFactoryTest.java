@@ -5,8 +5,12 @@
 package org.basil.selenium.driver;
 
 import org.basil.Config;
+import org.basil.selenium.Stub;
+import org.basil.selenium.base.BrowserType;
 import org.basil.selenium.base.DriverFactory;
+import org.basil.selenium.base.DriverPool;
 import org.basil.selenium.base.DriverType;
+import org.basil.selenium.base.StubDriverPools;
 import org.junit.Assert;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -45,4 +49,30 @@ public class DriverFactoryTest extends TestCase {
     }
   }
 
+  public void testDriverPools() {
+    DriverPool chrome = DriverFactory.getDriverPool(BrowserType.CHROME, DriverType.REMOTE);
+    Assert.assertSame(chrome, DriverFactory.getDriverPool(BrowserType.CHROME, DriverType.REMOTE));
+    Assert.assertNotSame(chrome,
+        DriverFactory.getDriverPool(BrowserType.FIREFOX, DriverType.REMOTE));
+    Assert.assertNotSame(chrome,
+        DriverFactory.getDriverPool(BrowserType.CHROME, DriverType.STANDARD));
+  }
+
+  public void testStubDriverPools() {
+    WebDriver stub = Stub.driver(false).driver();
+    StubDriverPools.lease(stub);
+    DriverPool pool = DriverFactory.getDriverPool();
+    Assert.assertSame(stub, DriverFactory.getWebDriver());
+
+    StubDriverPools.lease(Stub.driver(false).driver());
+    Assert.assertNotSame(stub, DriverFactory.getWebDriver());
+    DriverFactory.releaseWebDriver();
+    try {
+      pool.lease();
+      Assert.fail("The replaced pool should have been shut down.");
+    } catch (IllegalStateException ise) {
+      // Expected
+    }
+  }
+
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.driver;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.Stub;
+import org.basil.selenium.base.DriverPool;
+import org.basil.selenium.base.SessionErrors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.google.common.base.Supplier;
+
+/**
+ * DriverPoolTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 7:02:51 PM
+ */
+public class DriverPoolTest {
+
+  @Test
+  public void test() throws Exception {
+    final DriverPool pool = new DriverPool(new StubDriverSupplier(), 2, 0, 1, TimeUnit.SECONDS);
+    WebDriver driver = pool.lease();
+    Assert.assertSame(driver, pool.lease()); // Thread-confined
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    WebDriver otherDriver = executor.submit(new Callable<WebDriver>() {
+      @Override
+      public WebDriver call() {
+        WebDriver driver = pool.lease();
+        pool.release();
+        return driver;
+      }
+    }).get();
+    Assert.assertNotSame(driver, otherDriver);
+
+    pool.release();
+    Assert.assertFalse(pool.isLeased());
+    Assert.assertSame(driver, pool.lease()); // The most recently returned one
+    Assert.assertEquals(2, pool.createdCount());
+    executor.shutdown();
+  }
+
+  @Test
+  public void testRecycle() {
+    DriverPool pool = new DriverPool(new StubDriverSupplier(), 1, 2, 1, TimeUnit.SECONDS);
+    WebDriver driver = pool.lease();
+    pool.release();
+    Assert.assertSame(driver, pool.lease());
+    pool.release();
+    Assert.assertNotSame(driver, pool.lease());
+    Assert.assertEquals(1, pool.recycledCount());
+  }
+
+  @Test
+  public void testHealthCheck() {
+    StubDriverSupplier supplier = new StubDriverSupplier();
+    DriverPool pool = new DriverPool(supplier, 1, 0, 1, TimeUnit.SECONDS);
+    WebDriver driver = pool.lease();
+    pool.release();
+    supplier.healthy = false;
+    Assert.assertNotSame(driver, pool.lease());
+    Assert.assertEquals(1, pool.unhealthyCount());
+  }
+
+  @Test
+  public void testPoisoned() {
+    DriverPool pool = new DriverPool(new StubDriverSupplier(), 1, 0, 1, TimeUnit.SECONDS);
+    WebDriver driver = pool.lease();
+    SessionErrors.poison(driver);
+    pool.release();
+    Assert.assertNotSame(driver, pool.lease());
+    Assert.assertEquals(1, pool.poisonedCount());
+    Assert.assertEquals(0, pool.unhealthyCount());
+  }
+
+  @Test
+  public void testWarmUp() {
+    DriverPool pool = new DriverPool(new StubDriverSupplier(), 2, 0, 1, TimeUnit.SECONDS);
+    pool.warmUp(3); // Up to the pool size
+    pool.lease(); // Waits for a warmed up driver instead of creating another one
+    Assert.assertTrue(pool.warmedUpCount() > 0);
+    Assert.assertTrue(pool.createdCount() <= 2);
+    pool.release();
+  }
+
+  @Test
+  public void testStandby() throws Exception {
+    DriverPool pool = new DriverPool(new StubDriverSupplier(), 2, 0, 1, TimeUnit.SECONDS);
+    pool.setStandby(1);
+    pool.lease();
+    for (int i = 0; i < 100 && pool.createdCount() < 2; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(2, pool.createdCount()); // The standby replacing the leased one
+    Assert.assertEquals(2, pool.warmedUpCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testTimeout() throws Exception {
+    final DriverPool pool =
+        new DriverPool(new StubDriverSupplier(), 1, 0, 10, TimeUnit.MILLISECONDS);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        pool.lease(); // Never returned
+      }
+    }).get();
+    executor.shutdown();
+    pool.lease();
+  }
+
+  private static class StubDriverSupplier implements Supplier<WebDriver> {
+
+    private volatile boolean healthy = true;
+
+    @Override
+    public WebDriver get() {
+      return Stub.driver(false).on("getWindowHandle", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) {
+          if (!healthy) {
+            throw new WebDriverException("Session is gone.");
+          }
+          return null;
+        }
+      }).driver();
+    }
+
+  }
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.driver;
+
+import java.net.ConnectException;
+
+import org.basil.selenium.Stub;
+import org.basil.selenium.base.SessionErrors;
+import org.basil.selenium.service.Repeater;
+import org.basil.selenium.ui.SearchContextWait;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.interactions.Action;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import com.google.common.base.Function;
+
+/**
+ * SessionErrorsTest - The waits poll a stub driver whose browser has died, every find fails with
+ * the given exception, and are expected to give up on the first poll instead of timing out.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 6:44:26 AM
+ */
+public class SessionErrorsTest {
+
+  private static final Function<SearchContext, Object> FIND_DIALOG =
+      new Function<SearchContext, Object>() {
+        @Override
+        public Object apply(SearchContext context) {
+          return context.findElement(By.id("dialog"));
+        }
+
+        @Override
+        public String toString() {
+          return "dialog";
+        }
+      };
+
+  @Test
+  public void testIsFatal() {
+    Assert.assertTrue(SessionErrors.isFatal(new NoSuchSessionException("Session is gone.")));
+    Assert.assertTrue(SessionErrors.isFatal(new UnreachableBrowserException("It may have died.")));
+    Assert.assertTrue(SessionErrors.isFatal(
+        new WebDriverException(new ConnectException("Connection refused"))));
+    Assert.assertTrue(SessionErrors.isFatal(
+        new WebDriverException("unknown error: session deleted because of page crash")));
+    Assert.assertFalse(SessionErrors.isFatal(new NoSuchElementException("No dialog.")));
+    Assert.assertFalse(SessionErrors.isFatal(new WebDriverException("Element is not clickable")));
+    Assert.assertFalse(SessionErrors.isFatal(null));
+  }
+
+  @Test
+  public void testWait() {
+    Stub stub = Stub.driver(false)
+        .throwing("findElement", new NoSuchSessionException("Session is gone."));
+    SearchContextWait wait = new SearchContextWait(stub.driver(), 30);
+    wait.ignoring(NotFoundException.class); // NoSuchSessionException is a NotFoundException
+    long savedMillis = SessionErrors.getSavedMillis();
+
+    long start = System.currentTimeMillis();
+    try {
+      wait.until(FIND_DIALOG);
+      Assert.fail("The wait should have given up.");
+    } catch (NoSuchSessionException nsse) {
+      Assert.assertTrue(System.currentTimeMillis() - start < 1000); // Not the 30 s of the timeout
+    }
+    Assert.assertEquals(1, stub.getCommands());
+    Assert.assertTrue(SessionErrors.isPoisoned(stub.driver()));
+    Assert.assertTrue(SessionErrors.getSavedMillis() - savedMillis > 29000);
+
+    try {
+      new SearchContextWait(stub.driver(), 30).until(FIND_DIALOG);
+      Assert.fail("The wait on a poisoned driver should have given up.");
+    } catch (NoSuchSessionException nsse) {
+      Assert.assertEquals(1, stub.getCommands()); // Not even polled
+    }
+  }
+
+  @Test
+  public void testRepeater() {
+    Stub stub = Stub.driver(false)
+        .throwing("findElement", new UnreachableBrowserException("It may have died."));
+    Repeater repeater = new Repeater(new Action() {
+      @Override
+      public void perform() {
+        // Do nothing
+      }
+    }, stub.driver()).timeout(30000).every(100).ignore(WebDriverException.class);
+    try {
+      repeater.until(FIND_DIALOG);
+      Assert.fail("The repeater should have given up.");
+    } catch (UnreachableBrowserException ube) {
+      Assert.assertEquals(1, stub.getCommands());
+    }
+  }
+
+}
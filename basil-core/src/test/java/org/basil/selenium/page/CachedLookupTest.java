@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.basil.selenium.Stub;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * CachedLookupTest - Looks up the elements of a stub page, whose elements are all displayed and
+ * named after their texts in lower case. Every call of the driver or an element is a command.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 8:42:17 AM
+ */
+public class CachedLookupTest {
+
+  private static final By MENU = By.className("menu");
+  private static final By BUTTON = By.tagName("button");
+  private static final By TAB = By.className("tab");
+  private static final By ITEM = By.xpath("//ul[@class='menu']/li");
+
+  @Test
+  public void testHits() {
+    StubPage page = new StubPage();
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    Assert.assertSame(page.get(MENU, 0), lookup.byText(MENU, "File"));
+    int commands = page.driver.getCommands();
+    Assert.assertEquals(5, commands); // findElements, and isDisplayed and getText of each
+
+    Assert.assertSame(page.get(MENU, 1), lookup.byText(MENU, "Edit"));
+    Assert.assertSame(page.get(MENU, 1), lookup.byPartialText(MENU, "di"));
+    Assert.assertNull(lookup.byText(MENU, "View"));
+    Assert.assertEquals(commands, page.driver.getCommands()); // Answered from memory
+
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(3, statistics.getHits());
+    Assert.assertEquals(1, statistics.getMisses());
+    Assert.assertEquals(0.75, statistics.getHitRate(), 0.0);
+  }
+
+  @Test
+  public void testMaximumSize() {
+    StubPage page = new StubPage();
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    lookup.setMaximumSize(2);
+    lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "OK");
+    lookup.byText(MENU, "Edit"); // The button is now the least recently used
+    lookup.byText(TAB, "Home");
+    lookup.byText(MENU, "File");
+
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(1, statistics.getEvictions());
+    Assert.assertEquals(2, statistics.getHits());
+    Assert.assertEquals(3, statistics.getMisses());
+
+    lookup.byText(BUTTON, "OK");
+    Assert.assertEquals(4, lookup.getStatistics().getMisses());
+    Assert.assertEquals(2, lookup.getStatistics().getEvictions());
+  }
+
+  @Test
+  public void testTimeToLive() throws InterruptedException {
+    StubPage page = new StubPage();
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    lookup.setTimeToLive(50, TimeUnit.MILLISECONDS);
+    lookup.setTimeToLive(BUTTON, 0, TimeUnit.MILLISECONDS); // Never expires
+    lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "OK");
+    lookup.byText(MENU, "Edit");
+    Assert.assertEquals(1, lookup.getStatistics().getHits());
+
+    Thread.sleep(100);
+    lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "Cancel");
+
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(1, statistics.getExpirations());
+    Assert.assertEquals(3, statistics.getMisses());
+    Assert.assertEquals(2, statistics.getHits());
+  }
+
+  @Test
+  public void testInvalidate() {
+    StubPage page = new StubPage();
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "OK");
+    lookup.invalidate(MENU);
+    lookup.invalidate(MENU); // Not cached any more, not counted
+    Assert.assertEquals(1, lookup.getStatistics().getInvalidations());
+
+    lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "OK");
+    Assert.assertEquals(3, lookup.getStatistics().getMisses());
+    Assert.assertEquals(1, lookup.getStatistics().getHits());
+
+    lookup.invalidate();
+    Assert.assertEquals(3, lookup.getStatistics().getInvalidations());
+    lookup.byText(BUTTON, "OK");
+    Assert.assertEquals(4, lookup.getStatistics().getMisses());
+  }
+
+  @Test
+  public void testStaleRetry() {
+    StubPage page = new StubPage();
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    WebElement file = lookup.byText(MENU, "File");
+    Assert.assertSame(file, lookup.byAttribute(MENU, "name", "file"));
+
+    page.render(); // The elements cached are gone
+    WebElement rendered = lookup.byAttribute(MENU, "title", "file");
+    Assert.assertNotSame(file, rendered);
+    Assert.assertSame(page.get(MENU, 0), rendered);
+
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(1, statistics.getStaleRetries());
+    Assert.assertEquals(1, statistics.getInvalidations());
+    Assert.assertEquals(2, statistics.getMisses());
+  }
+
+  @Test
+  public void testUrlValidation() {
+    StubPage page = new StubPage();
+    final AtomicReference<String> url = new AtomicReference<String>("http://basil/home");
+    page.driver.on("getCurrentUrl", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        return url.get();
+      }
+    });
+    CachedLookup lookup = new CachedLookup(page.driver.driver());
+    WebElement file = lookup.byText(MENU, "File");
+    lookup.byText(BUTTON, "OK");
+    int commands = page.driver.getCommands();
+    Assert.assertSame(file, lookup.byText(MENU, "File"));
+    Assert.assertEquals(commands + 1, page.driver.getCommands()); // The URL alone
+
+    url.set("http://basil/settings");
+    page.render(); // A page of the same elements, none of which are queried
+    Assert.assertSame(page.get(MENU, 0), lookup.byText(MENU, "File"));
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(2, statistics.getInvalidations()); // The button as well
+    Assert.assertEquals(1, statistics.getStaleRetries());
+    Assert.assertEquals(3, statistics.getMisses());
+
+    lookup.setValidation(CachedLookup.Validation.NONE);
+    url.set("http://basil/home");
+    page.render();
+    Assert.assertNotSame(page.get(MENU, 0), lookup.byText(MENU, "File")); // Kept from before
+    Assert.assertEquals(3, lookup.getStatistics().getMisses());
+  }
+
+  @Test
+  public void testSnapshot() {
+    Stub driver = Stub.driver(true)
+        .throwing("findElements", new UnsupportedOperationException("Found one by one."));
+    WebElement file = snapshotElement(driver);
+    WebElement edit = snapshotElement(driver);
+    driver.returning("executeScript", ImmutableMap.of(
+        "document", "http://basil/menu 1539849600000-0.5",
+        "elements", ImmutableList.of(
+            snapshot(file, true, "File", "file-menu", "Open or save"),
+            snapshot(edit, true, "Edit", "", "Undo or redo"),
+            snapshot(snapshotElement(driver), false, "", "", "Hidden"),
+            snapshot(snapshotElement(driver), true, "", "", "Blank"))));
+
+    CachedLookup lookup = new CachedLookup(driver.driver());
+    lookup.setSnapshot(true);
+    Assert.assertSame(file, lookup.byText(ITEM, "File"));
+    Assert.assertEquals(1, driver.getCommands()); // The script alone
+    Object[] arguments = (Object[]) driver.getArguments("executeScript")[1];
+    Assert.assertNull(arguments[0]); // Evaluated against the document
+    Assert.assertEquals("//ul[@class='menu']/li", arguments[1]);
+
+    Assert.assertSame(edit, lookup.byText(ITEM, "Edit"));
+    Assert.assertSame(edit, lookup.byPartialText(ITEM, "di"));
+    Assert.assertSame(file, lookup.byAttribute(ITEM, "id", "file-menu"));
+    Assert.assertSame(edit, lookup.byAttribute(ITEM, "title", "Undo or redo"));
+    Assert.assertNull(lookup.byAttribute(ITEM, "title", "Hidden")); // Not displayed
+    Assert.assertNull(lookup.byAttribute(ITEM, "title", "Blank")); // No text
+    Assert.assertEquals(1, driver.getCommands()); // Answered from memory
+
+    CachedLookup.Statistics statistics = lookup.getStatistics();
+    Assert.assertEquals(6, statistics.getHits());
+    Assert.assertEquals(1, statistics.getMisses());
+  }
+
+  /**
+   * An element of a snapshot, whose properties must not be queried remotely.
+   */
+  private static WebElement snapshotElement(Stub driver) {
+    UnsupportedOperationException remote = new UnsupportedOperationException("Queried remotely.");
+    return driver.element()
+        .throwing("isDisplayed", remote)
+        .throwing("getText", remote)
+        .throwing("getAttribute", remote)
+        .webElement();
+  }
+
+  /**
+   * The entry of the element in the result of the snapshot script.
+   */
+  private static Map<String, Object> snapshot(WebElement element, boolean displayed, String text,
+      String id, String title) {
+    Map<String, Object> snapshot = Maps.newHashMap();
+    snapshot.put("element", element);
+    snapshot.put("displayed", displayed);
+    snapshot.put("text", text);
+    snapshot.put("id", id);
+    snapshot.put("labelFor", "");
+    snapshot.put("attributes", ImmutableMap.of("class", "item", "title", title));
+    return snapshot;
+  }
+
+  /**
+   * A page of menus, buttons and tabs, which can be rendered again with new elements, making the
+   * ones before stale.
+   */
+  private static class StubPage {
+
+    private final Stub driver = Stub.driver(false);
+    private final Map<By, List<WebElement>> elements = Maps.newConcurrentMap();
+    private final List<Stub> rendered = Lists.newArrayList();
+
+    private StubPage() {
+      render();
+      driver.on("findElements", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) {
+          return elements.get(args[0]);
+        }
+      });
+    }
+
+    private WebElement get(By by, int index) {
+      return elements.get(by).get(index);
+    }
+
+    private void render() {
+      for (Stub element : rendered) {
+        element.throwing("getAttribute", new StaleElementReferenceException("Rendered again."));
+      }
+      rendered.clear();
+      elements.put(MENU, ImmutableList.of(element("File"), element("Edit")));
+      elements.put(BUTTON, ImmutableList.of(element("OK"), element("Cancel")));
+      elements.put(TAB, ImmutableList.of(element("Home")));
+    }
+
+    private WebElement element(final String text) {
+      Stub element = driver.element()
+          .returning("isDisplayed", true)
+          .returning("getText", text)
+          .on("getAttribute", new Stub.Answer() {
+            @Override
+            public Object answer(Object[] args) {
+              return args[0].equals("name") || args[0].equals("title") ? text.toLowerCase() : null;
+            }
+          });
+      rendered.add(element);
+      return element.webElement();
+    }
+
+  }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.util.List;
+import java.util.Map;
+
+import org.basil.selenium.BasilElement;
+import org.basil.selenium.Stub;
+import org.basil.selenium.base.DriverFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * ElementBatchTest - A login dialog is constructed on a stub page, which finds the element of a
+ * locator and answers the script of the batch with the elements of its XPaths. The fields are
+ * displayed once the page has been polled a given number of times.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 9:31:44 AM
+ */
+public class ElementBatchTest {
+
+  private static final By LOGIN = By.id("login");
+  private static final By USERNAME = By.id("username");
+  private static final By PASSWORD = By.name("password");
+  private static final By TOKEN = By.xpath("input[@type='hidden']");
+  private static final By SUBMIT = By.cssSelector("button.submit");
+  // The token found from the driver, by the XPath of the dialog worked out of its ancestors
+  private static final By GENERATED_TOKEN = By.xpath("//div[@id='login']//input[@type='hidden']");
+
+  @After
+  public void tearDown() {
+    DriverFactory.releaseWebDriver();
+  }
+
+  @Test
+  public void testScript() {
+    StubPage page = new StubPage(true, 2);
+    LoginDialog dialog = new LoginDialog(page.driver.driver(), 5);
+
+    Assert.assertEquals(2, page.scripts); // Polled until the password is displayed
+    Assert.assertSame(page.get(USERNAME), dialog.username.getWrappedElement());
+    Assert.assertSame(page.get(PASSWORD), dialog.password.getWrappedElement());
+    Assert.assertSame(page.get(TOKEN), dialog.token.getWrappedElement());
+    Assert.assertSame(page.get(SUBMIT), dialog.submit.getWrappedElement());
+
+    // The CSS selector has no XPath, it's the only field found by its locator
+    Assert.assertFalse(page.finds.contains(USERNAME.toString()));
+    Assert.assertFalse(page.finds.contains(PASSWORD.toString()));
+    Assert.assertTrue(page.finds.contains(SUBMIT.toString()));
+
+    Object[] arguments = (Object[]) page.driver.getArguments("executeScript")[1];
+    Assert.assertEquals(".//input[@type='hidden']", ((List<?>) arguments[1]).get(2));
+    Assert.assertEquals(ImmutableList.of(true, true, false), arguments[2]); // From the document
+  }
+
+  @Test
+  public void testNotScriptable() {
+    StubPage page = new StubPage(false, 0);
+    LoginDialog dialog = new LoginDialog(page.driver.driver(), 5);
+
+    Assert.assertEquals(0, page.scripts);
+    Assert.assertSame(page.get(USERNAME), dialog.username.getWrappedElement());
+    Assert.assertSame(page.get(TOKEN), dialog.token.getWrappedElement());
+    Assert.assertTrue(page.finds.contains(USERNAME.toString()));
+    Assert.assertTrue(page.finds.contains(PASSWORD.toString()));
+    Assert.assertTrue(page.finds.contains(GENERATED_TOKEN.toString()));
+  }
+
+  @Test
+  public void testNotDisplayed() {
+    StubPage page = new StubPage(true, Integer.MAX_VALUE);
+    try {
+      new LoginDialog(page.driver.driver(), 1);
+      Assert.fail("The dialog should have failed to resolve its fields.");
+    } catch (NoSuchElementException nsee) {
+      Assert.assertTrue(nsee.getMessage().contains("password"));
+      Assert.assertFalse(nsee.getMessage().contains("token")); // Present is enough
+    }
+  }
+
+  private static class LoginDialog extends PageObject {
+
+    private BasilElement username;
+    private BasilElement password;
+    private BasilElement token;
+    private BasilElement submit;
+
+    private LoginDialog(SearchContext context, long timeout) {
+      super(context, LOGIN, timeout);
+    }
+
+    @Override
+    protected void registerWebElements(ElementBatch batch) {
+      batch.visible("username", USERNAME)
+           .visible("password", PASSWORD)
+           .present("token", TOKEN)
+           .visible("submit", SUBMIT);
+    }
+
+  }
+
+  /**
+   * A page of a login dialog whose password is displayed from the given poll of the script on,
+   * the other elements are displayed all along.
+   */
+  private static class StubPage {
+
+    private final Stub driver;
+    private final Map<String, WebElement> elements = Maps.newHashMap();
+    private final List<String> finds = Lists.newArrayList();
+    private int scripts;
+
+    private StubPage(boolean scriptable, final int displayedFrom) {
+      driver = Stub.driver(scriptable).leased();
+      Stub.Answer find = new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) {
+          finds.add(args[0].toString());
+          WebElement element = elements.get(args[0].toString());
+          if (element == null) {
+            throw new NoSuchElementException("No " + args[0]);
+          }
+          return element;
+        }
+      };
+      for (By by : new By[] {USERNAME, PASSWORD, TOKEN, SUBMIT}) {
+        elements.put(by.toString(), driver.element().returning("isDisplayed", true).webElement());
+      }
+      elements.put(GENERATED_TOKEN.toString(), get(TOKEN));
+      elements.put(LOGIN.toString(), driver.element().returning("isDisplayed", true)
+          .returning("getTagName", "div").returning("getAttribute", "login") // Its id
+          .on("findElement", find).webElement()); // The fields are found in the dialog
+      driver.on("findElement", find).on("executeScript", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) {
+          scripts++;
+          return ImmutableList.of(
+              ImmutableMap.of("element", get(USERNAME), "displayed", true),
+              ImmutableMap.of("element", get(PASSWORD), "displayed", scripts >= displayedFrom),
+              ImmutableMap.of("element", get(TOKEN), "displayed", false));
+        }
+      });
+    }
+
+    private WebElement get(By by) {
+      return elements.get(by.toString());
+    }
+
+  }
+
+}
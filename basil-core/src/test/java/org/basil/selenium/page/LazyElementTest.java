@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.util.List;
+
+import org.basil.selenium.BasilElement;
+import org.basil.selenium.Stub;
+import org.basil.selenium.base.DriverFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.internal.WrapsElement;
+
+import com.google.common.collect.Lists;
+
+/**
+ * LazyElementTest - A pager is constructed on a stub page, which finds a new element of its text
+ * for every locator but the one of the pager, and keeps the locators it was given.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 9:48:12 AM
+ */
+public class LazyElementTest {
+
+  private static final By PAGER = By.id("pager");
+  private static final By NEXT = By.id("next");
+  private static final By HELP = By.id("help");
+
+  private Stub driver;
+  private List<String> finds;
+  private List<Stub> found;
+
+  @Before
+  public void setUp() {
+    finds = Lists.newArrayList();
+    found = Lists.newArrayList();
+    driver = Stub.driver(true).leased();
+    final Stub pager = driver.element().returning("isDisplayed", true);
+    Stub.Answer find = new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        finds.add(args[0].toString());
+        if (args[0].toString().equals(PAGER.toString())) {
+          return pager.webElement();
+        }
+        Stub element = driver.element().returning("getText", "Next");
+        found.add(element);
+        return element.webElement();
+      }
+    };
+    pager.on("findElement", find);
+    driver.on("findElement", find);
+  }
+
+  @After
+  public void tearDown() {
+    DriverFactory.releaseWebDriver();
+  }
+
+  @Test
+  public void testFirstUse() {
+    long resolutions = LazyElement.getResolutions();
+    Pager pager = new Pager(driver.driver());
+    Assert.assertTrue(pager.next instanceof LazyElement);
+    Assert.assertFalse(((LazyElement) pager.next).isUsed());
+    Assert.assertEquals(1, finds.size()); // The pager only
+
+    Assert.assertEquals("Next", pager.next.getText());
+    Assert.assertEquals("Next", pager.next.getText());
+    Assert.assertTrue(((LazyElement) pager.next).isUsed());
+    Assert.assertEquals(2, finds.size());
+    Assert.assertEquals(resolutions + 1, LazyElement.getResolutions());
+    Assert.assertEquals("Pager.next", ((LazyElement) pager.next).getField());
+  }
+
+  @Test
+  public void testStaleRetry() {
+    Pager pager = new Pager(driver.driver());
+    pager.next.getText();
+    long resolutions = LazyElement.getResolutions();
+    long reResolutions = LazyElement.getReResolutions();
+
+    found.get(0).throwing("getText", new StaleElementReferenceException("Rendered again."));
+    Assert.assertEquals("Next", pager.next.getText()); // Retried on the element found again
+    Assert.assertEquals(2, found.size());
+    Assert.assertEquals(3, finds.size());
+    Assert.assertSame(found.get(1).webElement(),
+        ((WrapsElement) pager.next.getWrappedElement()).getWrappedElement()); // Behind the proxy
+    Assert.assertEquals(reResolutions + 1, LazyElement.getReResolutions());
+    Assert.assertEquals(resolutions, LazyElement.getResolutions());
+  }
+
+  @Test
+  public void testStaleAgain() {
+    Pager pager = new Pager(driver.driver());
+    pager.next.getText();
+    driver.on("findElement", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        return driver.element().throwing("getText",
+            new StaleElementReferenceException("Rendered again.")).webElement();
+      }
+    });
+    found.get(0).throwing("getText", new StaleElementReferenceException("Rendered again."));
+    try {
+      pager.next.getText();
+      Assert.fail("The call should have been retried once only.");
+    } catch (StaleElementReferenceException sere) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testUnset() {
+    Pager pager = new Pager(driver.driver());
+    pager.next.getText();
+    long resolutions = LazyElement.getResolutions();
+    long reResolutions = LazyElement.getReResolutions();
+
+    pager.next.context().unset(); // Resolved again on the next use
+    Assert.assertFalse(pager.next.isResolved());
+    pager.next.getText();
+    Assert.assertEquals(2, found.size());
+    Assert.assertEquals(reResolutions + 1, LazyElement.getReResolutions());
+    Assert.assertEquals(resolutions, LazyElement.getResolutions()); // Not a first use again
+  }
+
+  @Test
+  public void testUnusedFields() {
+    Pager pager = new Pager(driver.driver());
+    pager.next.getText();
+    List<String> unused = LazyElement.getUnusedFields();
+    Assert.assertTrue(unused.contains("Pager.help"));
+    Assert.assertFalse(unused.contains("Pager.next"));
+    Assert.assertTrue(LazyElement.getStatistics().contains("Pager.help"));
+  }
+
+  private static class Pager extends PageObject {
+
+    private BasilElement next;
+    private BasilElement help;
+
+    private Pager(SearchContext context) {
+      super(context, PAGER);
+    }
+
+    @Override
+    protected void registerWebElements(ElementBatch batch) {
+      batch.lazy("next", NEXT).lazy("help", HELP);
+    }
+
+  }
+
+}
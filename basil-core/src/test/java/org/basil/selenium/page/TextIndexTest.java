@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.page;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * TextIndexTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 10:40:12 AM
+ */
+public class TextIndexTest {
+
+  @Test
+  public void test() {
+    TextIndex<Integer> index = new TextIndex<Integer>();
+    index.put("First name", 1);
+    index.put("Last name", 2);
+    index.put("E-mail address", 3);
+    index.put("Nickname", 4);
+
+    Assert.assertEquals(Integer.valueOf(1), index.first("name"));
+    Assert.assertEquals(Arrays.asList(1, 2, 4), index.all("name"));
+    Assert.assertEquals(Integer.valueOf(2), index.first("Last"));
+    Assert.assertEquals(Integer.valueOf(3), index.first("-"));
+    Assert.assertEquals(Integer.valueOf(3), index.first("mail addr"));
+    Assert.assertEquals(Integer.valueOf(1), index.first(""));
+    Assert.assertNull(index.first("Phone"));
+    Assert.assertNull(index.first("name "));
+  }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.SessionId;
+
+import com.google.common.collect.ImmutableMap;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * BasilCommandExecutorBenchmark - Compares the executors of Selenium and Basil on the session of a
+ * driver, which has an executor of its own and sends a few commands to a stub remote end answering
+ * every command with the same title, before it quits.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=org.basil.selenium.remote.BasilCommandExecutorBenchmark
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 8:04:37 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BasilCommandExecutorBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(BasilCommandExecutorBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  private static final SessionId SESSION = new SessionId("5e2d0a17");
+  private static final byte[] RESPONSE = ("{\"sessionId\":\"" + SESSION + "\",\"status\":0,"
+      + "\"value\":\"Basil\"}").getBytes(StandardCharsets.UTF_8);
+
+  private static final int COMMANDS = 50;
+
+  private HttpServer server;
+  private URL remoteAddress;
+  private PooledHttpClientFactory factory;
+
+  @Setup
+  public void setUp() throws IOException {
+    System.setProperty("sun.net.httpserver.nodelay", "true"); // Or delayed ACKs dominate
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, RESPONSE.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(RESPONSE);
+        }
+      }
+    });
+    server.start();
+    remoteAddress = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub");
+    factory = new PooledHttpClientFactory(4, 2, 5000, 5000, 30000);
+  }
+
+  @TearDown
+  public void tearDown() {
+    factory.shutdown();
+    server.stop(0);
+  }
+
+  @Benchmark
+  public Object selenium() throws IOException {
+    return session(new HttpCommandExecutor(remoteAddress));
+  }
+
+  @Benchmark
+  public Object basil() throws IOException {
+    return session(new BasilCommandExecutor(remoteAddress, factory));
+  }
+
+  private static Object session(CommandExecutor executor) throws IOException {
+    Object title = null;
+    for (int command = 0; command < COMMANDS; command++) {
+      title = executor.execute(new Command(SESSION, DriverCommand.GET_TITLE,
+          ImmutableMap.<String, Object>of())).getValue();
+    }
+    executor.execute(new Command(SESSION, DriverCommand.QUIT));
+    return title;
+  }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.SessionId;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * BasilCommandExecutorTest, runs against a stub remote end that answers every command with the
+ * same title. The drivers, each having an executor of its own, are expected to reuse a connection,
+ * see BasilCommandExecutorBenchmark for the time per command.
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 10:36:15 PM
+ */
+public class BasilCommandExecutorTest {
+
+  private static final SessionId SESSION = new SessionId("5e2d0a17");
+  private static final String RESPONSE =
+      "{\"sessionId\":\"" + SESSION + "\",\"status\":0,\"value\":\"Basil\"}";
+
+  private static final int DRIVERS = 20;
+
+  static {
+    System.setProperty("sun.net.httpserver.nodelay", "true"); // Or delayed ACKs dominate
+  }
+
+  private HttpServer server;
+  private URL remoteAddress;
+  private Set<Integer> connections; // The client ports the stub has seen
+  private volatile boolean gzipped;
+
+  @Before
+  public void setUp() throws Exception {
+    connections = Sets.newConcurrentHashSet();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        connections.add(exchange.getRemoteAddress().getPort());
+        byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+          ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+          try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+          }
+          body = compressed.toByteArray();
+          exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+          gzipped = true;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+    });
+    server.start();
+    remoteAddress = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/wd/hub");
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testConnectionReuse() throws Exception {
+    PooledHttpClientFactory factory = new PooledHttpClientFactory(4, 2, 5000, 5000, 30000);
+    try {
+      for (int driver = 0; driver < DRIVERS; driver++) {
+        CommandExecutor executor = new BasilCommandExecutor(remoteAddress, factory);
+        Assert.assertEquals("Basil", executor.execute(getTitle()).getValue());
+        executor.execute(new Command(SESSION, DriverCommand.QUIT));
+      }
+      // Quitting a driver doesn't close the connection the next driver reuses
+      Assert.assertEquals(1, connections.size());
+      Assert.assertTrue(gzipped);
+      Assert.assertEquals(0, factory.getStats().getLeased());
+    } finally {
+      factory.shutdown();
+    }
+  }
+
+  private static Command getTitle() {
+    return new Command(SESSION, DriverCommand.GET_TITLE, ImmutableMap.<String, Object>of());
+  }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.remote.DriverCommand;
+
+/**
+ * CommandMetricsTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 9:52:07 PM
+ */
+public class CommandMetricsTest {
+
+  @Test
+  public void testBuckets() {
+    for (long value : new long[] {0, 1, 15, 16, 17, 31, 32, 100, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = CommandMetrics.Buckets.index(value);
+      Assert.assertTrue(CommandMetrics.Buckets.lowerBound(index) <= value);
+      Assert.assertTrue(CommandMetrics.Buckets.upperBound(index) >= value);
+    }
+    for (int index = 0; index + 1 < CommandMetrics.Buckets.COUNT; index++) {
+      Assert.assertEquals(CommandMetrics.Buckets.upperBound(index) + 1,
+          CommandMetrics.Buckets.lowerBound(index + 1));
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    CommandMetrics metrics = new CommandMetrics();
+    for (int millis = 1; millis <= 100; millis++) {
+      metrics.record(DriverCommand.FIND_ELEMENT, TimeUnit.MILLISECONDS.toNanos(millis), false);
+    }
+    CommandMetrics.CommandStatistics statistics =
+        metrics.snapshot().getCommand(DriverCommand.FIND_ELEMENT);
+
+    Assert.assertEquals(100, statistics.getCount());
+    Assert.assertEquals(50.5, statistics.getMeanMillis(), 0.001);
+    assertWithin(50, statistics.getPercentileMillis(50));
+    assertWithin(95, statistics.getPercentileMillis(95));
+    assertWithin(99, statistics.getPercentileMillis(99));
+  }
+
+  @Test
+  public void testSnapshotDifference() {
+    CommandMetrics metrics = new CommandMetrics();
+    metrics.record(DriverCommand.GET_TITLE, 1000, false);
+    CommandMetrics.Snapshot before = metrics.snapshot();
+
+    metrics.record(DriverCommand.GET_TITLE, 2000, true);
+    metrics.record(DriverCommand.CLICK_ELEMENT, 3000, false);
+    CommandMetrics.Snapshot since = metrics.snapshot().minus(before);
+
+    Assert.assertEquals(1, since.getCommand(DriverCommand.GET_TITLE).getCount());
+    Assert.assertEquals(1, since.getCommand(DriverCommand.GET_TITLE).getErrors());
+    Assert.assertEquals(1, since.getCommand(DriverCommand.CLICK_ELEMENT).getCount());
+    Assert.assertTrue(metrics.snapshot().minus(metrics.snapshot()).isEmpty());
+  }
+
+  // The buckets are 12.5% wide
+  private static void assertWithin(double expected, double actual) {
+    Assert.assertEquals(expected, actual, expected * 0.125);
+  }
+
+}
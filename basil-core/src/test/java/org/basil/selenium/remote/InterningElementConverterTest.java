@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * InterningElementConverterTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 11:24:51 PM
+ */
+public class InterningElementConverterTest {
+
+  @Test
+  public void testInterning() {
+    StubDriver driver = new StubDriver("3c9e51f0");
+    InterningElementConverter converter = new InterningElementConverter(driver);
+
+    Object element = converter.apply(reference("0.1"));
+    Assert.assertSame(element, converter.apply(reference("0.1")));
+    Assert.assertNotSame(element, converter.apply(reference("0.2")));
+
+    // The elements of collections (the result of findElements) are interned too
+    List<?> elements = (List<?>) converter.apply(
+        ImmutableList.of(reference("0.1"), reference("0.2"), reference("0.3")));
+    Assert.assertSame(element, elements.get(0));
+    Assert.assertSame(converter.apply(reference("0.3")), elements.get(2));
+
+    Assert.assertEquals(4, converter.getHits());
+    Assert.assertEquals(3, converter.getMisses());
+    Assert.assertEquals(4 / 7.0, converter.getHitRate(), 0.0001);
+  }
+
+  @Test
+  public void testSessionScope() {
+    StubDriver driver = new StubDriver("3c9e51f0");
+    InterningElementConverter converter = new InterningElementConverter(driver);
+
+    Object element = converter.apply(reference("0.1"));
+    driver.startSession("7a0b42d6");
+    Assert.assertNotSame(element, converter.apply(reference("0.1")));
+    Assert.assertEquals(1, converter.size());
+  }
+
+  @Test
+  public void testValues() {
+    InterningElementConverter converter = new InterningElementConverter(new StubDriver("3c9e51f0"));
+    Assert.assertEquals("Basil", converter.apply("Basil"));
+    Assert.assertEquals(3L, converter.apply(3));
+    Assert.assertEquals(0, converter.getHits() + converter.getMisses());
+  }
+
+  private static Map<String, Object> reference(String id) {
+    return ImmutableMap.<String, Object>of("ELEMENT", id);
+  }
+
+  private static class StubDriver extends RemoteWebDriver {
+
+    private StubDriver(String sessionId) {
+      startSession(sessionId);
+    }
+
+    private void startSession(String sessionId) {
+      setSessionId(sessionId);
+    }
+
+  }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.base.DriverPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * ReusableTest - The drivers run against a stub remote end, which starts a new session on every
+ * NEW_SESSION and answers the commands of its live sessions, the ones of a dead session fail with
+ * an error. The drivers of a test share a MemorySessionStore.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 10:04:51 AM
+ */
+public class ReusableTest {
+
+  private StubRemoteEnd remoteEnd;
+  private MemorySessionStore store;
+
+  @Before
+  public void setUp() {
+    remoteEnd = new StubRemoteEnd();
+    store = new MemorySessionStore();
+  }
+
+  @Test
+  public void testLeased() {
+    BasilWebDriver.Reusable driver = reusable();
+    BasilWebDriver.Reusable otherDriver = reusable();
+    Assert.assertFalse(driver.getSessionId().equals(otherDriver.getSessionId()));
+    Assert.assertEquals(2, remoteEnd.newSessions);
+  }
+
+  @Test
+  public void testReleaseSession() {
+    BasilWebDriver.Reusable driver = reusable();
+    driver.releaseSession();
+    BasilWebDriver.Reusable otherDriver = reusable();
+    Assert.assertEquals(driver.getSessionId(), otherDriver.getSessionId());
+    Assert.assertEquals(1, remoteEnd.newSessions);
+    Assert.assertFalse(driver.leaseSession()); // Continued in by the other driver
+
+    otherDriver.releaseSession();
+    Assert.assertTrue(driver.leaseSession());
+    Assert.assertFalse(driver.getSessionId().equals(reusable().getSessionId()));
+  }
+
+  @Test
+  public void testDeadSession() {
+    BasilWebDriver.Reusable driver = reusable();
+    driver.releaseSession();
+    remoteEnd.dead.add(driver.getSessionId().toString()); // Listed, but it answers with an error
+
+    BasilWebDriver.Reusable otherDriver = reusable();
+    Assert.assertFalse(driver.getSessionId().equals(otherDriver.getSessionId()));
+    Assert.assertEquals(2, remoteEnd.newSessions);
+    Assert.assertFalse(driver.leaseSession()); // Removed from the store
+  }
+
+  @Test
+  public void testPooled() {
+    DriverPool pool = new DriverPool(new Supplier<WebDriver>() {
+      @Override
+      public WebDriver get() {
+        return reusable();
+      }
+    }, 1, 0, 1, TimeUnit.SECONDS);
+    BasilWebDriver.Reusable pooled = (BasilWebDriver.Reusable) pool.lease();
+    Assert.assertFalse(pooled.getSessionId().equals(reusable().getSessionId())); // Leased
+    pool.release(); // Back to the pool, not quit
+
+    BasilWebDriver.Reusable driver = reusable();
+    Assert.assertEquals(pooled.getSessionId(), driver.getSessionId());
+    Assert.assertEquals(2, remoteEnd.newSessions);
+
+    BasilWebDriver.Reusable leased = (BasilWebDriver.Reusable) pool.lease();
+    Assert.assertNotSame(pooled, leased); // The idle one is dropped, its session is taken
+    Assert.assertEquals(3, remoteEnd.newSessions);
+    pool.release();
+    pool.shutdown();
+    Assert.assertFalse(remoteEnd.sessions.contains(leased.getSessionId().toString())); // Quit
+    Assert.assertTrue(remoteEnd.sessions.contains(driver.getSessionId().toString()));
+  }
+
+  private BasilWebDriver.Reusable reusable() {
+    return new BasilWebDriver.Reusable(remoteEnd, DesiredCapabilities.chrome(), null, store);
+  }
+
+  /**
+   * A remote end whose sessions are all listed, the dead ones included.
+   */
+  private static class StubRemoteEnd implements CommandExecutor {
+
+    private final List<String> sessions = Lists.newArrayList();
+    private final Set<String> dead = Sets.newHashSet();
+    private int newSessions;
+
+    @Override
+    public synchronized Response execute(Command command) {
+      Response response = new Response();
+      response.setStatus(ErrorCodes.SUCCESS);
+      String sessionId = command.getSessionId() != null ? command.getSessionId().toString() : null;
+      switch (command.getName()) {
+        case DriverCommand.NEW_SESSION:
+          sessionId = "5e55" + ++newSessions;
+          sessions.add(sessionId);
+          response.setValue(ImmutableMap.of("browserName", "chrome", "platform", "ANY")); // As JSON
+          break;
+        case DriverCommand.GET_ALL_SESSIONS:
+          List<Object> sessionList = Lists.newArrayList();
+          for (String session : sessions) {
+            sessionList.add(ImmutableMap.of("id", session));
+          }
+          response.setValue(sessionList);
+          break;
+        case DriverCommand.QUIT:
+          sessions.remove(sessionId);
+          break;
+        default:
+          if (dead.contains(sessionId)) {
+            response.setStatus(ErrorCodes.NO_SUCH_SESSION);
+            response.setValue(ImmutableMap.of("message", "Session " + sessionId + " is gone."));
+          } else {
+            response.setValue("Basil");
+          }
+      }
+      response.setSessionId(sessionId);
+      return response;
+    }
+
+  }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.remote;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.SessionId;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * SessionStoreTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 8:58:19 PM
+ */
+public class SessionStoreTest {
+
+  private static final SessionId SESSION_1 = new SessionId("1f0c7b2e");
+  private static final SessionId SESSION_2 = new SessionId("9a4d21c8");
+  private static final Set<SessionId> LIVE_SESSIONS = ImmutableSet.of(SESSION_1, SESSION_2);
+
+  @Test
+  public void testFileSessionStore() throws Exception {
+    File directory = Files.createTempDirectory("basil-sessions").toFile();
+    FileSessionStore store = new FileSessionStore(directory);
+    FileSessionStore otherStore = new FileSessionStore(directory); // Shares the files
+
+    store.add(session(SESSION_1));
+    Assert.assertNull(otherStore.lease(LIVE_SESSIONS)); // Leased by the store that added it
+
+    store.release(SESSION_1);
+    Capabilities session = otherStore.lease(LIVE_SESSIONS);
+    Assert.assertEquals(SESSION_1.toString(), session.getCapability(SessionStore.SESSION_ID));
+    Assert.assertEquals("chrome", session.getBrowserName());
+    Assert.assertNull(store.lease(LIVE_SESSIONS));
+
+    otherStore.release(SESSION_1);
+    store.removeExpired(ImmutableSet.of(SESSION_2));
+    Assert.assertNull(store.lease(LIVE_SESSIONS));
+    Assert.assertEquals(0, directory.listFiles().length);
+    directory.delete();
+  }
+
+  @Test
+  public void testFileSessionStoreRemove() throws Exception {
+    File directory = Files.createTempDirectory("basil-sessions").toFile();
+    FileSessionStore store = new FileSessionStore(directory);
+    FileSessionStore otherStore = new FileSessionStore(directory);
+    store.add(session(SESSION_1));
+    File lockFile = new File(directory, SESSION_1 + ".lock");
+
+    otherStore.remove(SESSION_1); // Without the lease, the lock file is left to its holder
+    Assert.assertTrue(lockFile.exists());
+    Assert.assertNull(otherStore.lease(LIVE_SESSIONS));
+
+    store.remove(SESSION_1); // Deleted while still locked
+    Assert.assertEquals(0, directory.listFiles().length);
+    Assert.assertNull(otherStore.lease(LIVE_SESSIONS));
+    directory.delete();
+  }
+
+  @Test
+  public void testMemorySessionStore() {
+    MemorySessionStore store = new MemorySessionStore();
+    store.add(session(SESSION_1));
+    store.add(session(SESSION_2));
+    Assert.assertNull(store.lease(LIVE_SESSIONS));
+
+    store.release(SESSION_2);
+    Assert.assertNull(store.lease(ImmutableSet.of(SESSION_1))); // SESSION_2 isn't live
+    Assert.assertNotNull(store.lease(LIVE_SESSIONS));
+
+    store.remove(SESSION_1);
+    store.release(SESSION_2);
+    store.removeExpired(ImmutableSet.of(SESSION_1));
+    Assert.assertNull(store.lease(LIVE_SESSIONS));
+  }
+
+  private static Capabilities session(SessionId sessionId) {
+    DesiredCapabilities session = DesiredCapabilities.chrome();
+    session.setCapability(SessionStore.SESSION_ID, sessionId.toString());
+    return session;
+  }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * LocationPathTest
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 12:31:07 AM
+ */
+public class LocationPathTest {
+
+  @Test
+  public void testParse() {
+    LocationPath path = LocationPath.parse("//div[@id='main']/span[2]");
+    Assert.assertTrue(path.isAbsolute());
+    Assert.assertEquals(3, path.getSteps().size());
+    Assert.assertEquals("descendant-or-self", path.getSteps().get(0).getAxis());
+    Assert.assertEquals("main",
+        path.getSteps().get(1).getPredicates().get(0).getAttributes().get("id"));
+    Assert.assertEquals("//div[@id='main']/span[2]", path.abbreviate());
+
+    Assert.assertEquals("a[@b='x]y']/@c",
+        LocationPath.parse("child::a[@b='x]y']/attribute::c").abbreviate());
+    Assert.assertEquals("../text()", LocationPath.parse("parent::node()/text( )").abbreviate());
+    Assert.assertEquals(".//svg:g", LocationPath.parse(". // svg:g").abbreviate());
+    Assert.assertTrue(LocationPath.parse("preceding-sibling::a").hasExplicitAxis());
+    Assert.assertFalse(LocationPath.parse("following-div").hasExplicitAxis());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnion() {
+    LocationPath.parse("//a | //b");
+  }
+
+  @Test
+  public void testNotLocationPaths() {
+    Assert.assertNull(LocationPath.of("(//a)[1]"));
+    Assert.assertNull(LocationPath.of("id('main')"));
+    Assert.assertNull(LocationPath.of("//a[1"));
+    Assert.assertNull(LocationPath.of(""));
+  }
+
+  @Test
+  public void testAttributes() {
+    Assert.assertTrue(LocationPath.of(".//*[@id='main']").hasAttribute("id"));
+    Assert.assertTrue(
+        LocationPath.of("//input[@type='text' and @name=\"q\"]").hasAttribute("name"));
+    Assert.assertTrue(LocationPath.of("//input['q' = @name]").hasAttribute("name"));
+    Assert.assertFalse(LocationPath.of("//input[@name]").hasAttribute("name"));
+    Assert.assertFalse(LocationPath.of("//input[@name-x='q']").hasAttribute("name"));
+    Assert.assertFalse(LocationPath.of("//div[contains(@id, 'main')]").hasAttribute("id"));
+    Assert.assertFalse(LocationPath.of("//div[@id='a' or @class='b']").hasAttribute("id"));
+  }
+
+  @Test
+  public void testDocumentElement() {
+    Assert.assertTrue(LocationPath.of("/html").isDocumentElement());
+    Assert.assertTrue(LocationPath.of(".//html").isDocumentElement());
+    Assert.assertTrue(LocationPath.of("//html").isDocumentElement());
+    Assert.assertFalse(LocationPath.of("//html/body").isDocumentElement());
+    Assert.assertFalse(LocationPath.of("html").isDocumentElement());
+  }
+
+  @Test
+  public void testStartsWith() {
+    LocationPath table = LocationPath.of("//table[1]");
+    Assert.assertTrue(LocationPath.of("//table[1]//tr").startsWith(table));
+    Assert.assertFalse(LocationPath.of("//table[10]//tr").startsWith(table));
+    Assert.assertFalse(LocationPath.of("table[1]//tr").startsWith(table));
+  }
+
+  @Test
+  public void testInterning() {
+    Assert.assertSame(LocationPath.of("//a[@id='next']"), LocationPath.of("//a[@id='next']"));
+  }
+
+}
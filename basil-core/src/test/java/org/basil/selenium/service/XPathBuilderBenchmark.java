@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * XPathBuilderBenchmark - Compares building a path with the XPathBuilder with joining its
+ * expressions with XPathUtil.append(), the way the page objects and table drivers build paths.
+ * Add "-prof gc" to the options to compare the allocation as well.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=org.basil.selenium.service.XPathBuilderBenchmark
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 12:34:42 AM
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XPathBuilderBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(XPathBuilderBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  private String userName = "O'Neil"; // Not a constant, or the concatenation is folded
+  private final XPathBuilder builder = new XPathBuilderImpl();
+
+  // Both build //table[@id='users']/tbody/tr//td[text()="O'Neil"]/following-sibling::td[1]
+
+  @Benchmark
+  public String append() {
+    return XPathUtil.append(
+        "//table[@id='users']",
+        "/tbody/tr",
+        "td[text()=" + XPathUtil.literal(userName) + "]",
+        "following-sibling::td[1]");
+  }
+
+  @Benchmark
+  public String builder() {
+    return builder.reset()
+        .tag("table").withId("users").child().tag("tbody").child().tag("tr")
+        .tag("td").withText(userName)
+        .following_sibling().tag("td").index(1)
+        .toXPath();
+  }
+
+  @Benchmark
+  public String newBuilder() {
+    return new XPathBuilderImpl()
+        .tag("table").withId("users").child().tag("tbody").child().tag("tr")
+        .tag("td").withText(userName)
+        .following_sibling().tag("td").index(1)
+        .toXPath();
+  }
+
+  @Benchmark
+  public String builderCssSelector() {
+    return builder.reset()
+        .tag("table").withId("users").child().tag("tbody").child().tag("tr").index(2)
+        .toCssSelector();
+  }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.service;
+
+import org.basil.selenium.Basil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * XPathBuilderTest
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 12:21:07 AM
+ */
+public class XPathBuilderTest {
+
+  @Test
+  public void testSteps() {
+    XPathBuilder builder = new XPathBuilderImpl();
+    Assert.assertEquals("//table[@id='users']/tbody/tr[2]", builder
+        .tag("table").withId("users").child().tag("tbody").child().tag("tr").index(2).toXPath());
+    Assert.assertEquals("//td[text()='Ryan']/following-sibling::td[1]", builder.reset()
+        .tag("td").withText("Ryan").following_sibling().tag("td").index(1).toXPath());
+    Assert.assertEquals("//input/ancestor::form[@name='login']", builder.reset()
+        .tag("input").ancestor().tag("form").withAttribute("name", "login").toXPath());
+    Assert.assertEquals("//a/@href", builder.reset().tag("a").attribute().tag("href").toXPath());
+    Assert.assertEquals("parent::*", builder.reset().parent().any().toXPath());
+  }
+
+  @Test
+  public void testLiterals() {
+    XPathBuilder builder = new XPathBuilderImpl();
+    Assert.assertEquals("//span[text()=\"Ryan's\"]",
+        builder.tag("span").withText("Ryan's").toXPath());
+    Assert.assertEquals("//span[text()=concat('\"Ryan', \"'\", 's\"')]",
+        builder.reset().tag("span").withText("\"Ryan's\"").toXPath());
+    Assert.assertEquals("concat('', \"'\", 'a', \"'\", '\"')", XPathUtil.literal("'a'\""));
+  }
+
+  @Test
+  public void testCssSelector() {
+    XPathBuilder builder = new XPathBuilderImpl();
+    Assert.assertEquals("table#users > tbody > tr:nth-of-type(2)", builder
+        .tag("table").withId("users").child().tag("tbody").child().tag("tr").index(2)
+        .toCssSelector());
+    Assert.assertEquals("div.menu-item[data-key=\"a\\\"b\"] ~ *", builder.reset()
+        .tag("div").withClass("menu-item").withAttribute("data-key", "a\"b")
+        .following_sibling().any().toCssSelector());
+    Assert.assertEquals("ul > *:nth-child(3)", builder.reset().tag("ul").child().any().index(3)
+        .toCssSelector());
+    Assert.assertEquals("div[id=\"1st\"]", builder.reset().tag("div").withId("1st")
+        .toCssSelector());
+  }
+
+  @Test
+  public void testNotCssExpressible() {
+    XPathBuilder builder = new XPathBuilderImpl();
+    Assert.assertNull(builder.tag("td").containsText("Ryan").toCssSelector());
+    Assert.assertNull(builder.reset().tag("input").parent().any().toCssSelector());
+    Assert.assertNull(builder.reset().tag("tr").withClass("odd").index(1).toCssSelector());
+    Assert.assertNull(builder.reset().tag("li").following_sibling().tag("li").index(1)
+        .toCssSelector());
+    Assert.assertNull(builder.reset().child().tag("html").toCssSelector());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPredicateWithoutStep() {
+    new XPathBuilderImpl().child().withId("users");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAxisWithoutNodeTest() {
+    new XPathBuilderImpl().tag("table").child().toXPath();
+  }
+
+  @Test
+  public void testBuild() {
+    Basil locator = new XPathBuilderImpl().tag("form").withId("login").build();
+    Assert.assertSame(Basil.xpath("//form[@id='login']"), locator);
+  }
+
+}
@@ -4,9 +4,14 @@
 
 package org.basil.selenium.service;
 
+import org.basil.selenium.Stub;
 import org.junit.Assert;
 import org.junit.Test;
 import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+
+import com.google.common.collect.ImmutableList;
 
 /**
  * XPathServiceTest
@@ -23,4 +28,22 @@ public class XPathServiceTest {
         XPathUtil.append(By.xpath("//a[@id='next']"), "preceding-sibling::a"));
   }
 
+  @Test
+  public void testGetXPath() {
+    Stub driver = Stub.driver(true)
+        .returning("executeScript", ImmutableList.of("//div[@id='main']", "span[2]", "a[1]"));
+    WebElement element = new Stub(WebElement.class, WrapsDriver.class)
+        .returning("getWrappedDriver", driver.driver())
+        .webElement();
+
+    XPathServiceImpl service = new XPathServiceImpl();
+    Assert.assertEquals("//div[@id='main']//span[2]//a[1]", service.getXPath(element));
+    Assert.assertEquals(1, driver.getCommands());
+
+    // A sibling inserted before the element moves it
+    driver.returning("executeScript", ImmutableList.of("//div[@id='main']", "span[3]", "a[1]"));
+    Assert.assertEquals("//div[@id='main']//span[3]//a[1]", service.getXPath(element));
+    Assert.assertEquals(2, driver.getCommands());
+  }
+
 }
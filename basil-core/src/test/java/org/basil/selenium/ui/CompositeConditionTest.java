@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.List;
+import java.util.Map;
+
+import org.basil.selenium.Stub;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * CompositeConditionTest - The composites are applied to a stub driver, every call of which counts
+ * as a command. Its script returns a canned result, the clauses it was given are checked. The script
+ * itself is evaluated on the pages of an HtmlUnitDriver, against what WebElement reads.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 5:37:09 AM
+ */
+public class CompositeConditionTest {
+
+  private static final By DIALOG = By.id("dialog");
+
+  @Test
+  public void testScript() {
+    Stub stub = Stub.driver(true);
+    WebElement dialog = stubPage(stub, ImmutableMap.of("satisfied", true));
+    ExpectedCondition<Boolean> composite = ExtendedConditions.satisfiesAll(
+        ExtendedConditions.visibilityOfElementLocated(DIALOG),
+        ExtendedConditions.attributeValueToPresentInElement(dialog, "class", "ready"),
+        ExtendedConditions.ariaStateToBeTrue(dialog, ARIAs.Attribute.EXPANDED));
+
+    Assert.assertTrue(composite.apply(stub.driver()));
+    Assert.assertEquals(1, stub.getCommands());
+    Object[] arguments = (Object[]) stub.getArguments("executeScript")[1];
+    Assert.assertEquals("all", arguments[1]);
+    List<?> clauses = (List<?>) arguments[0];
+    Assert.assertEquals(ImmutableList.of("visible", "attributeContains", "attributeEquals"),
+        clauses.get(0));
+    Assert.assertEquals(ImmutableList.of("throw", "throw", "throw"), clauses.get(5));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testScriptMissing() {
+    Stub stub = Stub.driver(true);
+    stubPage(stub, ImmutableMap.of("missing", 1L));
+    ExtendedConditions.satisfiesOne(
+        ExtendedConditions.invisibilityOfElementLocated(By.id("loading")),
+        ExtendedConditions.visibilityOfElementLocated(DIALOG)).apply(stub.driver());
+  }
+
+  @Test
+  public void testNotScriptable() {
+    Stub stub = Stub.driver(true);
+    WebElement dialog = stubPage(stub, null);
+    ExpectedCondition<Boolean> composite = ExtendedConditions.satisfiesNone(
+        ExtendedConditions.visibilityOf(dialog),
+        ExpectedConditions.titleIs("Dialog"));
+
+    Assert.assertFalse(composite.apply(stub.driver())); // The element is visible
+    Assert.assertEquals(1, stub.getCommands());
+    Assert.assertFalse(((CompositeCondition) composite).isScriptable());
+  }
+
+  @Test
+  public void testNotScriptExecutor() {
+    Stub stub = Stub.driver(false);
+    WebElement dialog = stubPage(stub, null);
+    ExpectedCondition<Boolean> composite = ExtendedConditions.satisfiesAll(
+        ExtendedConditions.visibilityOfElementLocated(DIALOG),
+        ExtendedConditions.textToPresentInElement(dialog));
+
+    Assert.assertTrue(composite.apply(stub.driver()));
+    Assert.assertEquals(3, stub.getCommands()); // findElement, isDisplayed and getText
+    Assert.assertEquals(0, ((CompositeCondition) composite).getScripts());
+  }
+
+  @Test
+  public void testRoundTrips() {
+    Stub applied = Stub.driver(false);
+    stubPage(applied, null);
+    Stub scripted = Stub.driver(true);
+    stubPage(scripted, ImmutableMap.of("satisfied", true));
+    for (Stub stub : new Stub[] {applied, scripted}) {
+      ExpectedCondition<Boolean> composite = ExtendedConditions.satisfiesAll(
+          ExtendedConditions.visibilityOfElementLocated(DIALOG),
+          ExtendedConditions.attributeValueToAbsentInElementLocated(DIALOG, "class", "busy"),
+          ExtendedConditions.invisibilityOfElementLocated(By.id("loading")));
+      for (int poll = 0; poll < 10; poll++) {
+        composite.apply(stub.driver());
+      }
+    }
+    Assert.assertEquals(50, applied.getCommands()); // 5 commands a poll
+    Assert.assertEquals(10, scripted.getCommands()); // 1 script a poll
+  }
+
+  @Test
+  public void testBooleanAttributes() {
+    HtmlUnitDriver driver = newPage("<input id='enabled'><input id='disabled' disabled>"
+        + "<input id='checkbox' type='checkbox' checked readonly><input id='text' value='a'>");
+    try {
+      for (String id : new String[] {"enabled", "disabled", "checkbox", "text"}) {
+        WebElement element = driver.findElement(By.id(id));
+        for (String attribute : new String[] {"disabled", "checked", "readonly", "value"}) {
+          ExpectedCondition<Boolean> present =
+              ExtendedConditions.attributeToPresentInElement(element, attribute);
+          ExpectedCondition<Boolean> isTrue =
+              ExtendedConditions.attributeValueToPresentInElement(element, attribute, "true");
+          CompositeCondition composite =
+              (CompositeCondition) ExtendedConditions.satisfiesAll(present, isTrue);
+          boolean applied = present.apply(driver) && isTrue.apply(driver);
+          Assert.assertEquals(id + "." + attribute, applied, composite.apply(driver));
+          Assert.assertEquals(1, composite.getScripts());
+        }
+      }
+    } finally {
+      driver.quit();
+    }
+  }
+
+  @Test
+  public void testDisplayed() {
+    HtmlUnitDriver driver = newPage("<div id='shown'>Dialog</div>"
+        + "<div id='none' style='display: none'>Dialog</div>"
+        + "<div id='hidden' style='visibility: hidden'>Dialog</div>"
+        + "<div id='transparent' style='opacity: 0'><span id='child'>Dialog</span></div>"
+        + "<input id='input' type='hidden'><span id='empty'></span>"
+        + "<select><option id='option'>Dialog</option></select>");
+    try {
+      Map<String, Boolean> expected = ImmutableMap.<String, Boolean>builder()
+          .put("shown", true).put("none", false).put("hidden", false).put("transparent", false)
+          .put("child", false).put("input", false).put("empty", false).put("option", true)
+          .build();
+      for (Map.Entry<String, Boolean> entry : expected.entrySet()) {
+        WebElement element = driver.findElement(By.id(entry.getKey()));
+        Assert.assertEquals(entry.getKey(), entry.getValue(),
+            ExtendedConditions.satisfiesAll(ExtendedConditions.visibilityOf(element))
+                .apply(driver));
+      }
+    } finally {
+      driver.quit();
+    }
+  }
+
+  private static HtmlUnitDriver newPage(String body) {
+    HtmlUnitDriver driver = new HtmlUnitDriver(true);
+    driver.get("about:blank");
+    driver.executeScript("document.body.innerHTML = arguments[0];", body);
+    return driver;
+  }
+
+  /**
+   * Stubs a page every element of which is displayed, has the class "ready" and the text "Dialog",
+   * but the loading, and whose script returns the result. Returns the element of the dialog.
+   */
+  private static WebElement stubPage(Stub driver, Map<String, ?> result) {
+    final WebElement dialog = driver.element()
+        .returning("isDisplayed", true)
+        .on("getAttribute", new Stub.Answer() {
+          @Override
+          public Object answer(Object[] args) {
+            return args[0].equals("class") ? "ready" : null;
+          }
+        })
+        .returning("getText", "Dialog")
+        .webElement();
+    driver.on("findElement", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        if (args[0].equals(By.id("loading"))) {
+          throw new NoSuchElementException("No loading.");
+        }
+        return dialog;
+      }
+    }).returning("executeScript", result).returning("getTitle", "Page");
+    return dialog;
+  }
+
+}
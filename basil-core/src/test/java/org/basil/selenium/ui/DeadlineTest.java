@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.Stub;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+
+import com.google.common.base.Function;
+
+/**
+ * DeadlineTest - The waits are nested in deadlines on a stub context, whose conditions are never
+ * satisfied, so they give up when the deadline (rather than their own timeout) passes.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 6:14:52 AM
+ */
+public class DeadlineTest {
+
+  private static final Function<SearchContext, Boolean> NEVER =
+      new Function<SearchContext, Boolean>() {
+        @Override
+        public Boolean apply(SearchContext context) {
+          return false;
+        }
+
+        @Override
+        public String toString() {
+          return "never";
+        }
+      };
+
+  @Test
+  public void testNesting() {
+    Assert.assertNull(Deadline.current());
+    Assert.assertEquals(30000, Deadline.clip(30000));
+    try (Deadline outer = Deadline.open("outer", 1, TimeUnit.SECONDS)) {
+      Assert.assertTrue(Deadline.clip(30000) <= 1000);
+      try (Deadline inner = Deadline.open("inner", 60, TimeUnit.SECONDS)) {
+        Assert.assertSame(inner, Deadline.current());
+        Assert.assertTrue(inner.getRemainingMillis() <= 1000); // Clipped to the outer
+        Assert.assertEquals(100, Deadline.clip(100));
+      }
+      Assert.assertSame(outer, Deadline.current());
+      try (Deadline unbounded = Deadline.open("unbounded", Long.MAX_VALUE, TimeUnit.DAYS)) {
+        Assert.assertTrue(unbounded.getRemainingMillis() <= 1000);
+      }
+    }
+    Assert.assertNull(Deadline.current());
+    Assert.assertFalse(Deadline.isPassed());
+  }
+
+  @Test
+  public void testPassed() {
+    long clippedWaits = Deadline.getClippedWaits();
+    Deadline deadline = Deadline.open("passed", 0, TimeUnit.SECONDS);
+    try {
+      Assert.assertTrue(Deadline.isPassed());
+      Assert.assertEquals(0, Deadline.clip(500));
+      Assert.assertEquals(0, Deadline.clip(Long.MAX_VALUE)); // Not counted
+    } finally {
+      deadline.close();
+    }
+    Assert.assertEquals(clippedWaits + 1, Deadline.getClippedWaits());
+  }
+
+  @Test
+  public void testNestedWaits() {
+    SearchContext context = new Stub(SearchContext.class).as(SearchContext.class);
+    final SearchContextWait inner = new SearchContextWait(context, 30);
+    inner.polling(PollingStrategies.fixed()).pollingEvery(50, TimeUnit.MILLISECONDS);
+    SearchContextWait outer = new SearchContextWait(context, 30);
+    outer.polling(PollingStrategies.fixed()).withTimeout(600, TimeUnit.MILLISECONDS)
+        .pollingEvery(50, TimeUnit.MILLISECONDS);
+
+    long start = System.currentTimeMillis();
+    try {
+      // Each poll of the outer wait would otherwise wait for 30 seconds
+      outer.until(new Function<SearchContext, Boolean>() {
+        @Override
+        public Boolean apply(SearchContext context) {
+          try {
+            return inner.until(NEVER);
+          } catch (TimeoutException te) {
+            return false;
+          }
+        }
+      });
+      Assert.fail("The outer wait should have timed out.");
+    } catch (TimeoutException te) {
+      Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+    Assert.assertNull(Deadline.current());
+  }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.ui.MutationWaitTest.SimulatedPage;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * MutationWaitBenchmark - Compares polling the ExtendedConditions with observing the mutations, on
+ * the latency of a wait for an element that appears a while after the wait begins, and on the
+ * commands a wait takes. Every command of the simulated page takes a round trip of 5 ms, and the
+ * polling interval is 100 ms.
+ *
+ * The commands per wait are printed once the benchmarks are done, the "commands" and "waits"
+ * counters of the results are their totals.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=org.basil.selenium.ui.MutationWaitBenchmark
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 10:52:36 AM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationWaitBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    for (RunResult result : new Runner(new OptionsBuilder()
+        .include(MutationWaitBenchmark.class.getSimpleName())
+        .build()).run()) {
+      Map<String, Result> counters = result.getSecondaryResults();
+      System.out.println(String.format("%s (delay %s ms): %.1f commands per wait",
+          result.getParams().getBenchmark(), result.getParams().getParam("delay"),
+          counters.get("commands").getScore() / counters.get("waits").getScore()));
+    }
+  }
+
+  private static final By LOADING = By.id("loading");
+
+  @Param({"0", "120", "530"})
+  private long delay;
+
+  /**
+   * The commands the waits of an iteration have taken.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Commands {
+
+    public long commands;
+    public long waits;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      commands = 0;
+      waits = 0;
+    }
+
+    private void count(SimulatedPage page) {
+      commands += page.stub.getCommands();
+      waits++;
+    }
+
+  }
+
+  @Benchmark
+  public WebElement polling(Commands commands) {
+    SimulatedPage page = new SimulatedPage(true, delay);
+    WebElement element = new SearchContextWait(page.driver, 5, 100)
+        .until(ExtendedConditions.visibilityOfElementLocated(LOADING));
+    commands.count(page);
+    return element;
+  }
+
+  @Benchmark
+  public WebElement mutation(Commands commands) {
+    SimulatedPage page = new SimulatedPage(true, delay);
+    WebElement element = new MutationWait(page.driver, 5).observing(true).untilVisible(LOADING);
+    commands.count(page);
+    return element;
+  }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import static org.basil.Config.WAIT_MUTATION_SCRIPT;
+import static org.basil.Config.WAIT_MUTATION_SLICE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.basil.selenium.Stub;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * MutationWaitTest - Waits on a simulated page, whose element appears a while after the wait
+ * begins and every command of which takes a round trip. The command count of polling is compared
+ * with the one of observing the mutations.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 3:31:52 AM
+ */
+public class MutationWaitTest {
+
+  private static final By LOADING = By.id("loading");
+  private static final long ROUND_TRIP = 5;
+
+  @Test
+  public void testUntilVisible() {
+    SimulatedPage page = new SimulatedPage(true, 300);
+    MutationWait wait = new MutationWait(page.driver, 5).observing(true);
+    Assert.assertSame(page.element, wait.untilVisible(LOADING));
+    Assert.assertEquals(1, wait.getScripts());
+    Assert.assertEquals(0, page.finds.get());
+    Assert.assertEquals(ImmutableList.of(WAIT_MUTATION_SLICE + 5000, WAIT_MUTATION_SCRIPT),
+        page.scriptTimeouts); // Raised for the wait, and restored
+  }
+
+  @Test
+  public void testSlices() {
+    SimulatedPage page = new SimulatedPage(true, 300);
+    MutationWait wait = new MutationWait(page.driver, 5).observing(true).withSlice(100);
+    Assert.assertSame(page.element, wait.untilPresent(LOADING));
+    Assert.assertTrue(wait.getScripts() >= 3);
+  }
+
+  @Test
+  public void testFallbackToPolling() {
+    SimulatedPage page = new SimulatedPage(false, 300);
+    MutationWait wait = new MutationWait(page.driver, 5).pollingEvery(50, TimeUnit.MILLISECONDS);
+    Assert.assertSame(page.element, wait.untilVisible(LOADING));
+    Assert.assertEquals(0, wait.getScripts());
+    Assert.assertTrue(page.finds.get() > 1);
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void testTimeout() {
+    new MutationWait(new SimulatedPage(true, 10000).driver)
+        .withTimeout(300, TimeUnit.MILLISECONDS)
+        .observing(true)
+        .untilVisible(LOADING);
+  }
+
+  @Test
+  public void testScriptTimeoutRestored() {
+    SimulatedPage page = new SimulatedPage(true, 10000);
+    try {
+      new MutationWait(page.driver).withTimeout(200, TimeUnit.MILLISECONDS).observing(true)
+          .untilVisible(LOADING);
+      Assert.fail("The wait should have timed out.");
+    } catch (TimeoutException te) {
+      Assert.assertEquals(WAIT_MUTATION_SCRIPT,
+          page.scriptTimeouts.get(page.scriptTimeouts.size() - 1).longValue());
+    }
+  }
+
+  @Test
+  public void testNotObserving() {
+    SimulatedPage page = new SimulatedPage(true, 0);
+    MutationWait wait = new MutationWait(page.driver, 5).observing(false);
+    Assert.assertSame(page.element, wait.untilVisible(LOADING));
+    Assert.assertEquals(0, wait.getScripts());
+    Assert.assertTrue(page.scriptTimeouts.isEmpty());
+  }
+
+  @Test
+  public void testCommands() {
+    long[] delays = {0, 120, 270, 530, 1010};
+    int pollingCommands = 0, mutationCommands = 0;
+    for (long delay : delays) {
+      SimulatedPage page = new SimulatedPage(true, delay);
+      new SearchContextWait(page.driver, 5, 100)
+          .until(ExtendedConditions.visibilityOfElementLocated(LOADING));
+      pollingCommands += page.stub.getCommands();
+
+      page = new SimulatedPage(true, delay);
+      new MutationWait(page.driver, 5).observing(true).untilVisible(LOADING);
+      mutationCommands += page.stub.getCommands();
+    }
+    // One script a wait, and the script timeout raised and restored
+    Assert.assertEquals(3 * delays.length, mutationCommands);
+    Assert.assertTrue(pollingCommands > 1010 / 100); // A find a poll until it appears
+  }
+
+  /**
+   * A page whose element appears at a given time, the driver can execute scripts or not. See
+   * MutationWaitBenchmark too.
+   */
+  static class SimulatedPage {
+
+    private final long appearance;
+    private final AtomicInteger finds = new AtomicInteger();
+    private final List<Long> scriptTimeouts = new ArrayList<Long>();
+    final Stub stub;
+    final WebDriver driver;
+    private final WebElement element;
+
+    SimulatedPage(boolean scriptable, long delay) {
+      appearance = System.currentTimeMillis() + delay;
+      stub = Stub.driver(scriptable);
+      element = stub.element().on("isDisplayed", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) throws InterruptedException {
+          Thread.sleep(ROUND_TRIP);
+          return true;
+        }
+      }).webElement();
+      stub.on("findElement", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) throws InterruptedException {
+          finds.incrementAndGet();
+          Thread.sleep(ROUND_TRIP);
+          if (!isAppeared()) {
+            throw new NoSuchElementException("Not yet.");
+          }
+          return element;
+        }
+      }).on("executeAsyncScript", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) throws InterruptedException {
+          Thread.sleep(ROUND_TRIP);
+          long slice = ((Number) ((Object[]) args[1])[4]).longValue();
+          Thread.sleep(Math.max(0, Math.min(slice, appearance - now())));
+          return isAppeared()
+              ? ImmutableMap.of("satisfied", true, "element", element)
+              : ImmutableMap.of("satisfied", false);
+        }
+      }).on("setScriptTimeout", new Stub.Answer() {
+        @Override
+        public Object answer(Object[] args) {
+          scriptTimeouts.add(((TimeUnit) args[1]).toMillis((Long) args[0]));
+          return null;
+        }
+      });
+      driver = stub.driver();
+    }
+
+    private boolean isAppeared() {
+      return now() >= appearance;
+    }
+
+    private long now() {
+      return System.currentTimeMillis();
+    }
+
+  }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.basil.selenium.Stub;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * NetworkIdleTest - The tracker is played by a stub driver, whose script returns the states of a
+ * page which sends two requests and is then quiet.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 7:38:15 AM
+ */
+public class NetworkIdleTest {
+
+  private static final String HOOK = "tracker.hooked = true;";
+
+  @After
+  public void tearDown() {
+    NetworkIdle.removeHook(HOOK);
+  }
+
+  @Test
+  public void testIdle() {
+    Stub stub = stubDriver(ImmutableList.of(
+        state(0, 0, 0),      // Injected
+        state(2, 1, 0),
+        state(1, 0, 40),
+        state(0, 0, 120),    // Not quiet for long enough
+        state(0, 0, 310)));
+    NetworkIdle networkIdle = new NetworkIdle(300, 1000);
+    NetworkIdle.addHook(HOOK);
+
+    Assert.assertTrue(new SearchContextWait(stub.driver(), 5, 10).until(networkIdle));
+    Object[] arguments = stub.getArguments("executeScript");
+    Assert.assertEquals(5, stub.getCommands());
+    Assert.assertEquals(1000L, ((Object[]) arguments[1])[0]);
+    Assert.assertTrue(((String) arguments[0]).contains(HOOK));
+    Assert.assertEquals(0, networkIdle.getPending());
+  }
+
+  @Test
+  public void testPending() {
+    Stub stub = stubDriver(ImmutableList.of(state(1, 2, 900)));
+    NetworkIdle networkIdle = new NetworkIdle(300, 1000);
+    Assert.assertFalse(networkIdle.apply(stub.driver()));
+    Assert.assertEquals(1, networkIdle.getPending());
+    Assert.assertEquals(2, networkIdle.getTimers());
+    Assert.assertEquals("network to be idle for 300 ms", networkIdle.toString());
+    Assert.assertFalse(((String) stub.getArguments("executeScript")[0]).contains(HOOK));
+  }
+
+  @Test
+  public void testNotTrackable() {
+    Stub stub = Stub.driver(false);
+    Assert.assertFalse(NetworkIdle.isTrackable(stub.driver()));
+    Assert.assertTrue(new NetworkIdle().apply(stub.driver())); // Can't tell, considered idle
+    Assert.assertEquals(0, stub.getCommands());
+  }
+
+  private static Map<String, Long> state(long pending, long timers, long quiet) {
+    return ImmutableMap.of("pending", pending, "timers", timers, "quiet", quiet);
+  }
+
+  private static Stub stubDriver(Iterable<Map<String, Long>> states) {
+    final Iterator<Map<String, Long>> iterator = states.iterator();
+    return Stub.driver(true).on("executeScript", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        return iterator.next();
+      }
+    });
+  }
+
+}
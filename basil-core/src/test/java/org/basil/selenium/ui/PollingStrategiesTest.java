@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.basil.selenium.Stub;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
+
+import com.google.common.base.Function;
+
+/**
+ * PollingStrategiesTest
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 4:48:15 AM
+ */
+public class PollingStrategiesTest {
+
+  @Test
+  public void testFixed() {
+    PollingStatistics.ConditionStatistics condition = PollingStatistics.of("fixed");
+    Assert.assertEquals(500, PollingStrategies.fixed().nextInterval(condition, 1, 0, 500));
+    Assert.assertEquals(500, PollingStrategies.fixed().nextInterval(condition, 9, 4000, 500));
+  }
+
+  @Test
+  public void testBackoff() {
+    PollingStatistics.ConditionStatistics condition = PollingStatistics.of("backoff");
+    PollingStrategy backoff = PollingStrategies.backoff(8, 2, 4, 0);
+    long[] expected = {50, 100, 200, 400, 800, 1600, 1600};
+    for (int polls = 1; polls <= expected.length; polls++) {
+      Assert.assertEquals(expected[polls - 1], backoff.nextInterval(condition, polls, 0, 400));
+    }
+    for (int i = 0; i < 100; i++) {
+      long sleep = PollingStrategies.backoff().nextInterval(condition, 4, 0, 400); // 168.75
+      Assert.assertTrue(sleep >= 135 && sleep <= 203);
+    }
+  }
+
+  @Test
+  public void testAdaptive() {
+    PollingStatistics.ConditionStatistics condition = PollingStatistics.of("adaptive");
+    PollingStrategy adaptive = PollingStrategies.adaptive(3, PollingStrategies.fixed());
+    condition.record(5, 900, true);
+    condition.record(5, 1000, true);
+    Assert.assertEquals(500, adaptive.nextInterval(condition, 1, 0, 500)); // Warming up
+    condition.record(5, 1100, true);
+
+    Assert.assertEquals(750, adaptive.nextInterval(condition, 1, 0, 500)); // Sleeps through
+    Assert.assertEquals(100, adaptive.nextInterval(condition, 2, 750, 500)); // Densely around
+    Assert.assertEquals(100, adaptive.nextInterval(condition, 9, 2000, 500));
+    Assert.assertEquals(500, adaptive.nextInterval(condition, 10, 2100, 500)); // Late
+  }
+
+  @Test
+  public void testStatistics() {
+    PollingStatistics.ConditionStatistics condition =
+        PollingStatistics.of("visibility of element located by By.id: menu in null");
+    Assert.assertSame(condition,
+        PollingStatistics.of("visibility of element located by By.id: menu in [[Chrome]]"));
+    Assert.assertEquals("visibility of element located by By.id: menu", condition.getCondition());
+
+    for (int i = 1; i <= 10; i++) {
+      condition.record(i, i * 100, true);
+    }
+    condition.record(20, 5000, false);
+    Assert.assertEquals(11, condition.getWaits());
+    Assert.assertEquals(1, condition.getTimeouts());
+    Assert.assertEquals(75, condition.getPolls());
+    Assert.assertEquals(500, condition.getPercentileMillis(50));
+    Assert.assertEquals(900, condition.getPercentileMillis(90));
+    Assert.assertEquals(1000, condition.getPercentileMillis(99));
+  }
+
+  @Test
+  public void testSchedule() {
+    PollingSchedule schedule = new PollingSchedule(PollingStrategies.fixed(), "schedule", 300);
+    Assert.assertEquals(200, schedule.next(200));
+    Assert.assertTrue(schedule.next(200) <= 300);
+    Assert.assertEquals(3, schedule.getPolls());
+    schedule.satisfied();
+    schedule.timedOut(); // Finished already
+    PollingStatistics.ConditionStatistics condition = PollingStatistics.of("schedule");
+    Assert.assertEquals(1, condition.getWaits());
+    Assert.assertEquals(3, condition.getPolls());
+    Assert.assertEquals(0, condition.getTimeouts());
+  }
+
+  @Test
+  public void testCopy() {
+    SearchContext context = new Stub(SearchContext.class).as(SearchContext.class);
+    SearchContextWait wait = new SearchContextWait(context, 30).polling(PollingStrategies.fixed());
+    wait.withTimeout(200, TimeUnit.MILLISECONDS).pollingEvery(50, TimeUnit.MILLISECONDS);
+    SearchContextWait copy = new SearchContextWait(context, wait);
+
+    long start = System.currentTimeMillis();
+    try {
+      copy.until(new Function<SearchContext, Boolean>() {
+        @Override
+        public Boolean apply(SearchContext context) {
+          return false;
+        }
+      });
+      Assert.fail("The copy should have timed out.");
+    } catch (TimeoutException te) {
+      Assert.assertTrue(System.currentTimeMillis() - start < 2000); // Not the 30 s of the copied
+    }
+  }
+
+}
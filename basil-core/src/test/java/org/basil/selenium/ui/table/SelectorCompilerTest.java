@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * SelectorCompilerTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 5:48:06 PM
+ */
+public class SelectorCompilerTest {
+
+  private final SelectorCompiler compiler = new SelectorCompiler(
+      Functions.forMap(ImmutableMap.of("Total", 9)),
+      Functions.forMap(ImmutableMap.of("Brand", 1, "Model", 2)));
+
+  @Test
+  public void test() {
+    Assert.assertEquals("string(td[1]) = 'Dell'",
+        compiler.compile(Selectors.valueOf("Brand").equalz("Dell")));
+    Assert.assertEquals("contains(translate(string(td[2]), "
+        + "'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), 'xps')",
+        compiler.compile(Selectors.valueOf(2).contains("XPS").ignoreCase()));
+    Assert.assertEquals("substring(string(td[2]), string-length(string(td[2])) - 1) = '13'",
+        compiler.compile(Selectors.valueOf("Model").endsWith("13")));
+    Assert.assertEquals("position() = 9", compiler.compile(Selectors.name("Total")));
+  }
+
+  @Test
+  public void testJoins() {
+    Selector selector = Selectors.valueOf("Brand").equalz("Dell");
+    Selector joinedSelector = Selectors.valueOf("Model").startsWith("XPS");
+    joinedSelector.orNot(Selectors.index(1));
+    selector.and(joinedSelector);
+    Assert.assertEquals("(string(td[1]) = 'Dell'"
+        + " and (starts-with(string(td[2]), 'XPS') or not(position() = 1)))",
+        compiler.compile(selector));
+
+    Assert.assertEquals("string(td[1]) = 'HP'",
+        compiler.compile(Selectors.valueOf(1).equalz("HP").not().not()));
+  }
+
+  @Test
+  public void testLiteral() {
+    Assert.assertEquals("'Dell'", SelectorCompiler.literal("Dell"));
+    Assert.assertEquals("\"Dell's\"", SelectorCompiler.literal("Dell's"));
+    Assert.assertEquals("concat('', \"'\", 'Dell', \"'\", 's \"XPS\"')",
+        SelectorCompiler.literal("'Dell's \"XPS\""));
+  }
+
+}
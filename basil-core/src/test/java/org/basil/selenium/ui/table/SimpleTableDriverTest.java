@@ -0,0 +1,346 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.basil.selenium.Stub;
+import org.basil.selenium.ui.table.SimpleTableDriver.SimpleSnapshot;
+import org.basil.selenium.ui.table.TableDiff.Change;
+import org.basil.selenium.ui.table.TableDiff.ChangeType;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebElement;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+/**
+ * SimpleTableDriverTest - The table is a stub element on a stub driver, its rows are lists of
+ * cells with a text and a colspan. The scripts of the snapshot are answered the way they answer in
+ * a browser, with the numbers as Longs like the results of a remote driver, or run themselves in
+ * the JavaScript engine of the JVM on a document of the rows where a test says so.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 10:58:14 AM
+ */
+public class SimpleTableDriverTest {
+
+  private static final String XPATH = "//table[@id='laptops']/tbody";
+
+  /**
+   * A document whose only node is the table of the rows, for the scripts run in the engine.
+   */
+  private static final String DOCUMENT =
+      "var XPathResult = {FIRST_ORDERED_NODE_TYPE: 9};" +
+      "var document = {evaluate: function() {" +
+      "  var table = {tagName: 'TBODY', children: []};" +
+      "  for (var r = 0; r < texts.size(); r++) {" +
+      "    var row = {tagName: 'TR', children: []};" +
+      "    for (var c = 0; c < texts.get(r).size(); c++) {" +
+      "      row.children.push(cell(texts.get(r).get(c), spans.get(r).get(c)));" +
+      "    }" +
+      "    table.children.push(row);" +
+      "  }" +
+      "  return {singleNodeValue: table};" +
+      "}};" +
+      "function cell(text, colspan) {" +
+      "  return {tagName: 'TD', innerText: text, getAttribute: function(name) {" +
+      "    return colspan > 1 ? String(colspan) : null;" +
+      "  }};" +
+      "}" +
+      "function toJs(value) {" +
+      "  return value instanceof Java.type('java.util.List') ? Java.from(value) : value;" +
+      "}" +
+      "function toJava(value) {" +
+      "  if (Array.isArray(value)) {" +
+      "    return Java.to(value.map(toJava), 'java.util.List');" +
+      "  }" +
+      "  if (value !== null && typeof value === 'object') {" +
+      "    var map = new java.util.HashMap();" +
+      "    for (var key in value) {" +
+      "      map.put(key, toJava(value[key]));" +
+      "    }" +
+      "    return map;" +
+      "  }" +
+      "  return value;" +
+      "}";
+
+  private Stub driver;
+  private Stub table;
+  private List<List<Cell>> rows;
+  private ScriptEngine engine; // Runs the scripts themselves once set
+
+  @Before
+  public void setUp() {
+    rows = Lists.newArrayList(
+        row("Dell", "XPS", "13"), row("Lenovo", "X1 Carbon", "14"), row("HP", "Spectre", "13"));
+    driver = Stub.driver(true);
+    driver.on("executeScript", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) throws Exception {
+        String script = (String) args[0];
+        Object[] arguments = (Object[]) args[1];
+        if (arguments[0] instanceof WebElement) {
+          return ImmutableList.of(XPATH); // The XPath of the table
+        }
+        if (engine != null) {
+          return run(script, arguments);
+        }
+        return script.contains("hashes") ? refresh((List<?>) arguments[1]) : texts();
+      }
+    });
+    table = driver.element().on("findElements", new Stub.Answer() {
+      @Override
+      public Object answer(Object[] args) {
+        String xpath = args[0].toString();
+        List<WebElement> elements = Lists.newArrayList();
+        if (xpath.endsWith(XPATH + "/tr")) {
+          for (int i = 0; i < rows.size(); i++) {
+            elements.add(driver.element().webElement());
+          }
+        } else if (xpath.endsWith(XPATH + "/tr[1]/td")) {
+          for (Cell cell : rows.get(0)) {
+            elements.add(driver.element().returning("getAttribute",
+                cell.colspan > 1 ? String.valueOf(cell.colspan) : null).webElement());
+          }
+        }
+        return elements;
+      }
+    });
+  }
+
+  @Test
+  public void testLoad() {
+    rows.add(0, Lists.newArrayList(new Cell("Laptop", 2), new Cell("Size", 1)));
+    SimpleTableDriver tableDriver = new SimpleTableDriver(table.webElement());
+    Assert.assertEquals(3, tableDriver.config().columnCount());
+    Assert.assertFalse(tableDriver.config().bulkLoad()); // Opted in to by the table
+    Assert.assertFalse(((SimpleSnapshot) tableDriver.snapshot()).isLoaded());
+
+    tableDriver.config().setBulkLoad(true);
+    int commands = driver.getCommands();
+    SimpleSnapshot snapshot = (SimpleSnapshot) tableDriver.snapshot();
+    Assert.assertTrue(snapshot.isLoaded());
+    Assert.assertEquals(1, driver.getCommands() - commands);
+    Assert.assertEquals(XPATH, ((Object[]) driver.getArguments("executeScript")[1])[0]);
+    Assert.assertEquals(ImmutableList.of("Laptop", "Laptop", "Size"), snapshot.getRow(1));
+    Assert.assertEquals(ImmutableList.of("Laptop", "Dell", "Lenovo", "HP"), snapshot.getColumn(1));
+    Assert.assertEquals("X1 Carbon", snapshot.get(3, 2));
+    Assert.assertNull(snapshot.get(5, 1));
+
+    Assert.assertSame(snapshot, tableDriver.snapshot()); // Loaded once
+    Assert.assertEquals(1, driver.getCommands() - commands);
+  }
+
+  /**
+   * SNAPSHOT_SCRIPT repeats a cell in each column it spans and reads a no-break space as a space.
+   */
+  @Test
+  public void testLoadScript() throws Exception {
+    engine = new ScriptEngineManager().getEngineByName("nashorn");
+    Assume.assumeNotNull(engine);
+    rows.add(0, Lists.newArrayList(new Cell("Laptop", 2), new Cell(" Size\u00a0(in) ", 1)));
+
+    SimpleTableDriver tableDriver = new SimpleTableDriver(table.webElement());
+    tableDriver.config().setBulkLoad(true);
+    SimpleSnapshot snapshot = (SimpleSnapshot) tableDriver.snapshot();
+    Assert.assertEquals(ImmutableList.of("Laptop", "Laptop", "Size (in)"), snapshot.getRow(1));
+    Assert.assertEquals(ImmutableList.of("HP", "Spectre", "13"), snapshot.getRow(4));
+  }
+
+  @Test
+  public void testRefreshUnchanged() {
+    SimpleSnapshot snapshot = snapshot();
+    snapshot.refresh();
+    int[] rowHashes = snapshot.rowHashes();
+
+    int commands = driver.getCommands();
+    TableDiff diff = snapshot.refresh();
+    Assert.assertTrue(diff.isEmpty());
+    Assert.assertEquals("0 added, 0 removed, 0 modified", diff.toString());
+    Assert.assertEquals(1, driver.getCommands() - commands);
+    Assert.assertTrue(Arrays.equals(rowHashes, snapshot.rowHashes()));
+    Assert.assertEquals(ImmutableList.of("Lenovo", "X1 Carbon", "14"), snapshot.getRow(2));
+  }
+
+  @Test
+  public void testRefreshChanged() {
+    SimpleSnapshot snapshot = snapshot();
+    snapshot.refresh();
+    SimpleSnapshot previous = snapshot.copy();
+
+    rows.set(1, row("Lenovo", "X1 Carbon", "15"));
+    TableDiff diff = snapshot.refresh();
+    Assert.assertEquals(ImmutableList.of(2), diff.changedRows().asList());
+    Assert.assertEquals(1, diff.modified().size());
+    Assert.assertTrue(diff.added().isEmpty());
+    Assert.assertTrue(diff.removed().isEmpty());
+    Change change = diff.modified().get(0);
+    Assert.assertEquals(ChangeType.MODIFIED, change.type());
+    Assert.assertEquals(2, change.rowIndex());
+    Assert.assertEquals(3, change.columnIndex());
+    Assert.assertEquals("14", change.previous());
+    Assert.assertEquals("15", change.current());
+    Assert.assertEquals("MODIFIED (2, 3): \"14\" -> \"15\"", change.toString());
+
+    Assert.assertEquals("15", snapshot.get(2, 3));
+    Assert.assertEquals("14", previous.get(2, 3)); // The copy is left as it was
+    Assert.assertFalse(snapshot.equals(previous));
+  }
+
+  @Test
+  public void testRefreshInsertedRemoved() {
+    SimpleTableDriver tableDriver = new SimpleTableDriver(table.webElement());
+    SimpleSnapshot snapshot = (SimpleSnapshot) tableDriver.snapshot();
+    snapshot.refresh();
+
+    rows.add(1, row("Apple", "MacBook Air", "13")); // The rows below it change as well
+    TableDiff diff = snapshot.refresh();
+    Assert.assertEquals(ImmutableList.of(2, 3, 4), diff.changedRows().asList());
+    Assert.assertEquals(3, diff.added().size());
+    Assert.assertEquals(4, diff.added().get(0).rowIndex());
+    Assert.assertNull(diff.added().get(0).previous());
+    Assert.assertEquals("HP", diff.added().get(0).current());
+    Assert.assertEquals("3 added, 0 removed, 6 modified", diff.toString());
+    Assert.assertEquals(4, snapshot.rowHashes().length);
+    Assert.assertEquals(4, tableDriver.config().rowCount());
+
+    rows.remove(1);
+    rows.remove(2);
+    diff = snapshot.refresh();
+    Assert.assertEquals(ImmutableList.of(2, 3, 4), diff.changedRows().asList());
+    Assert.assertEquals(6, diff.removed().size());
+    Assert.assertEquals(3, diff.removed().get(0).rowIndex());
+    Assert.assertEquals("Lenovo", diff.removed().get(0).previous());
+    Assert.assertNull(diff.removed().get(0).current());
+    Assert.assertEquals(ChangeType.REMOVED, diff.removed().get(0).type());
+    Assert.assertEquals("0 added, 6 removed, 3 modified", diff.toString());
+    Assert.assertEquals(ImmutableList.of("Lenovo", "X1 Carbon", "14"), snapshot.getRow(2));
+    Assert.assertTrue(snapshot.getRow(4).isEmpty()); // Truncated
+    Assert.assertEquals(2, tableDriver.config().rowCount());
+  }
+
+  /**
+   * The hashes of the rows computed in the browser agree with the ones of the snapshot, on a row
+   * with a colspan, non-ASCII text and a no-break space among them. Runs where the JVM has the
+   * Nashorn engine (Java 8 to 14).
+   */
+  @Test
+  public void testRowHashes() throws Exception {
+    engine = new ScriptEngineManager().getEngineByName("nashorn");
+    Assume.assumeNotNull(engine);
+    rows.add(Lists.newArrayList(new Cell("Asus Zenbook Pro", 2), new Cell("15.6\u2033", 1)));
+    rows.add(row("Acer", "Swift\u00a0\u00e9dition ", "")); // Read as "Swift \u00e9dition"
+
+    SimpleSnapshot snapshot = snapshot();
+    TableDiff diff = snapshot.refresh();
+    Assert.assertEquals(15, diff.added().size());
+    Assert.assertEquals(ImmutableList.of("Asus Zenbook Pro", "Asus Zenbook Pro", "15.6\u2033"),
+        snapshot.getRow(4));
+
+    SimpleSnapshot refreshed = snapshot();
+    refreshed.setRow(1, ImmutableList.of("Dell", "XPS", "13"));
+    refreshed.setRow(2, ImmutableList.of("Lenovo", "X1 Carbon", "14"));
+    refreshed.setRow(3, ImmutableList.of("HP", "Spectre", "13"));
+    refreshed.setRow(4, ImmutableList.of("Asus Zenbook Pro", "Asus Zenbook Pro", "15.6\u2033"));
+    refreshed.setRow(5, ImmutableList.of("Acer", "Swift \u00e9dition", ""));
+    Assert.assertTrue(Arrays.equals(snapshot.rowHashes(), refreshed.rowHashes()));
+    Assert.assertTrue(refreshed.refresh().isEmpty()); // No row transferred
+
+    rows.get(4).set(1, new Cell("Swift Edition", 1));
+    Assert.assertEquals(ImmutableList.of(5), refreshed.refresh().changedRows().asList());
+  }
+
+  private SimpleSnapshot snapshot() {
+    return (SimpleSnapshot) new SimpleTableDriver(table.webElement()).snapshot();
+  }
+
+  /**
+   * Answers REFRESH_SCRIPT: the hashes of every row and the cells of the rows whose hash differs
+   * from the previous one.
+   */
+  private Map<String, Object> refresh(List<?> previous) {
+    List<Object> hashes = Lists.newArrayList();
+    List<Object> changed = Lists.newArrayList();
+    List<List<String>> texts = texts();
+    for (int i = 0; i < texts.size(); i++) {
+      long hash = texts.get(i).hashCode();
+      hashes.add(hash);
+      if (i >= previous.size() || ((Number) previous.get(i)).longValue() != hash) {
+        changed.add(ImmutableMap.of("index", (long) i + 1, "cells", texts.get(i)));
+      }
+    }
+    return ImmutableMap.<String, Object>of("hashes", hashes, "changed", changed);
+  }
+
+  /**
+   * Answers SNAPSHOT_SCRIPT: the text of every cell, repeated in each column it spans.
+   */
+  private List<List<String>> texts() {
+    List<List<String>> texts = Lists.newArrayList();
+    for (List<Cell> row : rows) {
+      List<String> text = Lists.newArrayList();
+      for (Cell cell : row) {
+        for (int i = 0; i < cell.colspan; i++) {
+          text.add(cell.text);
+        }
+      }
+      texts.add(text);
+    }
+    return texts;
+  }
+
+  private Object run(String script, Object[] arguments) throws Exception {
+    List<List<String>> texts = Lists.newArrayList();
+    List<List<Integer>> spans = Lists.newArrayList();
+    for (List<Cell> row : rows) {
+      List<String> text = Lists.newArrayList();
+      List<Integer> span = Lists.newArrayList();
+      for (Cell cell : row) {
+        text.add(cell.text);
+        span.add(cell.colspan);
+      }
+      texts.add(text);
+      spans.add(span);
+    }
+    Bindings bindings = engine.createBindings();
+    bindings.put("texts", texts);
+    bindings.put("spans", spans);
+    bindings.put("args", arguments);
+    return engine.eval(DOCUMENT + "toJava((function() {" + script + "})"
+        + ".apply(null, Java.from(args).map(toJs)));", bindings);
+  }
+
+  private static List<Cell> row(String... texts) {
+    List<Cell> row = Lists.newArrayList();
+    for (String text : texts) {
+      row.add(new Cell(text, 1));
+    }
+    return row;
+  }
+
+  private static class Cell {
+
+    private final String text;
+    private final int colspan;
+
+    private Cell(String text, int colspan) {
+      this.text = text;
+      this.colspan = colspan;
+    }
+
+  }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+/**
+ * StringGridBenchmark - Compares the StringGrid with the HashBasedTable the SimpleSnapshot used to
+ * store the cells in, on filling, reading, row/column access and copying a grid snapshot.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=org.basil.selenium.ui.table.StringGridBenchmark
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 3:10:52 PM
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringGridBenchmark {
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(StringGridBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+
+  @Param({"50", "500"})
+  private int rows;
+
+  @Param({"10"})
+  private int columns;
+
+  private String[][] values;
+  private Table<Integer, Integer, String> table;
+  private StringGrid grid;
+
+  @Setup
+  public void setUp() {
+    values = new String[rows + 1][columns + 1];
+    for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+      for (int columnIndex = 1; columnIndex <= columns; columnIndex++) {
+        values[rowIndex][columnIndex] = "Cell " + rowIndex + "." + columnIndex;
+      }
+    }
+    table = fillTable();
+    grid = fillGrid();
+  }
+
+  // Fill
+
+  @Benchmark
+  public Table<Integer, Integer, String> fillTable() {
+    Table<Integer, Integer, String> table = HashBasedTable.create(rows, columns);
+    for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+      for (int columnIndex = 1; columnIndex <= columns; columnIndex++) {
+        table.put(rowIndex, columnIndex, values[rowIndex][columnIndex]);
+      }
+    }
+    return table;
+  }
+
+  @Benchmark
+  public StringGrid fillGrid() {
+    StringGrid grid = new StringGrid(rows + 1, columns + 1);
+    for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+      for (int columnIndex = 1; columnIndex <= columns; columnIndex++) {
+        grid.set(rowIndex, columnIndex, values[rowIndex][columnIndex]);
+      }
+    }
+    return grid;
+  }
+
+  // Read every cell
+
+  @Benchmark
+  public void readTable(Blackhole blackhole) {
+    for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+      for (int columnIndex = 1; columnIndex <= columns; columnIndex++) {
+        blackhole.consume(table.get(rowIndex, columnIndex));
+      }
+    }
+  }
+
+  @Benchmark
+  public void readGrid(Blackhole blackhole) {
+    for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+      for (int columnIndex = 1; columnIndex <= columns; columnIndex++) {
+        blackhole.consume(grid.get(rowIndex, columnIndex));
+      }
+    }
+  }
+
+  // Column access
+
+  @Benchmark
+  public void columnOfTable(Blackhole blackhole) {
+    Map<Integer, String> column = table.column(columns / 2);
+    for (String value : column.values()) {
+      blackhole.consume(value);
+    }
+  }
+
+  @Benchmark
+  public void columnOfGrid(Blackhole blackhole) {
+    List<String> column = grid.column(columns / 2);
+    for (String value : column) {
+      blackhole.consume(value);
+    }
+  }
+
+  // Copy
+
+  @Benchmark
+  public Table<Integer, Integer, String> copyTable() {
+    return HashBasedTable.create(table);
+  }
+
+  @Benchmark
+  public StringGrid copyGrid() {
+    return grid.copy();
+  }
+
+  @Benchmark
+  public StringGrid copyGridAndWrite() {
+    StringGrid copy = grid.copy();
+    copy.set(1, 1, "Modified");
+    return copy;
+  }
+
+}
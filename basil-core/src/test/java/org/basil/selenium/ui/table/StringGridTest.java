@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.selenium.ui.table;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * StringGridTest
+ *
+ * @author ryan131
+ * @since Oct 17, 2026, 2:48:30 PM
+ */
+public class StringGridTest {
+
+  @Test
+  public void test() {
+    StringGrid grid = new StringGrid(2, 2);
+    grid.set(0, 0, "Dell");
+    grid.set(0, 1, "XPS");
+    grid.set(3, 4, "Lenovo"); // Grows beyond the capacity
+
+    Assert.assertEquals("Dell", grid.get(0, 0));
+    Assert.assertEquals("XPS", grid.get(0, 1));
+    Assert.assertEquals("Lenovo", grid.get(3, 4));
+    Assert.assertNull(grid.get(1, 1));
+    Assert.assertNull(grid.get(-1, 0));
+    Assert.assertNull(grid.get(4, 0));
+    Assert.assertEquals(4, grid.rowCount());
+    Assert.assertEquals(5, grid.columnCount());
+    Assert.assertEquals(Arrays.asList("Dell", "XPS", null, null, null), grid.row(0));
+    Assert.assertEquals(Arrays.asList("XPS", null, null, null), grid.column(1));
+  }
+
+  @Test
+  public void testCopyOnWrite() {
+    StringGrid grid = new StringGrid(2, 2);
+    grid.set(0, 0, "Dell");
+    StringGrid copy = grid.copy();
+    Assert.assertEquals(grid, copy);
+
+    copy.set(0, 0, "HP");
+    Assert.assertEquals("Dell", grid.get(0, 0));
+    Assert.assertEquals("HP", copy.get(0, 0));
+    Assert.assertFalse(grid.equals(copy));
+
+    grid.set(1, 1, "Acer");
+    Assert.assertNull(copy.get(1, 1));
+  }
+
+  @Test
+  public void testTruncate() {
+    StringGrid grid = new StringGrid(2, 2);
+    grid.set(0, 0, "Dell");
+    grid.set(2, 1, "Acer");
+    StringGrid copy = grid.copy();
+
+    grid.truncate(1);
+    Assert.assertEquals(1, grid.rowCount());
+    Assert.assertNull(grid.get(2, 1));
+    Assert.assertEquals("Acer", copy.get(2, 1));
+
+    grid.set(2, 0, "HP"); // The truncated cells do not come back
+    Assert.assertNull(grid.get(2, 1));
+  }
+
+}
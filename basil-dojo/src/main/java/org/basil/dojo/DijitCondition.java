@@ -4,6 +4,7 @@
 
 package org.basil.dojo;
 
+import org.basil.selenium.ui.NetworkIdle;
 import org.openqa.selenium.SearchContext;
 
 import com.google.common.base.Function;
@@ -17,6 +18,14 @@ import com.google.common.base.Strings;
  */
 public interface DijitCondition<V> extends Function<SearchContext, V> {
 
+  /**
+   * The page to have no request pending, the Dojo ones included, see NetworkIdle.
+   */
+  public static NetworkIdle networkIdle() {
+    DojoNetwork.install();
+    return new NetworkIdle();
+  }
+
   public static DijitCondition<Boolean> textToBeEmpty(final Dijit.TextInput<?> textInput) {
     return new DijitCondition<Boolean>() {
       @Override
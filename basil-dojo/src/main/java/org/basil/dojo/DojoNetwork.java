@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) 2013-2018 Ryan Li Wan. All rights reserved.
+ */
+
+package org.basil.dojo;
+
+import org.basil.selenium.ui.NetworkIdle;
+
+/**
+ * Dojo Network - Hooks the requests of Dojo into the tracker of NetworkIdle, so the script and
+ * iframe transports, which don't send XHR, are counted as well. The "send" and "done" events of
+ * dojo/request/notify are listened to on Dojo 1.8 and later, and the "/dojo/io/send" and
+ * "/dojo/io/done" topics of dojo.xhr are published and subscribed to on the earlier ones.
+ *
+ * @author ryan131
+ * @since Oct 18, 2026, 7:24:36 AM
+ */
+public final class DojoNetwork {
+  private DojoNetwork() {}
+
+  public static final String HOOK =
+      "var dojo = window.dojo;" +
+      "if (!dojo || !dojo.version) {" +
+      "  return;" +
+      "}" +
+      "if (dojo.version.major > 1 || dojo.version.minor >= 8) {" +
+      "  window.require(['dojo/request/notify'], function (notify) {" +
+      "    notify('send', function () { tracker.begin(); });" +
+      "    notify('done', function () { tracker.end(); });" +
+      "  });" +
+      "} else {" +
+      "  dojo.config.ioPublish = true;" +
+      "  dojo.subscribe('/dojo/io/send', function () { tracker.begin(); });" +
+      "  dojo.subscribe('/dojo/io/done', function () { tracker.end(); });" +
+      "}";
+
+  /**
+   * Adds the hook to the trackers injected from now on, it's added once however many times it's
+   * called.
+   */
+  public static void install() {
+    NetworkIdle.addHook(HOOK);
+  }
+
+}
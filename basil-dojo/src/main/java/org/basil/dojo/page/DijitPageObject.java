@@ -5,6 +5,7 @@
 package org.basil.dojo.page;
 
 import org.basil.dojo.Dijit;
+import org.basil.dojo.DojoNetwork;
 import org.basil.dojo.widget.DijitButton;
 import org.basil.dojo.widget.DijitCalendar;
 import org.basil.dojo.widget.DijitTab;
@@ -22,6 +23,10 @@ import org.openqa.selenium.WebElement;
  */
 public abstract class DijitPageObject extends PageObject {
 
+  static {
+    DojoNetwork.install(); // The Dojo requests are waited for by the NetworkIdle
+  }
+
   private DijitWidget dijitWidget;
 
   // Constructor
@@ -7,7 +7,14 @@ package org.basil.selenium;
 import java.util.concurrent.TimeUnit;
 
 import org.basil.junit.JUnitTestCase;
+import org.basil.selenium.base.DriverFactory;
+import org.basil.selenium.base.SessionErrors;
 import org.basil.selenium.page.ElementLookup;
+import org.basil.selenium.page.LazyElement;
+import org.basil.selenium.remote.BasilWebDriver;
+import org.basil.selenium.remote.CommandMetrics;
+import org.basil.selenium.ui.Deadline;
+import org.basil.selenium.ui.PollingStatistics;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -19,7 +26,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Add Selenium WebDriver to the JUnit Testcase. The WebDriver, WebDriverWait
- * objects are used as global variables.
+ * objects are those of the thread running the test, which leases the driver
+ * from the driver pool in setUp() and returns it in tearDown(), so that test
+ * cases can run in parallel.
  *
  * @author ryan131
  * @since Sep 27, 2015, 2:11:14 PM
@@ -34,6 +43,8 @@ public abstract class SeleniumTestCase extends JUnitTestCase {
   protected WebDriverWait wait;
   protected ElementLookup lookup;
 
+  private CommandMetrics.Snapshot metricsAtSetUp;
+
   public SeleniumTestCase() {
     super();
   }
@@ -44,6 +55,17 @@ public abstract class SeleniumTestCase extends JUnitTestCase {
 
   // Methods for assisting test case
 
+  /**
+   * Returns the metrics of the commands this test has executed so far, they are recorded when the
+   * driver is a BasilWebDriver.
+   */
+  protected CommandMetrics.Snapshot getCommandMetrics() {
+    if (metricsAtSetUp == null) {
+      return new CommandMetrics().snapshot();
+    }
+    return ((BasilWebDriver) driver).getMetrics().snapshot().minus(metricsAtSetUp);
+  }
+
   @Deprecated
   protected void setWaitTimeoutInSeconds(long timeOutInSeconds) {
     SeleniumTestUtil.temp_setWaitTimeout(timeOutInSeconds, TimeUnit.SECONDS);
@@ -86,6 +108,9 @@ public abstract class SeleniumTestCase extends JUnitTestCase {
     driver = SeleniumTestUtil.getDriver();
     wait = SeleniumTestUtil.getWait();
     lookup = SeleniumTestUtil.getLookup();
+    metricsAtSetUp = driver instanceof BasilWebDriver
+        ? ((BasilWebDriver) driver).getMetrics().snapshot()
+        : null;
 
     logger.info(getClass().getSimpleName() + " begin");
   }
@@ -93,6 +118,19 @@ public abstract class SeleniumTestCase extends JUnitTestCase {
   @After
   public void tearDown() {
     logger.info(getClass().getSimpleName() + " ended");
+    if (metricsAtSetUp != null && logger.isDebugEnabled()) {
+      logger.debug(getClass().getSimpleName() + " commands:" + System.lineSeparator()
+          + getCommandMetrics());
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(ResolutionPlan.getStatistics());
+      logger.debug(LazyElement.getStatistics());
+      logger.debug(PollingStatistics.getStatistics());
+      logger.debug(Deadline.getStatistics());
+      logger.debug(SessionErrors.getStatistics());
+    }
+
+    DriverFactory.releaseWebDriver();
 
     // Pause before executing the next test
 
@@ -35,7 +35,7 @@ public final class SeleniumTestUtil extends SeleniumContext {
   }
 
   public static void temp_setWaitTimeout(long duration, TimeUnit unit) {
-    wait.withTimeout(duration, unit);
+    getWait().withTimeout(duration, unit);
   }
 
   public static void pauseTest(String classSimpleName, long interval, boolean countdown) {